@@ -0,0 +1,71 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.stat.cost.RoundCountingStrategy;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The cost of a single run of a benchmarked application. The costs are measured once per trial on
+ * the first run and reported as secondary results for every iteration. Since all benchmarks are
+ * run in single shot mode, the reported numbers are per run.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class Costs {
+
+  /**
+   * Number of communication rounds, see {@link RoundCountingStrategy}.
+   */
+  public long rounds;
+
+  /**
+   * Number of multiplications of two secret values.
+   */
+  public long multiplications;
+
+  /**
+   * Number of comparisons (including equality tests) of secret values.
+   */
+  public long comparisons;
+
+  /**
+   * Number of values opened to one or more parties.
+   */
+  public long opens;
+
+  private boolean measured;
+  private long measuredRounds;
+  private long measuredMultiplications;
+  private long measuredComparisons;
+  private long measuredOpens;
+
+  @Setup(Level.Iteration)
+  public void clear() {
+    rounds = 0;
+    multiplications = 0;
+    comparisons = 0;
+    opens = 0;
+  }
+
+  boolean isMeasured() {
+    return measured;
+  }
+
+  void measured(long rounds, long multiplications, long comparisons, long opens) {
+    this.measuredRounds = rounds;
+    this.measuredMultiplications = multiplications;
+    this.measuredComparisons = comparisons;
+    this.measuredOpens = opens;
+    this.measured = true;
+  }
+
+  void report() {
+    rounds += measuredRounds;
+    multiplications += measuredMultiplications;
+    comparisons += measuredComparisons;
+    opens += measuredOpens;
+  }
+}
@@ -0,0 +1,130 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.FilteredStatistics;
+import dk.alexandra.fresco.stat.filtered.OneSampleTTestFiltered.FilteredTTestResult;
+import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the methods of {@link FilteredStatistics} on <i>n</i> samples with a random filter.
+ * The histograms and k-anonymizations use <i>p</i> buckets in each of <i>2</i> dimensions, and the
+ * remaining methods do not depend on <i>p</i>, so they may be run with a single value of <i>p</i>
+ * using <code>-p p=2</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@Timeout(time = 12, timeUnit = TimeUnit.HOURS)
+public class FilteredStatisticsBenchmark {
+
+  @Param({"100", "1000", "10000", "100000"})
+  public int n;
+
+  @Param({"2", "8", "32"})
+  public int p;
+
+  @Benchmark
+  public SFixed sampleMean(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return FilteredStatistics.using(builder).sampleMean(inputs.normal(n), inputs.bits(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public SFixed sampleVariance(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return FilteredStatistics.using(builder).sampleVariance(inputs.normal(n), inputs.bits(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public FilteredTTestResult ttest(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return FilteredStatistics.using(builder).ttest(inputs.normal(n),
+          FixedNumeric.using(builder).known(0), inputs.bits(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public List<DRes<SInt>> histogram(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return FilteredStatistics.using(builder).histogram(inputs.buckets(p, 1000),
+          inputs.integers(n, 1000), inputs.bits(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<List<DRes<SInt>>> kAnonymize(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return FilteredStatistics.using(builder).kAnonymize(inputs.integers(n, 2, 1000),
+          inputs.integers(n, 1000), List.of(inputs.buckets(p, 1000), inputs.buckets(p, 1000)), 5,
+          inputs.bits(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<List<BigInteger>> kAnonymizeAndOpen(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return FilteredStatistics.using(builder).kAnonymizeAndOpen(inputs.integers(n, 2, 1000),
+          inputs.integers(n, 1000), List.of(inputs.buckets(p, 1000), inputs.buckets(p, 1000)), 5,
+          inputs.bits(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<List<DRes<SInt>>> kAnonymizePublicBuckets(Parties parties,
+      Costs costs) throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return FilteredStatistics.using(builder).kAnonymize(inputs.integers(n, 2, 1000),
+          inputs.integers(n, 1000),
+          new int[][]{Inputs.publicBuckets(p, 1000), Inputs.publicBuckets(p, 1000)}, 5,
+          inputs.bits(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<List<BigInteger>> kAnonymizeAndOpenPublicBuckets(Parties parties,
+      Costs costs) throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return FilteredStatistics.using(builder).kAnonymizeAndOpen(inputs.integers(n, 2, 1000),
+          inputs.integers(n, 1000),
+          new int[][]{Inputs.publicBuckets(p, 1000), Inputs.publicBuckets(p, 1000)}, 5,
+          inputs.bits(n));
+    }, costs);
+  }
+}
@@ -0,0 +1,138 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Random secret inputs for the benchmarks. All values are input by the first party, and since the
+ * random generators are seeded, all parties agree on the inputs of a benchmark.
+ */
+public class Inputs {
+
+  private static final int INPUT_PARTY = 1;
+
+  private final ProtocolBuilderNumeric builder;
+  private final Random random;
+
+  public Inputs(ProtocolBuilderNumeric builder) {
+    this.builder = builder;
+    this.random = new Random(1234);
+  }
+
+  /** A vector of <i>n</i> standard normally distributed fixed point numbers. */
+  public ArrayList<DRes<SFixed>> normal(int n) {
+    FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+    return VectorUtils.listBuilder(n,
+        i -> fixedNumeric.input(random.nextGaussian(), INPUT_PARTY));
+  }
+
+  /** A vector of <i>n</i> fixed point numbers uniformly distributed in <i>[0,1)</i>. */
+  public ArrayList<DRes<SFixed>> uniform(int n) {
+    FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+    return VectorUtils.listBuilder(n,
+        i -> fixedNumeric.input(random.nextDouble(), INPUT_PARTY));
+  }
+
+  /** An <i>n x p</i> matrix of standard normally distributed fixed point numbers. */
+  public Matrix<DRes<SFixed>> normal(int n, int p) {
+    FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+    return MatrixUtils.buildMatrix(n, p,
+        (i, j) -> fixedNumeric.input(random.nextGaussian(), INPUT_PARTY));
+  }
+
+  /** <i>n</i> rows of <i>p</i> standard normally distributed fixed point numbers. */
+  public List<ArrayList<DRes<SFixed>>> normalRows(int n, int p) {
+    return IntStream.range(0, n).mapToObj(i -> normal(p)).collect(Collectors.toList());
+  }
+
+  /** <i>p</i> columns of <i>n</i> standard normally distributed fixed point numbers. */
+  public List<List<DRes<SFixed>>> normalColumns(int n, int p) {
+    return IntStream.range(0, p).mapToObj(j -> normal(n)).collect(Collectors.toList());
+  }
+
+  /** An upper triangular <i>p x p</i> matrix with entries in <i>[1,2)</i> on the diagonal. */
+  public Matrix<DRes<SFixed>> upperTriangular(int p) {
+    FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+    return MatrixUtils.buildMatrix(p, p, (i, j) -> {
+      if (i > j) {
+        return fixedNumeric.known(0);
+      }
+      return fixedNumeric.input(i == j ? 1.0 + random.nextDouble() : random.nextDouble(),
+          INPUT_PARTY);
+    });
+  }
+
+  /** A vector of <i>n</i> integers uniformly distributed in <i>[0, bound)</i>. */
+  public List<DRes<SInt>> integers(int n, int bound) {
+    return VectorUtils.listBuilder(n,
+        i -> builder.numeric().input(random.nextInt(bound), INPUT_PARTY));
+  }
+
+  /** An <i>n x p</i> matrix of integers uniformly distributed in <i>[0, bound)</i>. */
+  public Matrix<DRes<SInt>> integers(int n, int p, int bound) {
+    return MatrixUtils.buildMatrix(n, p,
+        (i, j) -> builder.numeric().input(random.nextInt(bound), INPUT_PARTY));
+  }
+
+  /** A one-hot encoding of an integer uniformly distributed in <i>[0, size)</i>. */
+  public List<DRes<SInt>> oneHot(int size) {
+    int value = random.nextInt(size);
+    return VectorUtils.listBuilder(size,
+        i -> builder.numeric().input(i == value ? 1 : 0, INPUT_PARTY));
+  }
+
+  /** A vector of <i>n</i> uniformly distributed bits as fixed point numbers. */
+  public ArrayList<DRes<SFixed>> fixedBits(int n) {
+    FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+    return VectorUtils.listBuilder(n, i -> fixedNumeric.input(random.nextInt(2), INPUT_PARTY));
+  }
+
+  /**
+   * <i>n</i> one-hot encodings of integers uniformly distributed in <i>[0, size)</i> as fixed point
+   * numbers.
+   */
+  public List<ArrayList<DRes<SFixed>>> oneHotRows(int n, int size) {
+    FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+    return IntStream.range(0, n).mapToObj(i -> {
+      int value = random.nextInt(size);
+      return VectorUtils.listBuilder(size,
+          j -> fixedNumeric.input(j == value ? 1 : 0, INPUT_PARTY));
+    }).collect(Collectors.toList());
+  }
+
+  /** A vector of <i>n</i> uniformly distributed bits. */
+  public List<DRes<SInt>> bits(int n) {
+    return integers(n, 2);
+  }
+
+  /**
+   * The upper bounds for <i>b</i> buckets of equal size covering <i>[0, bound)</i>. The last bucket
+   * is unbounded, so only <i>b - 1</i> bounds are returned.
+   */
+  public List<DRes<SInt>> buckets(int b, int bound) {
+    return VectorUtils.listBuilder(b - 1,
+        i -> builder.numeric().known((long) (i + 1) * bound / b));
+  }
+
+  /** As {@link #buckets(int, int)} but with the bounds given in the clear. */
+  public static int[] publicBuckets(int b, int bound) {
+    return IntStream.range(0, b - 1).map(i -> (int) ((long) (i + 1) * bound / b)).toArray();
+  }
+
+  /** The fixed point upper bounds for <i>b</i> buckets of equal size covering <i>[-2, 2)</i>. */
+  public List<DRes<SFixed>> normalBuckets(int b) {
+    FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+    return VectorUtils.listBuilder(b - 1, i -> fixedNumeric.known(-2.0 + 4.0 * (i + 1) / b));
+  }
+}
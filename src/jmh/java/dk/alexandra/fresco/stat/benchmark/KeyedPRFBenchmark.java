@@ -0,0 +1,73 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.stat.descriptive.LeakyFrequencyTable;
+import dk.alexandra.fresco.stat.descriptive.sort.FindTiedGroups;
+import dk.alexandra.fresco.stat.utils.KeyedPRF;
+import dk.alexandra.fresco.stat.utils.LegendrePRF;
+import dk.alexandra.fresco.stat.utils.MiMCPRF;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the {@link KeyedPRF} backends used to find equal elements among <i>n</i> secret
+ * integers. The inputs are given in parallel, so the rounds reported are dominated by the PRF.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@Timeout(time = 12, timeUnit = TimeUnit.HOURS)
+public class KeyedPRFBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int n;
+
+  @Param({"MiMC", "Legendre"})
+  public String prf;
+
+  private KeyedPRF createPRF() {
+    switch (prf) {
+      case "MiMC":
+        return new MiMCPRF();
+      case "Legendre":
+        return new LegendrePRF();
+      default:
+        throw new IllegalArgumentException("Unknown PRF: " + prf);
+    }
+  }
+
+  @Benchmark
+  public List<Pair<DRes<SInt>, Integer>> leakyFrequencyTable(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> builder
+        .par(par -> DRes.of(new Inputs(par).integers(n, 10)))
+        .seq((seq, data) -> new LeakyFrequencyTable(data, createPRF()).buildComputation(seq)),
+        costs);
+  }
+
+  @Benchmark
+  public List<BigInteger> findTiedGroups(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> builder
+        .par(par -> DRes.of(new Inputs(par).integers(n, 10)))
+        .seq((seq, data) -> new FindTiedGroups(data, createPRF()).buildComputation(seq)), costs);
+  }
+}
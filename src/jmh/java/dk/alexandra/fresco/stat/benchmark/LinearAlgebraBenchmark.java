@@ -0,0 +1,128 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.AdvancedLinearAlgebra;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the methods of {@link AdvancedLinearAlgebra}. Methods on square matrices use
+ * <i>p x p</i> matrices, methods on general matrices use <i>n x p</i> matrices and methods on
+ * vectors use vectors of length <i>n</i>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@Timeout(time = 12, timeUnit = TimeUnit.HOURS)
+public class LinearAlgebraBenchmark {
+
+  private static final int EIGENVALUE_ITERATIONS = 5;
+
+  @Param({"100", "1000", "10000", "100000"})
+  public int n;
+
+  @Param({"2", "8", "32"})
+  public int p;
+
+  @Benchmark
+  public ArrayList<DRes<SFixed>> backSubstitution(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return AdvancedLinearAlgebra.using(builder).backSubstitution(inputs.upperTriangular(p),
+          inputs.normal(p));
+    }, costs);
+  }
+
+  @Benchmark
+  public ArrayList<DRes<SFixed>> forwardSubstitution(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return AdvancedLinearAlgebra.using(builder).forwardSubstitution(
+          MatrixUtils.transpose(inputs.upperTriangular(p)), inputs.normal(p));
+    }, costs);
+  }
+
+  @Benchmark
+  public List<ArrayList<DRes<SFixed>>> gramSchmidt(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> AdvancedLinearAlgebra.using(builder)
+        .gramSchmidt(new Inputs(builder).normalRows(p, n)), costs);
+  }
+
+  @Benchmark
+  public Matrix<DRes<SFixed>> invertLowerTriangularMatrix(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> AdvancedLinearAlgebra.using(builder)
+        .invertLowerTriangularMatrix(MatrixUtils.transpose(new Inputs(builder).upperTriangular(p))),
+        costs);
+  }
+
+  @Benchmark
+  public ArrayList<DRes<SFixed>> linearInverseProblem(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return AdvancedLinearAlgebra.using(builder).linearInverseProblem(inputs.normal(n, p),
+          inputs.normal(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public Matrix<DRes<SFixed>> moorePenrosePseudoInverse(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> AdvancedLinearAlgebra.using(builder)
+        .moorePenrosePseudoInverse(new Inputs(builder).normal(n, p)), costs);
+  }
+
+  @Benchmark
+  public ArrayList<DRes<SFixed>> normalizeVector(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> AdvancedLinearAlgebra.using(builder)
+        .normalizeVector(new Inputs(builder).normal(n)), costs);
+  }
+
+  @Benchmark
+  public ArrayList<DRes<SFixed>> projection(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return AdvancedLinearAlgebra.using(builder).projection(inputs.normal(n), inputs.normal(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public List<DRes<SFixed>> iterativeEigenvalues(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> AdvancedLinearAlgebra.using(builder)
+        .iterativeEigenvalues(new Inputs(builder).normal(p, p), EIGENVALUE_ITERATIONS), costs);
+  }
+
+  @Benchmark
+  public Pair<Matrix<DRes<SFixed>>, Matrix<DRes<SFixed>>> qrDecomposition(Parties parties,
+      Costs costs) throws ExecutionException, InterruptedException {
+    return parties.run(builder -> AdvancedLinearAlgebra.using(builder)
+        .qrDecomposition(new Inputs(builder).normal(n, p)), costs);
+  }
+}
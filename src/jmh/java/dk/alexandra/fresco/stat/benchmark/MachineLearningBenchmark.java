@@ -0,0 +1,89 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.MachineLearning;
+import dk.alexandra.fresco.stat.mlp.Layer;
+import dk.alexandra.fresco.stat.mlp.MLP;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the methods of {@link MachineLearning} on <i>n</i> samples with <i>p</i> features.
+ * All models are trained for a single epoch, and the multi-layer perceptron has one hidden layer
+ * and two output neurons.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@Timeout(time = 12, timeUnit = TimeUnit.HOURS)
+public class MachineLearningBenchmark {
+
+  private static final int HIDDEN_NEURONS = 16;
+  private static final int CATEGORIES = 2;
+
+  @Param({"100", "1000", "10000", "100000"})
+  public int n;
+
+  @Param({"2", "8", "32"})
+  public int p;
+
+  @Benchmark
+  public ArrayList<DRes<SFixed>> logisticRegression(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return MachineLearning.using(builder).logisticRegression(inputs.normal(n, p),
+          inputs.fixedBits(n), new double[p + 1], i -> 0.1, 1);
+    }, costs);
+  }
+
+  @Benchmark
+  public MLP fit(Parties parties, Costs costs) throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return MachineLearning.using(builder).fit(network(builder), inputs.normalRows(n, p),
+          inputs.oneHotRows(n, CATEGORIES), 1, 0.1);
+    }, costs);
+  }
+
+  /** Predict the category of <i>n</i> samples. */
+  @Benchmark
+  public List<DRes<SInt>> predict(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      MLP network = network(builder);
+      List<DRes<SInt>> predictions = new ArrayList<>();
+      for (ArrayList<DRes<SFixed>> input : inputs.normalRows(n, p)) {
+        predictions.add(MachineLearning.using(builder).predict(network, input));
+      }
+      return DRes.of(predictions);
+    }, costs);
+  }
+
+  private MLP network(ProtocolBuilderNumeric builder) {
+    Random prng = new Random(1234);
+    return new MLP(List.of(new Layer(p, HIDDEN_NEURONS, prng, builder),
+        new Layer(HIDDEN_NEURONS, CATEGORIES, prng, builder)));
+  }
+}
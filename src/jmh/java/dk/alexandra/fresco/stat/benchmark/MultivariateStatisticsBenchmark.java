@@ -0,0 +1,247 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.common.util.SIntPair;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.Statistics;
+import dk.alexandra.fresco.stat.regression.linear.LinearRegression.LinearRegressionResult;
+import dk.alexandra.fresco.stat.survival.SurvivalEntry;
+import dk.alexandra.fresco.stat.survival.cox.CoxRegression.CoxRegressionResult;
+import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the methods of {@link Statistics} which depend on both the number of samples,
+ * <i>n</i>, and a second dimension, <i>p</i>, which is the number of variables, groups, categories
+ * or buckets depending on the method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@Timeout(time = 12, timeUnit = TimeUnit.HOURS)
+public class MultivariateStatisticsBenchmark {
+
+  /**
+   * Number of samples. For the multidimensional histograms and k-anonymization the data is
+   * <i>2</i>-dimensional.
+   */
+  @Param({"100", "1000", "10000", "100000"})
+  public int n;
+
+  @Param({"2", "8", "32"})
+  public int p;
+
+  @Benchmark
+  public LinearRegressionResult linearRegression(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).linearRegression(inputs.normalRows(n, p), inputs.normal(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public ArrayList<DRes<SFixed>> mahalanobisDistance(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .mahalanobisDistance(new Inputs(builder).normalColumns(n, p)), costs);
+  }
+
+  @Benchmark
+  public SFixed ffest(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .ffest(new Inputs(builder).normalColumns(n / p, p)), costs);
+  }
+
+  @Benchmark
+  public SFixed kruskallWallisTest(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .kruskallWallisTest(new Inputs(builder).normalColumns(n / p, p)), costs);
+  }
+
+  @Benchmark
+  public SFixed chiSquare(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    double[] expected = new double[p];
+    Arrays.fill(expected, (double) n / p);
+    return parties.run(builder -> Statistics.using(builder)
+        .chiSquare(new Inputs(builder).integers(p, 2 * n / p), expected), costs);
+  }
+
+  @Benchmark
+  public List<DRes<SInt>> histogramDiscrete(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).histogramDiscrete(inputs.buckets(p, 1000),
+          inputs.integers(n, 1000));
+    }, costs);
+  }
+
+  @Benchmark
+  public List<DRes<SInt>> histogramContinuous(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).histogramContinuous(inputs.normalBuckets(p),
+          inputs.normal(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public Matrix<DRes<SInt>> twoDimensionalHistogramDiscrete(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      List<DRes<SInt>> x = inputs.integers(n, 1000);
+      List<DRes<SInt>> y = inputs.integers(n, 1000);
+      return Statistics.using(builder).twoDimensionalHistogramDiscrete(
+          new Pair<>(inputs.buckets(p, 1000), inputs.buckets(p, 1000)),
+          IntStream.range(0, n).mapToObj(i -> new Pair<>(x.get(i), y.get(i)))
+              .collect(Collectors.toList()));
+    }, costs);
+  }
+
+  @Benchmark
+  public Matrix<DRes<SInt>> twoDimensionalHistogramDiscretePublicBuckets(Parties parties,
+      Costs costs) throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      List<DRes<SInt>> x = inputs.integers(n, 1000);
+      List<DRes<SInt>> y = inputs.integers(n, 1000);
+      return Statistics.using(builder).twoDimensionalHistogramDiscrete(
+          Inputs.publicBuckets(p, 1000), Inputs.publicBuckets(p, 1000),
+          IntStream.range(0, n).mapToObj(i -> new Pair<>(x.get(i), y.get(i)))
+              .collect(Collectors.toList()));
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<DRes<SInt>> multiDimensionalHistogramDiscrete(Parties parties,
+      Costs costs) throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).multiDimensionalHistogramDiscrete(
+          List.of(inputs.buckets(p, 1000), inputs.buckets(p, 1000)), inputs.integers(n, 2, 1000));
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<DRes<SInt>> multiDimensionalHistogramDiscretePublicBuckets(
+      Parties parties, Costs costs) throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).multiDimensionalHistogramDiscrete(
+          new int[][]{Inputs.publicBuckets(p, 1000), Inputs.publicBuckets(p, 1000)},
+          inputs.integers(n, 2, 1000));
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<List<DRes<SInt>>> kAnonymize(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).kAnonymize(inputs.integers(n, 2, 1000),
+          inputs.integers(n, 1000), List.of(inputs.buckets(p, 1000), inputs.buckets(p, 1000)), 5);
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<List<BigInteger>> kAnonymizeAndOpen(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).kAnonymizeAndOpen(inputs.integers(n, 2, 1000),
+          inputs.integers(n, 1000), List.of(inputs.buckets(p, 1000), inputs.buckets(p, 1000)), 5);
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<List<DRes<SInt>>> kAnonymizePublicBuckets(Parties parties,
+      Costs costs) throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).kAnonymize(inputs.integers(n, 2, 1000),
+          inputs.integers(n, 1000),
+          new int[][]{Inputs.publicBuckets(p, 1000), Inputs.publicBuckets(p, 1000)}, 5);
+    }, costs);
+  }
+
+  @Benchmark
+  public MultiDimensionalArray<List<BigInteger>> kAnonymizeAndOpenPublicBuckets(Parties parties,
+      Costs costs) throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).kAnonymizeAndOpen(inputs.integers(n, 2, 1000),
+          inputs.integers(n, 1000),
+          new int[][]{Inputs.publicBuckets(p, 1000), Inputs.publicBuckets(p, 1000)}, 5);
+    }, costs);
+  }
+
+  @Benchmark
+  public Matrix<DRes<SInt>> contingencyTableCategorical(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      List<DRes<SInt>> x = inputs.integers(n, p);
+      List<DRes<SInt>> y = inputs.integers(n, p);
+      return Statistics.using(builder).contingencyTable(
+          IntStream.range(0, n).mapToObj(i -> new SIntPair(x.get(i), y.get(i)))
+              .collect(Collectors.toList()), p, p);
+    }, costs);
+  }
+
+  @Benchmark
+  public Matrix<DRes<SInt>> contingencyTable(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      List<Pair<List<DRes<SInt>>, List<DRes<SInt>>>> data = IntStream.range(0, n)
+          .mapToObj(i -> new Pair<>(inputs.oneHot(p), inputs.oneHot(p)))
+          .collect(Collectors.toList());
+      return Statistics.using(builder).contingencyTable(data);
+    }, costs);
+  }
+
+  @Benchmark
+  public CoxRegressionResult coxRegressionContinuous(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      List<ArrayList<DRes<SFixed>>> covariates = inputs.normalRows(n, p);
+      List<DRes<SInt>> times = inputs.integers(n, 1000);
+      List<DRes<SInt>> censored = inputs.bits(n);
+      List<SurvivalEntry> data = IntStream.range(0, n).mapToObj(
+          i -> new SurvivalEntry(covariates.get(i), times.get(i), censored.get(i)))
+          .collect(Collectors.toList());
+      return Statistics.using(builder).coxRegressionContinuous(data, 1, 0.1, new double[p]);
+    }, costs);
+  }
+}
@@ -0,0 +1,152 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.Party;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.configuration.NetworkConfigurationImpl;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.stat.cost.CountingProtocolSuite;
+import dk.alexandra.fresco.stat.cost.RoundCountingStrategy;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticProtocolSuite;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePoolImpl;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A set of parties connected on localhost running the dummy arithmetic protocol suite. Each party
+ * runs in its own thread, and an application is run by all parties concurrently.
+ */
+@State(Scope.Benchmark)
+public class Parties {
+
+  private static final Duration TIMEOUT = Duration.ofHours(12);
+
+  @Param({"2"})
+  public int parties;
+
+  @Param({"400"})
+  public int maxBitLength;
+
+  @Param({"32"})
+  public int fixedPointPrecision;
+
+  private ExecutorService executor;
+  private List<PartyConfiguration> configurations;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException, InterruptedException, ExecutionException {
+    FieldDefinition fieldDefinition = MersennePrimeFieldDefinition.find(512);
+    Map<Integer, Party> partyMap = new HashMap<>();
+    for (int i = 1; i <= parties; i++) {
+      try (ServerSocket socket = new ServerSocket(0)) {
+        partyMap.put(i, new Party(i, "localhost", socket.getLocalPort()));
+      }
+    }
+
+    executor = Executors.newFixedThreadPool(parties);
+    List<Future<CloseableNetwork>> networks = new ArrayList<>();
+    for (int i = 1; i <= parties; i++) {
+      int myId = i;
+      networks.add(executor.submit(
+          () -> new SocketNetwork(new NetworkConfigurationImpl(myId, partyMap))));
+    }
+
+    configurations = new ArrayList<>();
+    for (int i = 1; i <= parties; i++) {
+      CountingProtocolSuite<DummyArithmeticResourcePool> suite = new CountingProtocolSuite<>(
+          new DummyArithmeticProtocolSuite(fieldDefinition, maxBitLength, fixedPointPrecision));
+      RoundCountingStrategy strategy = new RoundCountingStrategy(
+          EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy());
+      SecureComputationEngine<DummyArithmeticResourcePool, ProtocolBuilderNumeric> sce =
+          new SecureComputationEngineImpl<>(suite, new BatchedProtocolEvaluator<>(strategy, suite));
+      configurations.add(new PartyConfiguration(sce, suite, strategy, networks.get(i - 1).get(),
+          new DummyArithmeticResourcePoolImpl(i, parties, fieldDefinition)));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    for (PartyConfiguration configuration : configurations) {
+      configuration.sce.close();
+      configuration.network.close();
+    }
+    executor.shutdownNow();
+  }
+
+  /**
+   * Run an application on all parties and return the output of the first party. If the costs of
+   * the application has not yet been measured, the application is run with counting enabled and
+   * the measured costs are stored in the given {@link Costs}.
+   */
+  public <T> T run(Application<T, ProtocolBuilderNumeric> application, Costs costs)
+      throws InterruptedException, ExecutionException {
+    boolean measure = !costs.isMeasured();
+    for (PartyConfiguration configuration : configurations) {
+      configuration.suite.reset();
+      configuration.suite.setEnabled(measure);
+      configuration.strategy.reset();
+    }
+
+    List<Future<T>> outputs = new ArrayList<>();
+    for (PartyConfiguration configuration : configurations) {
+      outputs.add(executor.submit(() -> configuration.sce
+          .runApplication(application, configuration.resourcePool, configuration.network,
+              TIMEOUT)));
+    }
+    List<T> results = new ArrayList<>();
+    for (Future<T> output : outputs) {
+      results.add(output.get());
+    }
+
+    if (measure) {
+      PartyConfiguration configuration = configurations.get(0);
+      costs.measured(configuration.strategy.getRounds(), configuration.suite.getMultiplications(),
+          configuration.suite.getComparisons(), configuration.suite.getOpens());
+    }
+    costs.report();
+    return results.get(0);
+  }
+
+  private static class PartyConfiguration {
+
+    private final SecureComputationEngine<DummyArithmeticResourcePool, ProtocolBuilderNumeric> sce;
+    private final CountingProtocolSuite<DummyArithmeticResourcePool> suite;
+    private final RoundCountingStrategy strategy;
+    private final CloseableNetwork network;
+    private final DummyArithmeticResourcePool resourcePool;
+
+    private PartyConfiguration(
+        SecureComputationEngine<DummyArithmeticResourcePool, ProtocolBuilderNumeric> sce,
+        CountingProtocolSuite<DummyArithmeticResourcePool> suite, RoundCountingStrategy strategy,
+        CloseableNetwork network, DummyArithmeticResourcePool resourcePool) {
+      this.sce = sce;
+      this.suite = suite;
+      this.strategy = strategy;
+      this.network = network;
+      this.resourcePool = resourcePool;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.stat.Sampler;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the methods of {@link Sampler}. Each benchmark draws <i>n</i> independent samples
+ * in parallel, and the categorical distribution has <i>p</i> categories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@Timeout(time = 12, timeUnit = TimeUnit.HOURS)
+public class SamplerBenchmark {
+
+  @Param({"100", "1000", "10000", "100000"})
+  public int n;
+
+  @Param({"2", "8", "32"})
+  public int p;
+
+  @Benchmark
+  public List<?> sampleBernoulliDistribution(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return sample(parties, costs, sampler -> sampler.sampleBernoulliDistribution(0.3));
+  }
+
+  @Benchmark
+  public List<?> sampleCategoricalDistribution(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    double[] probabilities = new double[p];
+    Arrays.fill(probabilities, 1.0 / p);
+    return sample(parties, costs,
+        sampler -> sampler.sampleCategoricalDistribution(probabilities));
+  }
+
+  @Benchmark
+  public List<?> sampleExponentialDistribution(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return sample(parties, costs, sampler -> sampler.sampleExponentialDistribution(2.0));
+  }
+
+  @Benchmark
+  public List<?> sampleLaplaceDistribution(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return sample(parties, costs, sampler -> sampler.sampleLaplaceDistribution(2.0));
+  }
+
+  @Benchmark
+  public List<?> sampleNormalDistribution(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return sample(parties, costs, Sampler::sampleNormalDistribution);
+  }
+
+  @Benchmark
+  public List<?> sampleRademacherDistribution(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return sample(parties, costs, Sampler::sampleRademacherDistribution);
+  }
+
+  @Benchmark
+  public List<?> sampleUniformDistribution(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return sample(parties, costs, Sampler::sampleUniformDistribution);
+  }
+
+  private List<?> sample(Parties parties, Costs costs, Function<Sampler, DRes<?>> sample)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> builder.par(par -> {
+      List<DRes<?>> samples = IntStream.range(0, n)
+          .mapToObj(i -> sample.apply(Sampler.using(par))).collect(Collectors.toList());
+      return DRes.of(samples);
+    }), costs);
+  }
+}
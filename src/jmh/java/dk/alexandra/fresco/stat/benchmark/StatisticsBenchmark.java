@@ -0,0 +1,139 @@
+package dk.alexandra.fresco.stat.benchmark;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.Statistics;
+import dk.alexandra.fresco.stat.regression.linear.SimpleLinearRegression.SimpleLinearRegressionResult;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the univariate methods of {@link Statistics} on <i>n</i> samples.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@Timeout(time = 12, timeUnit = TimeUnit.HOURS)
+public class StatisticsBenchmark {
+
+  @Param({"100", "1000", "10000", "100000"})
+  public int n;
+
+  @Benchmark
+  public SFixed sampleMean(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .sampleMean(new Inputs(builder).normal(n)), costs);
+  }
+
+  @Benchmark
+  public SFixed sampleMedian(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .sampleMedian(new Inputs(builder).normal(n)), costs);
+  }
+
+  @Benchmark
+  public List<DRes<SFixed>> samplePercentiles(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .samplePercentiles(new Inputs(builder).normal(n), new double[]{0.25, 0.5, 0.75}), costs);
+  }
+
+  @Benchmark
+  public SFixed sampleVariance(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .sampleVariance(new Inputs(builder).normal(n)), costs);
+  }
+
+  @Benchmark
+  public SFixed sampleStandardDeviation(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .sampleStandardDeviation(new Inputs(builder).normal(n)), costs);
+  }
+
+  @Benchmark
+  public SFixed ttest(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .ttest(new Inputs(builder).normal(n), FixedNumeric.using(builder).known(0)), costs);
+  }
+
+  @Benchmark
+  public SFixed twoSampleTTest(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).ttest(inputs.normal(n), inputs.normal(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public SFixed correlation(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).correlation(inputs.normal(n), inputs.normal(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public SimpleLinearRegressionResult simpleLinearRegression(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).simpleLinearRegression(inputs.normal(n), inputs.normal(n));
+    }, costs);
+  }
+
+  @Benchmark
+  public List<Pair<DRes<SInt>, Integer>> leakyFrequencyTable(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .leakyFrequencyTable(new Inputs(builder).integers(n, 10)), costs);
+  }
+
+  @Benchmark
+  public List<Pair<BigInteger, Integer>> frequencyTable(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .frequencyTable(new Inputs(builder).integers(n, 10)), costs);
+  }
+
+  @Benchmark
+  public SFixed oneSampleWilcoxonTest(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> Statistics.using(builder)
+        .oneSampleWilcoxonTest(new Inputs(builder).normal(n)), costs);
+  }
+
+  @Benchmark
+  public SFixed twoSampleWilcoxonTest(Parties parties, Costs costs)
+      throws ExecutionException, InterruptedException {
+    return parties.run(builder -> {
+      Inputs inputs = new Inputs(builder);
+      return Statistics.using(builder).twoSampleWilcoxonTest(inputs.normal(n), inputs.normal(n));
+    }, costs);
+  }
+}
@@ -2,14 +2,26 @@ package dk.alexandra.fresco.stat;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
-import dk.alexandra.fresco.lib.common.collections.Collections;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.common.util.SIntPair;
 import dk.alexandra.fresco.lib.fixed.SFixed;
 import dk.alexandra.fresco.stat.anonymisation.LeakyKAnonymity;
+import dk.alexandra.fresco.stat.descriptive.ContingencyTableCategorical;
+import dk.alexandra.fresco.stat.descriptive.sufficient.ComputeSufficientStatistics;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatistics;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatisticsCorrelation;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatisticsCovariance;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatisticsLinearRegression;
+import dk.alexandra.fresco.stat.descriptive.sort.ObliviousShuffle;
+import dk.alexandra.fresco.stat.filtered.CompactFiltered;
+import dk.alexandra.fresco.stat.filtered.Filter;
+import dk.alexandra.fresco.stat.filtered.FilterPredicate;
 import dk.alexandra.fresco.stat.filtered.OneSampleTTestFiltered.FilteredTTestResult;
 import dk.alexandra.fresco.stat.filtered.HistogramFiltered;
 import dk.alexandra.fresco.stat.filtered.OneSampleTTestFiltered;
+import dk.alexandra.fresco.stat.filtered.SampleQuantilesFiltered;
 import dk.alexandra.fresco.stat.filtered.SampleMeanFiltered;
 import dk.alexandra.fresco.stat.filtered.SampleVarianceFiltered;
 import dk.alexandra.fresco.stat.utils.MatrixUtils;
@@ -17,9 +29,9 @@ import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
 import dk.alexandra.fresco.stat.utils.VectorUtils;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class DefaultFilteredStatistics implements FilteredStatistics {
 
@@ -50,27 +62,111 @@ public class DefaultFilteredStatistics implements FilteredStatistics {
     return new OneSampleTTestFiltered(data, mu, filter).buildComputation(builder);
   }
 
+  @Override
+  public DRes<List<DRes<SFixed>>> samplePercentiles(List<DRes<SFixed>> data, double[] quantiles,
+      List<DRes<SInt>> filter) {
+    return new SampleQuantilesFiltered(data, quantiles, filter).buildComputation(builder);
+  }
+
+  @Override
+  public DRes<SufficientStatistics> sufficientStatistics(List<List<DRes<SFixed>>> observations,
+      List<DRes<SInt>> filter) {
+    return new ComputeSufficientStatistics(observations, filter).buildComputation(builder);
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> sampleCovariance(List<List<DRes<SFixed>>> data,
+      List<DRes<SInt>> filter) {
+    return builder.seq(new ComputeSufficientStatistics(observations(data), filter))
+        .seq((seq, statistics) -> new SufficientStatisticsCovariance(statistics)
+            .buildComputation(seq));
+  }
+
+  @Override
+  public DRes<SFixed> correlation(List<DRes<SFixed>> data1, List<DRes<SFixed>> data2,
+      List<DRes<SInt>> filter) {
+    return builder.seq(seq -> FilteredStatistics.using(seq)
+        .correlationMatrix(List.of(data1, data2), filter))
+        .seq((seq, correlation) -> correlation.getRow(1).get(0));
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> correlationMatrix(List<List<DRes<SFixed>>> data,
+      List<DRes<SInt>> filter) {
+    return builder.seq(new ComputeSufficientStatistics(observations(data), filter))
+        .seq((seq, statistics) -> new SufficientStatisticsCorrelation(statistics)
+            .buildComputation(seq));
+  }
+
+  @Override
+  public DRes<ArrayList<DRes<SFixed>>> linearRegression(List<List<DRes<SFixed>>> observations,
+      int response, List<DRes<SInt>> filter) {
+    return builder.seq(new ComputeSufficientStatistics(observations, filter))
+        .seq((seq, statistics) -> new SufficientStatisticsLinearRegression(statistics, response)
+            .buildComputation(seq));
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SInt>>> contingencyTable(List<SIntPair> data, int firstRange,
+      int secondRange, List<DRes<SInt>> filter) {
+    return new ContingencyTableCategorical(data, firstRange, secondRange, filter)
+        .buildComputation(builder);
+  }
+
   @Override
   public DRes<List<DRes<SInt>>> histogram(List<DRes<SInt>> buckets, List<DRes<SInt>> data,
       List<DRes<SInt>> filter) {
     return new HistogramFiltered(buckets, data, filter).buildComputation(builder);
   }
 
+  @Override
+  public DRes<List<DRes<SInt>>> histogram(int[] buckets, List<DRes<SInt>> data,
+      List<DRes<SInt>> filter) {
+    return new HistogramFiltered(Arrays.stream(buckets).mapToObj(BigInteger::valueOf)
+        .toArray(BigInteger[]::new), data, filter).buildComputation(builder);
+  }
+
   @Override
   public DRes<MultiDimensionalArray<List<DRes<SInt>>>> kAnonymize(Matrix<DRes<SInt>> data,
       List<DRes<SInt>> sensitiveAttributes, List<List<DRes<SInt>>> buckets, int k,
       List<DRes<SInt>> filter) {
-    // The shuffle method expects a matrix whose height is a two power. If this is not the case, we
-    // pad with zero rows and put an extra indicator attribute to be able to remove them afterwards.
+    return shuffleAndKAnonymize(data, sensitiveAttributes, filter,
+        (seq, shuffledData, shuffledSensitive) -> {
+          List<List<DRes<SInt>>> bucketsWithIndicator = new ArrayList<>(buckets);
+          bucketsWithIndicator.add(List.of(seq.numeric().known(0)));
+          return new LeakyKAnonymity(shuffledData, shuffledSensitive, bucketsWithIndicator, k);
+        });
+  }
+
+  @Override
+  public DRes<MultiDimensionalArray<List<DRes<SInt>>>> kAnonymize(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> sensitiveAttributes, int[][] buckets, int k, List<DRes<SInt>> filter) {
+    return shuffleAndKAnonymize(data, sensitiveAttributes, filter,
+        (seq, shuffledData, shuffledSensitive) -> {
+          BigInteger[][] bucketsWithIndicator = new BigInteger[buckets.length + 1][];
+          for (int i = 0; i < buckets.length; i++) {
+            bucketsWithIndicator[i] = Arrays.stream(buckets[i]).mapToObj(BigInteger::valueOf)
+                .toArray(BigInteger[]::new);
+          }
+          bucketsWithIndicator[buckets.length] = new BigInteger[]{BigInteger.ZERO};
+          return new LeakyKAnonymity(shuffledData, shuffledSensitive, bucketsWithIndicator, k);
+        });
+  }
 
-    // Smallest representable value
-    BigInteger paddingValue = BigInteger.valueOf(0);
-    BigInteger paddingSensitive = BigInteger.valueOf(0);
+  /**
+   * Creates the "leaky" k-anonymity computation to run on the shuffled data. The last column of
+   * the shuffled data is the excluded indicator, so the buckets must have a single bound of zero
+   * for this column.
+   */
+  private interface KAnonymityFactory {
 
-    // Distance to next power of two
-    int padding = Integer.bitCount(data.getHeight()) == 1 ? 0
-        : (Integer.highestOneBit(data.getHeight()) << 1) - data.getHeight();
+    LeakyKAnonymity create(ProtocolBuilderNumeric builder, Matrix<DRes<SInt>> shuffledData,
+        List<DRes<SInt>> shuffledSensitive);
+  }
 
+  private DRes<MultiDimensionalArray<List<DRes<SInt>>>> shuffleAndKAnonymize(
+      Matrix<DRes<SInt>> data, List<DRes<SInt>> sensitiveAttributes, List<DRes<SInt>> filter,
+      KAnonymityFactory kAnonymity) {
     return builder.par(par -> {
 
       // Create a matrix consisting of quasi identifiers, excluded indicator and sensitive attributes
@@ -85,31 +181,19 @@ public class DefaultFilteredStatistics implements FilteredStatistics {
         row.add(par.seq(seq -> seq.numeric().mult(filter.get(finalI), sensitiveAttributes.get(finalI))));
         rows.add(row);
       }
-
-      // Filtered and padding values are excluded
-      for (int i = 0; i < padding; i++) {
-        ArrayList<DRes<SInt>> row = IntStream.range(0, data.getWidth())
-            .mapToObj(j -> par.numeric().known(paddingValue))
-            .collect(Collectors.toCollection(ArrayList::new));
-        row.add(par.numeric().known(1)); // Add padding indicator attribute
-        row.add(par.numeric().known(paddingSensitive));
-        rows.add(row);
-      }
       return DRes.of(new Matrix<>(rows.size(), rows.get(0).size(), rows));
     }).seq((seq, columnVector) -> {
       // Shuffle the matrix we created above
-      return Collections.using(seq).shuffle(DRes.of(columnVector));
+      return new ObliviousShuffle(columnVector).buildComputation(seq);
     }).seq((seq, shuffledMatrix) -> {
       // Extract matrix of quasi-identifiers and list of sensitive attributes from shuffled matrix
       Matrix<DRes<SInt>> shuffledData = MatrixUtils
           .subMatrix(shuffledMatrix, 0, shuffledMatrix.getHeight(), 0,
               shuffledMatrix.getWidth() - 1);
       List<DRes<SInt>> shuffledSensitive = shuffledMatrix.getColumn(shuffledMatrix.getWidth() - 1);
-      List<List<DRes<SInt>>> bucketsWithIndicator = new ArrayList<>(buckets);
-      bucketsWithIndicator.add(List.of(seq.numeric().known(0)));
 
       // Run "leaky" k-anonymity algorithm on these inputs. Indices are
-      return seq.seq(new LeakyKAnonymity(shuffledData, shuffledSensitive, bucketsWithIndicator, k));
+      return seq.seq(kAnonymity.create(seq, shuffledData, shuffledSensitive));
     }).par((par, kAnonymousData) -> {
       MultiDimensionalArray<List<DRes<SInt>>> uncorrected = kAnonymousData.project(l -> l.get(0));
       return DRes.of(uncorrected);
@@ -127,4 +211,39 @@ public class DefaultFilteredStatistics implements FilteredStatistics {
             .filter(x -> !x.equals(BigInteger.ZERO)).collect(Collectors.toList()))));
   }
 
-}
\ No newline at end of file
+  @Override
+  public DRes<MultiDimensionalArray<List<BigInteger>>> kAnonymizeAndOpen(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> sensitiveAttributes, int[][] buckets, int k, List<DRes<SInt>> filter) {
+    return builder
+        .seq(seq -> FilteredStatistics.using(seq).kAnonymize(data, sensitiveAttributes, buckets, k, filter))
+        .par((par, kAnonymousData) -> DRes.of(kAnonymousData.map(x -> VectorUtils.open(x, par))))
+        .par((par, kAnonymousData) -> DRes.of(kAnonymousData.map(h -> h.stream().map(DRes::out)
+            .filter(x -> !x.equals(BigInteger.ZERO)).collect(Collectors.toList()))));
+  }
+
+  @Override
+  public DRes<Pair<Matrix<DRes<SInt>>, List<DRes<SInt>>>> compact(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> filter) {
+    return builder.seq(new CompactFiltered(data, filter));
+  }
+
+  @Override
+  public DRes<Pair<Matrix<DRes<SInt>>, List<DRes<SInt>>>> compact(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> filter, int[] sizes) {
+    return builder.seq(new CompactFiltered(data, filter, sizes));
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> filter(Matrix<DRes<SInt>> data, FilterPredicate predicate) {
+    return builder.seq(new Filter(data, predicate));
+  }
+
+  /**
+   * Convert a list of samples for each variable to a list of observations of all variables.
+   */
+  private static List<List<DRes<SFixed>>> observations(List<List<DRes<SFixed>>> data) {
+    return VectorUtils.listBuilder(data.get(0).size(),
+        i -> VectorUtils.listBuilder(data.size(), j -> data.get(j).get(i)));
+  }
+
+}
@@ -4,14 +4,17 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
-import dk.alexandra.fresco.lib.common.collections.Collections;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
 import dk.alexandra.fresco.lib.common.util.SIntPair;
 import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
 import dk.alexandra.fresco.stat.anonymisation.LeakyKAnonymity;
+import dk.alexandra.fresco.stat.descriptive.ApproximateQuantiles;
 import dk.alexandra.fresco.stat.descriptive.ContingencyTable;
 import dk.alexandra.fresco.stat.descriptive.ContingencyTableCategorical;
+import dk.alexandra.fresco.stat.descriptive.CorrelationMatrix;
+import dk.alexandra.fresco.stat.descriptive.GroupBy;
+import dk.alexandra.fresco.stat.descriptive.GroupBy.Group;
 import dk.alexandra.fresco.stat.descriptive.Histogram;
 import dk.alexandra.fresco.stat.descriptive.LeakyFrequencyTable;
 import dk.alexandra.fresco.stat.descriptive.MultiDimensionalHistogram;
@@ -21,10 +24,24 @@ import dk.alexandra.fresco.stat.descriptive.SampleMedian;
 import dk.alexandra.fresco.stat.descriptive.SampleQuantiles;
 import dk.alexandra.fresco.stat.descriptive.SampleStandardDeviation;
 import dk.alexandra.fresco.stat.descriptive.SampleVariance;
+import dk.alexandra.fresco.stat.descriptive.SortingHistogram;
+import dk.alexandra.fresco.stat.descriptive.SummaryStatistics;
+import dk.alexandra.fresco.stat.descriptive.SummaryStatistics.SummaryStatisticsResult;
 import dk.alexandra.fresco.stat.descriptive.TwoDimensionalHistogram;
+import dk.alexandra.fresco.stat.descriptive.sort.ObliviousShuffle;
+import dk.alexandra.fresco.stat.descriptive.sort.SortColumn;
+import dk.alexandra.fresco.stat.descriptive.sort.SortedColumn;
+import dk.alexandra.fresco.stat.descriptive.sufficient.ComputeSufficientStatistics;
+import dk.alexandra.fresco.stat.descriptive.sufficient.MergeSufficientStatistics;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatistics;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatisticsCorrelation;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatisticsCovariance;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatisticsLinearRegression;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatisticsMean;
 import dk.alexandra.fresco.stat.outlier.MahalanobisDistance;
 import dk.alexandra.fresco.stat.regression.linear.LinearRegression;
 import dk.alexandra.fresco.stat.regression.linear.LinearRegression.LinearRegressionResult;
+import dk.alexandra.fresco.stat.regression.linear.LinearRegression.Solver;
 import dk.alexandra.fresco.stat.regression.linear.SimpleLinearRegression;
 import dk.alexandra.fresco.stat.regression.linear.SimpleLinearRegression.SimpleLinearRegressionResult;
 import dk.alexandra.fresco.stat.survival.SurvivalEntry;
@@ -40,10 +57,13 @@ import dk.alexandra.fresco.stat.tests.WilcoxonTestTwoSamples;
 import dk.alexandra.fresco.stat.utils.MatrixUtils;
 import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
 import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -70,6 +90,28 @@ public class DefaultStatistics implements Statistics {
     return new SampleQuantiles(data, percentiles).buildComputation(builder);
   }
 
+  @Override
+  public DRes<SortedColumn> sortedColumn(List<DRes<SFixed>> data) {
+    return sortedSamples(List.of(data));
+  }
+
+  @Override
+  public DRes<SortedColumn> sortedSamples(List<List<DRes<SFixed>>> samples) {
+    return builder.seq(seq -> new SortColumn(KruskallWallisTest.fromSFixed(samples))
+        .buildComputation(seq));
+  }
+
+  @Override
+  public DRes<SFixed> sampleMedian(DRes<SortedColumn> sorted) {
+    return new SampleMedian(sorted).buildComputation(builder);
+  }
+
+  @Override
+  public DRes<List<DRes<SFixed>>> samplePercentiles(DRes<SortedColumn> sorted,
+      double[] quantiles) {
+    return new SampleQuantiles(sorted, quantiles).buildComputation(builder);
+  }
+
   public DRes<SFixed> sampleVariance(List<DRes<SFixed>> data, DRes<SFixed> mean) {
     return new SampleVariance(data, mean).buildComputation(builder);
   }
@@ -92,6 +134,59 @@ public class DefaultStatistics implements Statistics {
     });
   }
 
+  @Override
+  public DRes<SummaryStatisticsResult> summaryStatistics(List<DRes<SFixed>> data,
+      double[] quantiles) {
+    return new SummaryStatistics(data, quantiles).buildComputation(builder);
+  }
+
+  @Override
+  public DRes<SufficientStatistics> sufficientStatistics(List<List<DRes<SFixed>>> observations) {
+    return new ComputeSufficientStatistics(observations).buildComputation(builder);
+  }
+
+  @Override
+  public DRes<SufficientStatistics> updateSufficientStatistics(
+      DRes<SufficientStatistics> statistics, List<List<DRes<SFixed>>> observations) {
+    return builder.seq(new ComputeSufficientStatistics(observations))
+        .seq((seq, batch) -> new MergeSufficientStatistics(statistics, batch)
+            .buildComputation(seq));
+  }
+
+  @Override
+  public DRes<SufficientStatistics> mergeSufficientStatistics(DRes<SufficientStatistics> first,
+      DRes<SufficientStatistics> second) {
+    return new MergeSufficientStatistics(first, second).buildComputation(builder);
+  }
+
+  @Override
+  public DRes<List<DRes<SFixed>>> sampleMean(DRes<SufficientStatistics> statistics) {
+    return new SufficientStatisticsMean(statistics).buildComputation(builder);
+  }
+
+  @Override
+  public DRes<List<DRes<SFixed>>> sampleVariance(DRes<SufficientStatistics> statistics) {
+    return builder.seq(new SufficientStatisticsCovariance(statistics)).seq((seq, covariance) ->
+        DRes.of(VectorUtils.listBuilder(covariance.getHeight(), i -> covariance.getRow(i).get(i))));
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> sampleCovariance(DRes<SufficientStatistics> statistics) {
+    return new SufficientStatisticsCovariance(statistics).buildComputation(builder);
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> correlation(DRes<SufficientStatistics> statistics) {
+    return new SufficientStatisticsCorrelation(statistics).buildComputation(builder);
+  }
+
+  @Override
+  public DRes<ArrayList<DRes<SFixed>>> linearRegression(DRes<SufficientStatistics> statistics,
+      int response) {
+    return new SufficientStatisticsLinearRegression(statistics, response)
+        .buildComputation(builder);
+  }
+
   @Override
   public DRes<SFixed> sampleStandardDeviation(List<DRes<SFixed>> data, DRes<SFixed> mean) {
     return new SampleStandardDeviation(data, mean).buildComputation(builder);
@@ -123,6 +218,12 @@ public class DefaultStatistics implements Statistics {
     return new LinearRegression(x, y).buildComputation(builder);
   }
 
+  @Override
+  public DRes<LinearRegressionResult> linearRegression(List<ArrayList<DRes<SFixed>>> x,
+      ArrayList<DRes<SFixed>> y, Solver solver) {
+    return new LinearRegression(x, y, solver).buildComputation(builder);
+  }
+
   @Override
   public DRes<SimpleLinearRegressionResult> simpleLinearRegression(List<DRes<SFixed>> x,
       List<DRes<SFixed>> y) {
@@ -147,6 +248,16 @@ public class DefaultStatistics implements Statistics {
             .correlation(data1, means.getFirst(), data2, means.getSecond()));
   }
 
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> correlationMatrix(List<List<DRes<SFixed>>> data) {
+    return builder.par(par -> {
+      Statistics stat = new DefaultStatistics(par);
+      List<DRes<SFixed>> means = data.stream().map(stat::sampleMean)
+          .collect(Collectors.toList());
+      return DRes.of(means);
+    }).seq((seq, means) -> new CorrelationMatrix(data, means).buildComputation(seq));
+  }
+
   @Override
   public DRes<SFixed> ffest(List<List<DRes<SFixed>>> observed) {
     return builder.seq(seq -> new FTest(observed).buildComputation(seq));
@@ -158,6 +269,11 @@ public class DefaultStatistics implements Statistics {
         .buildComputation(seq));
   }
 
+  @Override
+  public DRes<SFixed> kruskallWallisTest(DRes<SortedColumn> sorted) {
+    return new KruskallWallisTest(sorted).buildComputation(builder);
+  }
+
   @Override
   public DRes<List<Pair<DRes<SInt>, Integer>>> leakyFrequencyTable(List<DRes<SInt>> data) {
     return builder.seq(seq -> new LeakyFrequencyTable(data).buildComputation(seq));
@@ -165,50 +281,29 @@ public class DefaultStatistics implements Statistics {
 
   @Override
   public DRes<List<Pair<BigInteger, Integer>>> frequencyTable(List<DRes<SInt>> data) {
-    // The shuffle method expects a matrix whose height is a two power. If this is not the case, we
-    // pad with zeros and remove them afterwards.
-    BigInteger paddingValue = BigInteger.ZERO;
-    int padding = Integer.bitCount(data.size()) == 1 ? 0
-        : (Integer.highestOneBit(data.size()) << 1) - data.size();
-    return builder.par(par -> {
-      List<DRes<SInt>> input = data;
-
-      if (padding > 0) {
-        input = new ArrayList<>(data);
-        for (int i = 0; i < padding; i++) {
-          input.add(par.numeric().known(paddingValue));
-        }
-      }
-      ArrayList<ArrayList<DRes<SInt>>> rows =
-          input.stream().map(List::of).map(ArrayList::new)
-              .collect(
-                  Collectors.toCollection(ArrayList::new));
-      return DRes.of(new Matrix<>(input.size(), 1, rows));
-    }).seq((seq, columnVector) -> Collections.using(seq).shuffle(DRes.of(columnVector)))
+    ArrayList<ArrayList<DRes<SInt>>> rows = data.stream().map(List::of).map(ArrayList::new)
+        .collect(Collectors.toCollection(ArrayList::new));
+    return builder.seq(new ObliviousShuffle(new Matrix<>(data.size(), 1, rows)))
         .seq((seq, shuffledMatrix) -> {
-          List<DRes<SInt>> shuffled = VectorUtils.listBuilder(shuffledMatrix.getHeight(),
-              i -> shuffledMatrix.getRow(i).get(0));
+          List<DRes<SInt>> shuffled = shuffledMatrix.getColumn(0);
           return new LeakyFrequencyTable(shuffled).buildComputation(seq);
         }).par((par, frequencyTable) -> DRes.of(frequencyTable.stream()
             .map(pair -> new Pair<>(par.numeric().open(pair.getFirst()), pair.getSecond())).collect(
-                Collectors.toList()))).seq((seq, frequencyTable) -> {
-          List<Pair<BigInteger, Integer>> uncorrected = frequencyTable.stream()
-              .map(pair -> new Pair<>(pair.getFirst().out(), pair.getSecond()))
-              .collect(Collectors.toList());
-          List<Pair<BigInteger, Integer>> result = new ArrayList<>();
-          for (Pair<BigInteger, Integer> frequencyPair : uncorrected) {
-            if (!frequencyPair.getFirst().equals(paddingValue)) {
-              result.add(frequencyPair);
-            } else {
-              if (frequencyPair.getSecond() > padding) {
-                result.add(new Pair<>(paddingValue, frequencyPair.getSecond() - padding));
-              }
-            }
-          }
-          return DRes.of(result);
-        });
+                Collectors.toList()))).seq((seq, frequencyTable) -> DRes.of(frequencyTable.stream()
+            .map(pair -> new Pair<>(pair.getFirst().out(), pair.getSecond()))
+            .collect(Collectors.toList())));
   }
 
+  @Override
+  public DRes<List<Group>> groupBy(List<DRes<SInt>> keys, List<DRes<SFixed>> values) {
+    return builder.seq(new GroupBy(keys, values));
+  }
+
+  @Override
+  public DRes<List<Group>> groupBy(List<DRes<SInt>> keys, List<DRes<SFixed>> values,
+      int groups) {
+    return builder.seq(new GroupBy(keys, values, groups));
+  }
 
 /*
   @Override
@@ -229,17 +324,30 @@ public class DefaultStatistics implements Statistics {
 
   @Override
   public DRes<List<DRes<SInt>>> histogramDiscrete(int[] buckets, List<DRes<SInt>> data) {
-    return histogramDiscrete(
-        Arrays.stream(buckets).mapToObj(builder.numeric()::known)
-            .collect(Collectors.toList()),
-        data);
+    if (preferSortingHistogram(buckets.length, data.size())) {
+      return histogramDiscrete(
+          Arrays.stream(buckets).mapToObj(builder.numeric()::known)
+              .collect(Collectors.toList()),
+          data);
+    }
+    return new Histogram(toBigIntegers(buckets), data).buildComputation(builder);
   }
 
   @Override
   public DRes<List<DRes<SInt>>> histogramDiscrete(List<DRes<SInt>> buckets, List<DRes<SInt>> data) {
+    if (preferSortingHistogram(buckets.size(), data.size())) {
+      return new SortingHistogram(buckets, data).buildComputation(builder);
+    }
     return new Histogram(buckets, data).buildComputation(builder);
   }
 
+  private static boolean preferSortingHistogram(int buckets, int samples) {
+    // Histogram uses a comparison per bucket and sample while SortingHistogram uses about
+    // 2m ln(m) comparisons in expectation to sort the m samples and buckets
+    int m = buckets + samples;
+    return (double) buckets * samples > 2 * m * Math.log(m);
+  }
+
   @Override
   public DRes<List<DRes<SInt>>> histogramContinuous(List<DRes<SFixed>> buckets,
       List<DRes<SFixed>> data) {
@@ -254,10 +362,56 @@ public class DefaultStatistics implements Statistics {
 
   @Override
   public DRes<List<DRes<SInt>>> histogramContinuous(double[] buckets, List<DRes<SFixed>> data) {
-    return histogramContinuous(
-        Arrays.stream(buckets).mapToObj(FixedNumeric.using(builder)::known)
-            .collect(Collectors.toList()),
-        data);
+    if (preferSortingHistogram(buckets.length, data.size())) {
+      return histogramContinuous(
+          Arrays.stream(buckets).mapToObj(FixedNumeric.using(builder)::known)
+              .collect(Collectors.toList()),
+          data);
+    }
+    return builder.seq(seq -> {
+      List<DRes<SInt>> intData =
+          data.stream().map(xi -> xi.out().getSInt()).collect(Collectors.toList());
+      return new Histogram(toFixedPointRepresentation(buckets, seq), intData)
+          .buildComputation(seq);
+    });
+  }
+
+  /**
+   * Compute the integer representations of the given values as fixed point numbers.
+   */
+  private static BigInteger[] toFixedPointRepresentation(double[] values,
+      ProtocolBuilderNumeric builder) {
+    BigInteger scale = BigInteger.TWO.pow(
+        builder.getBasicNumericContext().getDefaultFixedPointPrecision());
+    return Arrays.stream(values)
+        .mapToObj(b -> BigDecimal.valueOf(b).multiply(new BigDecimal(scale))
+            .setScale(0, RoundingMode.HALF_UP).toBigIntegerExact())
+        .toArray(BigInteger[]::new);
+  }
+
+  @Override
+  public DRes<List<DRes<SFixed>>> approximatePercentiles(double[] buckets,
+      List<DRes<SFixed>> data, double[] quantiles) {
+    return builder.seq(seq -> {
+      BigInteger[] fixedBuckets = toFixedPointRepresentation(buckets, seq);
+      List<DRes<SInt>> intData =
+          data.stream().map(xi -> xi.out().getSInt()).collect(Collectors.toList());
+      return new ApproximateQuantiles(fixedBuckets, intData, quantiles).buildComputation(seq);
+    }).seq((seq, result) -> DRes.of(
+        result.stream().<DRes<SFixed>>map(SFixed::new).collect(Collectors.toList())));
+  }
+
+  @Override
+  public DRes<List<DRes<SFixed>>> approximatePercentiles(List<DRes<SFixed>> buckets,
+      List<DRes<SFixed>> data, double[] quantiles) {
+    return builder.seq(seq -> {
+      List<DRes<SInt>> intBuckets =
+          buckets.stream().map(bi -> bi.out().getSInt()).collect(Collectors.toList());
+      List<DRes<SInt>> intData =
+          data.stream().map(xi -> xi.out().getSInt()).collect(Collectors.toList());
+      return new ApproximateQuantiles(intBuckets, intData, quantiles).buildComputation(seq);
+    }).seq((seq, result) -> DRes.of(
+        result.stream().<DRes<SFixed>>map(SFixed::new).collect(Collectors.toList())));
   }
 
   @Override
@@ -283,6 +437,13 @@ public class DefaultStatistics implements Statistics {
     });
   }
 
+  @Override
+  public DRes<Matrix<DRes<SInt>>> twoDimensionalHistogramDiscrete(int[] bucketsX, int[] bucketsY,
+      List<Pair<DRes<SInt>, DRes<SInt>>> data) {
+    return new TwoDimensionalHistogram(toBigIntegers(bucketsX), toBigIntegers(bucketsY), data)
+        .buildComputation(builder);
+  }
+
   @Override
   public DRes<MultiDimensionalArray<DRes<SInt>>> multiDimensionalHistogramDiscrete(
       List<List<DRes<SInt>>> buckets, Matrix<DRes<SInt>> data) {
@@ -290,66 +451,67 @@ public class DefaultStatistics implements Statistics {
   }
 
   @Override
-  public DRes<MultiDimensionalArray<List<DRes<SInt>>>> kAnonymize(Matrix<DRes<SInt>> data,
-      List<DRes<SInt>> sensitiveAttributes, List<List<DRes<SInt>>> buckets, int k) {
-    // The shuffle method expects a matrix whose height is a two power. If this is not the case, we
-    // pad with zero rows and put an extra indicator attribute to be able to remove them afterwards.
+  public DRes<MultiDimensionalArray<DRes<SInt>>> multiDimensionalHistogramDiscrete(
+      int[][] buckets, Matrix<DRes<SInt>> data) {
+    return new MultiDimensionalHistogram(toBigIntegers(buckets), data).buildComputation(builder);
+  }
 
-    // Smallest representable value
-    BigInteger paddingValue = BigInteger.valueOf(0);
-    BigInteger paddingSensitive = BigInteger.valueOf(0);
+  private static BigInteger[] toBigIntegers(int[] values) {
+    return Arrays.stream(values).mapToObj(BigInteger::valueOf).toArray(BigInteger[]::new);
+  }
 
-    // Distance to next power of two
-    int padding = Integer.bitCount(data.getHeight()) == 1 ? 0
-        : (Integer.highestOneBit(data.getHeight()) << 1) - data.getHeight();
-    boolean pad = padding > 0;
+  private static BigInteger[][] toBigIntegers(int[][] values) {
+    return Arrays.stream(values).map(DefaultStatistics::toBigIntegers)
+        .toArray(BigInteger[][]::new);
+  }
 
+  @Override
+  public DRes<MultiDimensionalArray<List<DRes<SInt>>>> kAnonymize(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> sensitiveAttributes, List<List<DRes<SInt>>> buckets, int k) {
+    return shuffleAndKAnonymize(data, sensitiveAttributes,
+        (shuffledData, shuffledSensitive) -> new LeakyKAnonymity(shuffledData, shuffledSensitive,
+            buckets, k));
+  }
 
+  @Override
+  public DRes<MultiDimensionalArray<List<DRes<SInt>>>> kAnonymize(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> sensitiveAttributes, int[][] buckets, int k) {
+    return shuffleAndKAnonymize(data, sensitiveAttributes,
+        (shuffledData, shuffledSensitive) -> new LeakyKAnonymity(shuffledData, shuffledSensitive,
+            toBigIntegers(buckets), k));
+  }
+
+  /**
+   * Shuffle the rows of the data set together with the sensitive attributes and run the given
+   * "leaky" k-anonymity algorithm on the result.
+   */
+  private DRes<MultiDimensionalArray<List<DRes<SInt>>>> shuffleAndKAnonymize(
+      Matrix<DRes<SInt>> data, List<DRes<SInt>> sensitiveAttributes,
+      BiFunction<Matrix<DRes<SInt>>, List<DRes<SInt>>, LeakyKAnonymity> kAnonymity) {
     return builder.par(par -> {
 
-      // Create a matrix consisting of quasi identifiers, padding indicator and sensitive attributes
-      // | quasi identifiers | padded? | sensitive |
+      // Create a matrix consisting of quasi identifiers and sensitive attributes
+      // | quasi identifiers | sensitive |
       ArrayList<ArrayList<DRes<SInt>>> rows = new ArrayList<>();
 
       for (int i = 0; i < data.getHeight(); i++) {
         ArrayList<DRes<SInt>> row = new ArrayList<>(data.getRow(i));
-
-        // Add padding indicator attribute. If the size happens to be a power of two, this may be removed
-        if (pad) {
-          row.add(par.numeric().known(0));
-        }
         row.add(sensitiveAttributes.get(i));
         rows.add(row);
       }
-
-      if (pad) {
-        for (int i = 0; i < padding; i++) {
-          ArrayList<DRes<SInt>> row = IntStream.range(0, data.getWidth())
-              .mapToObj(j -> par.numeric().known(paddingValue))
-              .collect(Collectors.toCollection(ArrayList::new));
-          row.add(par.numeric().known(1)); // Add padding indicator attribute
-          row.add(par.numeric().known(paddingSensitive));
-          rows.add(row);
-        }
-      }
       return DRes.of(new Matrix<>(rows.size(), rows.get(0).size(), rows));
     }).seq((seq, columnVector) -> {
       // Shuffle the matrix we created above
-      return Collections.using(seq).shuffle(DRes.of(columnVector));
+      return new ObliviousShuffle(columnVector).buildComputation(seq);
     }).seq((seq, shuffledMatrix) -> {
       // Extract matrix of quasi-identifiers and list of sensitive attributes from shuffled matrix
       Matrix<DRes<SInt>> shuffledData = MatrixUtils
           .subMatrix(shuffledMatrix, 0, shuffledMatrix.getHeight(), 0,
               shuffledMatrix.getWidth() - 1);
       List<DRes<SInt>> shuffledSensitive = shuffledMatrix.getColumn(shuffledMatrix.getWidth() - 1);
-      List<List<DRes<SInt>>> bucketsWithIndicator = new ArrayList<>(buckets);
-      bucketsWithIndicator.add(List.of(seq.numeric().known(0)));
-
-      // Run "leaky" k-anonymity algorithm on these inputs. Indices are
-      return seq.seq(new LeakyKAnonymity(shuffledData, shuffledSensitive, bucketsWithIndicator, k));
-    }).par((par, kAnonymousData) -> {
-      MultiDimensionalArray<List<DRes<SInt>>> uncorrected = kAnonymousData.project(l -> l.get(0));
-      return DRes.of(uncorrected);
+
+      // Run "leaky" k-anonymity algorithm on these inputs.
+      return seq.seq(kAnonymity.apply(shuffledData, shuffledSensitive));
     });
   }
 
@@ -363,6 +525,16 @@ public class DefaultStatistics implements Statistics {
             .filter(x -> !x.equals(BigInteger.ZERO)).collect(Collectors.toList()))));
   }
 
+  @Override
+  public DRes<MultiDimensionalArray<List<BigInteger>>> kAnonymizeAndOpen(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> sensitiveAttributes, int[][] buckets, int k) {
+    return builder
+        .seq(seq -> Statistics.using(seq).kAnonymize(data, sensitiveAttributes, buckets, k))
+        .par((par, kAnonymousData) -> DRes.of(kAnonymousData.map(x -> VectorUtils.open(x, par))))
+        .par((par, kAnonymousData) -> DRes.of(kAnonymousData.map(h -> h.stream().map(DRes::out)
+            .filter(x -> !x.equals(BigInteger.ZERO)).collect(Collectors.toList()))));
+  }
+
   @Override
   public DRes<ArrayList<DRes<SFixed>>> mahalanobisDistance(List<List<DRes<SFixed>>> X) {
     return builder.seq(new MahalanobisDistance(X));
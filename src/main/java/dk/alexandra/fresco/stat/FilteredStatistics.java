@@ -2,12 +2,17 @@ package dk.alexandra.fresco.stat;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.common.util.SIntPair;
 import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatistics;
+import dk.alexandra.fresco.stat.filtered.FilterPredicate;
 import dk.alexandra.fresco.stat.filtered.OneSampleTTestFiltered.FilteredTTestResult;
 import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -59,6 +64,88 @@ public interface FilteredStatistics {
    */
   DRes<FilteredTTestResult> ttest(List<DRes<SFixed>> data, DRes<SFixed> mu, List<DRes<SInt>> filter);
 
+  /**
+   * Compute some quantiles of a filtered data set. The number of elements in the filtered data set
+   * is revealed.
+   *
+   * @param data      A data set
+   * @param quantiles The quantiles to compute, eg. numbers between 0 and 1
+   * @param filter    A filter
+   * @return The quantiles of the filtered data set
+   */
+  DRes<List<DRes<SFixed>>> samplePercentiles(List<DRes<SFixed>> data, double[] quantiles,
+      List<DRes<SInt>> filter);
+
+  /**
+   * Compute the sufficient statistics for the mean, variance, covariance, correlation and linear
+   * regression of the observations selected by a filter. The statistics can be used with the
+   * corresponding methods in {@link Statistics}, and the number of selected observations is kept
+   * secret.
+   *
+   * @param observations A list of observations, each of the same number of variables
+   * @param filter       A filter
+   * @return The sufficient statistics for the filtered sample
+   */
+  DRes<SufficientStatistics> sufficientStatistics(List<List<DRes<SFixed>>> observations,
+      List<DRes<SInt>> filter);
+
+  /**
+   * Compute the unbiased covariance matrix of a filtered data set.
+   *
+   * @param data   The samples for each variable. All samples must have the same size.
+   * @param filter A filter
+   * @return The covariance matrix of the filtered data set
+   */
+  DRes<Matrix<DRes<SFixed>>> sampleCovariance(List<List<DRes<SFixed>>> data,
+      List<DRes<SInt>> filter);
+
+  /**
+   * Compute Pearson's correlation coefficient on two filtered samples.
+   *
+   * @param data1  The first sample
+   * @param data2  The second sample
+   * @param filter A filter
+   * @return The correlation of the filtered samples
+   */
+  DRes<SFixed> correlation(List<DRes<SFixed>> data1, List<DRes<SFixed>> data2,
+      List<DRes<SInt>> filter);
+
+  /**
+   * Compute Pearson's correlation coefficient for all pairs of variables in a filtered data set.
+   *
+   * @param data   The samples for each variable. All samples must have the same size.
+   * @param filter A filter
+   * @return The correlation matrix of the filtered data set
+   */
+  DRes<Matrix<DRes<SFixed>>> correlationMatrix(List<List<DRes<SFixed>>> data,
+      List<DRes<SInt>> filter);
+
+  /**
+   * Compute estimates for the parameters of a linear model on a filtered data set. The model has an
+   * intercept, whose estimate is the first entry of the result, and uses all variables except the
+   * response as independent variables. Model diagnostics are not computed.
+   *
+   * @param observations A list of observations, each of the same number of variables
+   * @param response     The index of the response variable
+   * @param filter       A filter
+   * @return Estimates for the intercept and the coefficients of the independent variables
+   */
+  DRes<ArrayList<DRes<SFixed>>> linearRegression(List<List<DRes<SFixed>>> observations,
+      int response, List<DRes<SInt>> filter);
+
+  /**
+   * Compute a contingency table on a filtered data set, where the <i>(i,j)</i>'th entry is the
+   * number of selected observations <i>(x, y)</i> with <i>x = i</i> and <i>y = j</i>.
+   *
+   * @param data        A list of observations, each consisting of two categorical values
+   * @param firstRange  The number of values the first attribute can take
+   * @param secondRange The number of values the second attribute can take
+   * @param filter      A filter
+   * @return The contingency table of the filtered data set
+   */
+  DRes<Matrix<DRes<SInt>>> contingencyTable(List<SIntPair> data, int firstRange, int secondRange,
+      List<DRes<SInt>> filter);
+
   /**
    * Compute a histogram on a filtered data set. Note that upper limits as indicated by the buckets
    * are hard inequalities but the lower are soft.
@@ -71,6 +158,18 @@ public interface FilteredStatistics {
   DRes<List<DRes<SInt>>> histogram(List<DRes<SInt>> buckets, List<DRes<SInt>> data,
       List<DRes<SInt>> filter);
 
+  /**
+   * Compute a histogram on a filtered data set with public bucket bounds. Note that upper limits as
+   * indicated by the buckets are hard inequalities but the lower are soft.
+   *
+   * @param buckets The buckets for the histogram
+   * @param data    A data set
+   * @param filter  A filter
+   * @return A list containing the number of elements of the filtered data set in each bucket.
+   */
+  DRes<List<DRes<SInt>>> histogram(int[] buckets, List<DRes<SInt>> data,
+      List<DRes<SInt>> filter);
+
   /**
    * Compute a k-anonymized version of the given filtered datset.
    * <p>
@@ -96,6 +195,20 @@ public interface FilteredStatistics {
       List<DRes<SInt>> sensitiveAttributes,
       List<List<DRes<SInt>>> buckets, int k, List<DRes<SInt>> filter);
 
+  /**
+   * As {@link #kAnonymize(Matrix, List, List, int, List)} but with public buckets.
+   *
+   * @param data                The quasi identifiers for each individual.
+   * @param sensitiveAttributes The corresponding sensitive attributes. Must be non-zero.
+   * @param buckets             The buckets defining the desired generalization.
+   * @param k                   The smallest allowed number of individuals in each bucket.
+   * @param filter              A filter.
+   *
+   * @return A k-anonymous data set with all buckets with fewer than k elements suppressed.
+   */
+  DRes<MultiDimensionalArray<List<DRes<SInt>>>> kAnonymize(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> sensitiveAttributes, int[][] buckets, int k, List<DRes<SInt>> filter);
+
   /**
    * Compute a k-anonymized version of the given filtered datset.
    * <p>
@@ -120,5 +233,55 @@ public interface FilteredStatistics {
   DRes<MultiDimensionalArray<List<BigInteger>>> kAnonymizeAndOpen(Matrix<DRes<SInt>> data,
       List<DRes<SInt>> sensitiveAttributes, List<List<DRes<SInt>>> buckets, int k, List<DRes<SInt>> filter);
 
+  /**
+   * As {@link #kAnonymizeAndOpen(Matrix, List, List, int, List)} but with public buckets.
+   *
+   * @param data                The quasi identifiers for each individual.
+   * @param sensitiveAttributes The corresponding sensitive attributes. Must be non-zero.
+   * @param buckets             The buckets defining the desired generalization.
+   * @param k                   The smallest allowed number of individuals in each bucket.
+   * @param filter              A filter.
+   *
+   * @return A k-anonymous data set with all buckets with fewer than k elements suppressed.
+   */
+  DRes<MultiDimensionalArray<List<BigInteger>>> kAnonymizeAndOpen(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> sensitiveAttributes, int[][] buckets, int k, List<DRes<SInt>> filter);
+
+  /**
+   * Move the rows of a data set selected by a filter to a new table, such that further analyses
+   * may be run on the selected rows only. The number of selected rows is revealed.
+   *
+   * @param data   A data set
+   * @param filter A filter
+   * @return The selected rows in random order and a filter for these rows, which is all ones.
+   */
+  DRes<Pair<Matrix<DRes<SInt>>, List<DRes<SInt>>>> compact(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> filter);
+
+  /**
+   * Move the rows of a data set selected by a filter to a new table, such that further analyses
+   * may be run on the selected rows only. The table is padded with unselected rows to the smallest
+   * of the given sizes that fits the selected rows, or to the size of the data set if none does,
+   * and only this size is revealed.
+   *
+   * @param data   A data set
+   * @param filter A filter
+   * @param sizes  The public sizes the output may be padded to in increasing order
+   * @return The selected rows and the padding rows in random order and a filter indicating which
+   * rows were selected.
+   */
+  DRes<Pair<Matrix<DRes<SInt>>, List<DRes<SInt>>>> compact(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> filter, int[] sizes);
+
+  /**
+   * Compute a filter indicating which rows of a data set satisfy a predicate, eg.
+   * <code>and(range(0, 30, 50), equalTo(1, 3))</code> for the rows where the value in the first
+   * column is in <i>[30, 50)</i> and the value in the second column is <i>3</i>.
+   *
+   * @param data      A data set
+   * @param predicate A predicate built using the methods of {@link FilterPredicate}
+   * @return A filter for the data set
+   */
+  DRes<List<DRes<SInt>>> filter(Matrix<DRes<SInt>> data, FilterPredicate predicate);
 
-}
\ No newline at end of file
+}
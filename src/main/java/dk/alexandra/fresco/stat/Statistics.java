@@ -8,7 +8,12 @@ import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
 import dk.alexandra.fresco.lib.common.util.SIntPair;
 import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.GroupBy.Group;
+import dk.alexandra.fresco.stat.descriptive.SummaryStatistics.SummaryStatisticsResult;
+import dk.alexandra.fresco.stat.descriptive.sort.SortedColumn;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatistics;
 import dk.alexandra.fresco.stat.regression.linear.LinearRegression.LinearRegressionResult;
+import dk.alexandra.fresco.stat.regression.linear.LinearRegression.Solver;
 import dk.alexandra.fresco.stat.regression.linear.SimpleLinearRegression.SimpleLinearRegressionResult;
 import dk.alexandra.fresco.stat.survival.SurvivalEntry;
 import dk.alexandra.fresco.stat.survival.cox.CoxRegression.CoxRegressionResult;
@@ -50,6 +55,44 @@ public interface Statistics extends ComputationDirectory {
    */
   DRes<List<DRes<SFixed>>> samplePercentiles(List<DRes<SFixed>> data, double[] quantiles);
 
+  /**
+   * Sort a sample and rank its elements once, so several rank-based statistics may be computed on
+   * the sample without sorting it again. The ranks of tied elements are leaked.
+   *
+   * @param data Samples.
+   * @return The sorted sample.
+   */
+  DRes<SortedColumn> sortedColumn(List<DRes<SFixed>> data);
+
+  /**
+   * Sort and rank the pooled observations of a number of groups once, so several rank-based
+   * statistics may be computed on the samples without sorting them again. The ranks of tied
+   * elements are leaked.
+   *
+   * @param samples The observations for each group.
+   * @return The sorted samples.
+   */
+  DRes<SortedColumn> sortedSamples(List<List<DRes<SFixed>>> samples);
+
+  /**
+   * Compute the sample median of a sorted sample set.
+   *
+   * @param sorted A sample sorted using {@link #sortedColumn(List)} or {@link
+   *               #sortedSamples(List)}.
+   * @return The median.
+   */
+  DRes<SFixed> sampleMedian(DRes<SortedColumn> sorted);
+
+  /**
+   * Compute the sample percentiles of a sorted sample set.
+   *
+   * @param sorted    A sample sorted using {@link #sortedColumn(List)} or {@link
+   *                  #sortedSamples(List)}.
+   * @param quantiles The quantiles to compute.
+   * @return The percentiles.
+   */
+  DRes<List<DRes<SFixed>>> samplePercentiles(DRes<SortedColumn> sorted, double[] quantiles);
+
 
   /**
    * Compute the sample variance of the given data, assuming the sample mean has already been
@@ -87,6 +130,94 @@ public interface Statistics extends ComputationDirectory {
    */
   DRes<SFixed> sampleStandardDeviation(List<DRes<SFixed>> data);
 
+  /**
+   * Compute the mean, variance, standard deviation, skewness, kurtosis, minimum, maximum and the
+   * given quantiles of a sample set. This is cheaper than computing each of them separately, since
+   * the power sums and the sorting are shared.
+   *
+   * @param data      Samples.
+   * @param quantiles The quantiles to compute. May be empty.
+   * @return The summary statistics for the sample.
+   */
+  DRes<SummaryStatisticsResult> summaryStatistics(List<DRes<SFixed>> data, double[] quantiles);
+
+  /**
+   * Compute the sufficient statistics for the mean, variance, covariance, correlation and linear
+   * regression of a sample. The sufficient statistics may be updated with new observations or merged
+   * with the statistics for another sample, so a growing dataset can be summarized incrementally.
+   *
+   * @param observations A list of observations, each of the same number of variables.
+   * @return The sufficient statistics for the sample.
+   */
+  DRes<SufficientStatistics> sufficientStatistics(List<List<DRes<SFixed>>> observations);
+
+  /**
+   * Update sufficient statistics with a new batch of observations. The cost depends only on the
+   * size of the new batch.
+   *
+   * @param statistics   Sufficient statistics for a sample.
+   * @param observations New observations of the same variables.
+   * @return The sufficient statistics for the sample extended with the new observations.
+   */
+  DRes<SufficientStatistics> updateSufficientStatistics(DRes<SufficientStatistics> statistics,
+      List<List<DRes<SFixed>>> observations);
+
+  /**
+   * Merge the sufficient statistics for two samples of the same variables. This requires no
+   * communication.
+   *
+   * @param first  Sufficient statistics for a sample.
+   * @param second Sufficient statistics for another sample.
+   * @return The sufficient statistics for the union of the two samples.
+   */
+  DRes<SufficientStatistics> mergeSufficientStatistics(DRes<SufficientStatistics> first,
+      DRes<SufficientStatistics> second);
+
+  /**
+   * Compute the sample mean of each variable from sufficient statistics.
+   *
+   * @param statistics Sufficient statistics for a sample.
+   * @return The sample means.
+   */
+  DRes<List<DRes<SFixed>>> sampleMean(DRes<SufficientStatistics> statistics);
+
+  /**
+   * Compute the sample variance of each variable from sufficient statistics.
+   *
+   * @param statistics Sufficient statistics for a sample.
+   * @return The sample variances.
+   */
+  DRes<List<DRes<SFixed>>> sampleVariance(DRes<SufficientStatistics> statistics);
+
+  /**
+   * Compute the unbiased covariance matrix of the variables from sufficient statistics.
+   *
+   * @param statistics Sufficient statistics for a sample.
+   * @return The covariance matrix.
+   */
+  DRes<Matrix<DRes<SFixed>>> sampleCovariance(DRes<SufficientStatistics> statistics);
+
+  /**
+   * Compute Pearson's correlation coefficient for all pairs of variables from sufficient
+   * statistics.
+   *
+   * @param statistics Sufficient statistics for a sample.
+   * @return The correlation matrix.
+   */
+  DRes<Matrix<DRes<SFixed>>> correlation(DRes<SufficientStatistics> statistics);
+
+  /**
+   * Compute estimates for the parameters of a linear model from sufficient statistics. The model
+   * has an intercept, whose estimate is the first entry of the result, and uses all variables
+   * except the response as independent variables.
+   *
+   * @param statistics Sufficient statistics for a sample.
+   * @param response   The index of the response variable.
+   * @return Estimates for the intercept and the coefficients of the independent variables.
+   */
+  DRes<ArrayList<DRes<SFixed>>> linearRegression(DRes<SufficientStatistics> statistics,
+      int response);
+
   /**
    * Compute the test statistics for a Student's t-test for the hypothesis that the mean of the
    * sample is equal to <code>mu</code>.
@@ -136,6 +267,18 @@ public interface Statistics extends ComputationDirectory {
   DRes<LinearRegressionResult> linearRegression(List<ArrayList<DRes<SFixed>>> x,
       ArrayList<DRes<SFixed>> y);
 
+  /**
+   * Compute estimates for the parameters <i>b</i> of a linear model such that <i>b0 x0 + ... + bk
+   * xk = y</i> using the given method to solve the normal equations.
+   *
+   * @param x      The dataset.
+   * @param y      The dependant values
+   * @param solver The method used to solve the normal equations.
+   * @return An estimation for the parameters of a linear model for the given data.
+   */
+  DRes<LinearRegressionResult> linearRegression(List<ArrayList<DRes<SFixed>>> x,
+      ArrayList<DRes<SFixed>> y, Solver solver);
+
   /**
    * Compute simple linear regression on two samples.
    *
@@ -168,6 +311,16 @@ public interface Statistics extends ComputationDirectory {
    */
   DRes<SFixed> correlation(List<DRes<SFixed>> data1, List<DRes<SFixed>> data2);
 
+  /**
+   * Compute Pearson's correlation coefficient for all pairs of the given variables. This is
+   * considerably cheaper than computing the correlation for each pair separately, since the means
+   * and standard deviations are computed only once per variable.
+   *
+   * @param data The samples for each variable. All samples must have the same size.
+   * @return The correlation matrix.
+   */
+  DRes<Matrix<DRes<SFixed>>> correlationMatrix(List<List<DRes<SFixed>>> data);
+
   /**
    * Compute the F-test statistics for the null hypothesis that the given datasets have the same
    * mean.
@@ -186,6 +339,15 @@ public interface Statistics extends ComputationDirectory {
    */
   DRes<SFixed> kruskallWallisTest(List<List<DRes<SFixed>>> observed);
 
+  /**
+   * Compute the Kruskall-Wallis test statistics for the null hypothesis that the given samples are
+   * drawn from same the distribution.
+   *
+   * @param sorted Samples sorted using {@link #sortedSamples(List)}.
+   * @return The test statistics.
+   */
+  DRes<SFixed> kruskallWallisTest(DRes<SortedColumn> sorted);
+
   /**
    * Compute a frequency table for the data. Note that the frequencies will be leaked but the
    * corresponding values will not.
@@ -203,6 +365,29 @@ public interface Statistics extends ComputationDirectory {
    */
   DRes<List<Pair<BigInteger, Integer>>> frequencyTable(List<DRes<SInt>> data);
 
+  /**
+   * Group the samples by a secret key and compute the size, sum, mean and sample variance of each
+   * group. The groups are ordered by key, and only the number of groups is revealed.
+   *
+   * @param keys   The key of each sample.
+   * @param values The value of each sample.
+   * @return The statistics of each group.
+   */
+  DRes<List<Group>> groupBy(List<DRes<SInt>> keys, List<DRes<SFixed>> values);
+
+  /**
+   * Group the samples by a secret key and compute the size, sum, mean and sample variance of each
+   * group. The output is padded with empty groups to the given number of groups, so nothing is
+   * revealed.
+   *
+   * @param keys   The key of each sample.
+   * @param values The value of each sample.
+   * @param groups The number of groups in the output. This must be at least the number of
+   *               distinct keys.
+   * @return The statistics of each group followed by empty groups.
+   */
+  DRes<List<Group>> groupBy(List<DRes<SInt>> keys, List<DRes<SFixed>> values, int groups);
+
 //  /**
 //   * Estimate the parameters of a Cox model on the given data. Here it's assumed that each covariate
 //   * only takes values in a (small) finite set, e.g. when they indicate group membership. If many
@@ -248,7 +433,9 @@ public interface Statistics extends ComputationDirectory {
   DRes<List<DRes<SInt>>> histogramContinuous(double[] buckets, List<DRes<SFixed>> data);
 
   /**
-   * Compute the histogram for the given sample.
+   * Compute the histogram for the given sample. If there are many buckets compared to the size of
+   * the sample, the histogram is computed by sorting the sample instead of comparing each sample to
+   * each bucket bound.
    *
    * @param buckets Upper bound for the buckets to use in the histogram.
    * @param data    The sample data.
@@ -265,6 +452,32 @@ public interface Statistics extends ComputationDirectory {
    */
   DRes<List<DRes<SInt>>> histogramContinuous(List<DRes<SFixed>> buckets, List<DRes<SFixed>> data);
 
+  /**
+   * Approximate the sample percentiles of a sample set using a histogram instead of sorting the
+   * sample. Each percentile is approximated by the smallest bucket bound which is at least as large
+   * as the percentile, or by the largest bucket bound if no such bound exists.
+   *
+   * @param buckets   Upper bounds for the buckets in ascending order.
+   * @param data      The sample data.
+   * @param quantiles The quantiles to compute.
+   * @return The approximate percentiles.
+   */
+  DRes<List<DRes<SFixed>>> approximatePercentiles(double[] buckets, List<DRes<SFixed>> data,
+      double[] quantiles);
+
+  /**
+   * Approximate the sample percentiles of a sample set using a histogram instead of sorting the
+   * sample. Each percentile is approximated by the smallest bucket bound which is at least as large
+   * as the percentile, or by the largest bucket bound if no such bound exists.
+   *
+   * @param buckets   Upper bounds for the buckets in ascending order.
+   * @param data      The sample data.
+   * @param quantiles The quantiles to compute.
+   * @return The approximate percentiles.
+   */
+  DRes<List<DRes<SFixed>>> approximatePercentiles(List<DRes<SFixed>> buckets,
+      List<DRes<SFixed>> data, double[] quantiles);
+
   /**
    * Compute the histogram for the given two-dimensional sample.
    *
@@ -287,6 +500,17 @@ public interface Statistics extends ComputationDirectory {
       Pair<List<DRes<SFixed>>, List<DRes<SFixed>>> buckets,
       List<Pair<DRes<SFixed>, DRes<SFixed>>> data);
 
+  /**
+   * Compute the histogram for the given two-dimensional sample with public buckets.
+   *
+   * @param bucketsX Upper bounds for the buckets to use in the first dimension.
+   * @param bucketsY Upper bounds for the buckets to use in the second dimension.
+   * @param data     The sample data.
+   * @return
+   */
+  DRes<Matrix<DRes<SInt>>> twoDimensionalHistogramDiscrete(int[] bucketsX, int[] bucketsY,
+      List<Pair<DRes<SInt>, DRes<SInt>>> data);
+
   /**
    * Compute the histogram for the given multi-dimensional sample.
    *
@@ -298,6 +522,16 @@ public interface Statistics extends ComputationDirectory {
       List<List<DRes<SInt>>> buckets,
       Matrix<DRes<SInt>> data);
 
+  /**
+   * Compute the histogram for the given multi-dimensional sample with public buckets.
+   *
+   * @param buckets Upper bounds for the buckets to use in the histogram for each dimension.
+   * @param data    The sample data.
+   * @return
+   */
+  DRes<MultiDimensionalArray<DRes<SInt>>> multiDimensionalHistogramDiscrete(int[][] buckets,
+      Matrix<DRes<SInt>> data);
+
   /**
    * Compute a k-anonymized version of the given datset.
    * <p>
@@ -321,6 +555,18 @@ public interface Statistics extends ComputationDirectory {
       List<DRes<SInt>> sensitiveAttributes,
       List<List<DRes<SInt>>> buckets, int k);
 
+  /**
+   * As {@link #kAnonymize(Matrix, List, List, int)} but with public buckets.
+   *
+   * @param data                The quasi identifiers for each individual.
+   * @param sensitiveAttributes The corresponding sensitive attributes. Must be non-zero
+   * @param buckets             The buckets defining the desired generalization.
+   * @param k                   The smallest allowed number of individuals in each bucket.
+   * @return A k-anonymous data set with all buckets with fewer than k elements suppressed.
+   */
+  DRes<MultiDimensionalArray<List<DRes<SInt>>>> kAnonymize(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> sensitiveAttributes, int[][] buckets, int k);
+
   /**
    * Compute a k-anonymized version of the given dataset and open it to all parties.
    * <p>
@@ -341,6 +587,18 @@ public interface Statistics extends ComputationDirectory {
   DRes<MultiDimensionalArray<List<BigInteger>>> kAnonymizeAndOpen(Matrix<DRes<SInt>> data,
       List<DRes<SInt>> sensitiveAttributes, List<List<DRes<SInt>>> buckets, int k);
 
+  /**
+   * As {@link #kAnonymizeAndOpen(Matrix, List, List, int)} but with public buckets.
+   *
+   * @param data                The quasi identifiers for each individual.
+   * @param sensitiveAttributes The corresponding sensitive attributes. Must be non-zero.
+   * @param buckets             The buckets defining the desired generalization.
+   * @param k                   The smallest allowed number of individuals in each bucket.
+   * @return A k-anonymous data set with all buckets with fewer than k elements suppressed.
+   */
+  DRes<MultiDimensionalArray<List<BigInteger>>> kAnonymizeAndOpen(Matrix<DRes<SInt>> data,
+      List<DRes<SInt>> sensitiveAttributes, int[][] buckets, int k);
+
 
   /**
    * Compute the <a href="https://en.wikipedia.org/wiki/Mahalanobis_distance">Mahalanobis
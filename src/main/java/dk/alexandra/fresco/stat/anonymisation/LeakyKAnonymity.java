@@ -10,12 +10,14 @@ import dk.alexandra.fresco.lib.common.compare.Comparison;
 import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
 import dk.alexandra.fresco.stat.utils.MatrixUtils;
 import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
+import dk.alexandra.fresco.stat.utils.MultiLEQ;
+import dk.alexandra.fresco.stat.utils.ProductTree;
 import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Compute a  <a href="https://en.wikipedia.org/wiki/K-anonymity"><i>k</i>-anonymous</a> version of
@@ -28,6 +30,7 @@ public class LeakyKAnonymity implements
   private final Matrix<DRes<SInt>> data;
   private final List<DRes<SInt>> sensitive;
   private final List<List<DRes<SInt>>> buckets;
+  private final BigInteger[][] publicBuckets;
   private final int k;
   private final int dimensions;
 
@@ -53,10 +56,38 @@ public class LeakyKAnonymity implements
     this.data = data;
     this.sensitive = sensitive;
     this.buckets = buckets;
+    this.publicBuckets = null;
     this.dimensions = buckets.size();
     this.k = k;
   }
 
+  /**
+   * As {@link #LeakyKAnonymity(Matrix, List, List, int)} but with public upper limits for the
+   * generalization of the quasi-identifiers.
+   */
+  public LeakyKAnonymity(Matrix<DRes<SInt>> data, List<DRes<SInt>> sensitive,
+      BigInteger[][] buckets, int k) {
+    if (data.getHeight() != sensitive.size()) {
+      throw new IllegalArgumentException("There must be a sensitive attribute per data point");
+    }
+    this.data = data;
+    this.sensitive = sensitive;
+    this.buckets = null;
+    this.publicBuckets = buckets;
+    this.dimensions = buckets.length;
+    this.k = k;
+  }
+
+  private int numberOfBounds(int dimension) {
+    return publicBuckets != null ? publicBuckets[dimension].length
+        : buckets.get(dimension).size();
+  }
+
+  private MultiLEQ compareToBounds(DRes<SInt> value, int dimension) {
+    return publicBuckets != null ? new MultiLEQ(value, publicBuckets[dimension])
+        : new MultiLEQ(value, buckets.get(dimension));
+  }
+
   @Override
   public DRes<MultiDimensionalArray<List<DRes<SInt>>>> buildComputation(
       ProtocolBuilderNumeric builder) {
@@ -65,24 +96,25 @@ public class LeakyKAnonymity implements
       // Perform all necessary comparisons (one per value per bucket) in parallel
       Matrix<DRes<List<DRes<SInt>>>> indicators = MatrixUtils.buildMatrix(data.getHeight(),
           data.getWidth(),
-          (i, j) -> new MultiLEQ(data.getRow(i).get(j), buckets.get(j)).buildComputation(par));
+          (i, j) -> compareToBounds(data.getRow(i).get(j), j).buildComputation(par));
       return DRes.of(indicators);
 
     }).par((par, indicators) -> {
 
       // Compute the histogram x the dataset -- a 1 indicates the data point is in the
-      // corresponding cumulative histogram.
-      List<Integer> widths = buckets.stream().mapToInt(bucket -> bucket.size() + 1).boxed()
-          .collect(Collectors.toList());
-
-      Matrix<List<DRes<SInt>>> indicatorsOut = MatrixUtils.map(indicators, DRes::out);
-      MultiDimensionalArray<List<DRes<SInt>>> indicatorHistogram = MultiDimensionalArray
-          .build(widths, i -> IntStream.range(0, data.getHeight()).mapToObj(j ->
-              AdvancedNumeric.using(par).product(IntStream.range(0, dimensions).mapToObj(d ->
-                  indicatorsOut.getRow(j).get(d).get(i.get(d))).collect(
-                  Collectors.toList()))).collect(Collectors.toList()));
-      return DRes.of(indicatorHistogram);
-    }).par((par, cumulativeHistogram) -> {
+      // corresponding cumulative histogram. The products for each data point are computed as an
+      // outer product of the indicators for each dimension.
+      List<DRes<MultiDimensionalArray<DRes<SInt>>>> products = indicators.getRows().stream()
+          .map(row -> new ProductTree(row.stream().map(DRes::out).collect(Collectors.toList()))
+              .buildComputation(par)).collect(Collectors.toList());
+      return DRes.of(products);
+    }).par((par, products) -> {
+
+      List<Integer> widths = IntStream.range(0, dimensions).map(d -> numberOfBounds(d) + 1)
+          .boxed().collect(Collectors.toList());
+      MultiDimensionalArray<List<DRes<SInt>>> cumulativeHistogram = MultiDimensionalArray
+          .build(widths, i -> products.stream().map(product -> product.out().get(i))
+              .collect(Collectors.toList()));
 
       // Compute indicator histogram -- for each bucket we get an indicator vector of size data.size()
       // with a 1 at index i indicating that the i'th data point is in the corresponding bucket.
@@ -115,27 +147,4 @@ public class LeakyKAnonymity implements
         .of(kAnonymousHistogram.map(b -> VectorUtils.mult(b.out(), sensitive, par))));
   }
 
-  private static class MultiLEQ implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
-
-    private final DRes<SInt> lhs;
-    private final List<DRes<SInt>> rhs;
-
-    private MultiLEQ(DRes<SInt> lhs, List<DRes<SInt>> rhs) {
-      this.lhs = lhs;
-      this.rhs = rhs;
-    }
-
-    @Override
-    public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
-      return builder.par(par -> {
-        Comparison comparison = Comparison.using(par);
-        List<DRes<SInt>> c = Stream.concat(rhs.stream()
-            .map(x -> comparison.compareLEQ(lhs, x)), Stream.of(par.numeric().known(1))).collect(
-            Collectors.toList());
-        return DRes.of(c);
-      });
-    }
-
-  }
-
 }
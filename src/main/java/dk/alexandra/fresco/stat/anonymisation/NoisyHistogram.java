@@ -21,6 +21,7 @@ import java.util.stream.Collectors;
 public class NoisyHistogram implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
 
   private final List<DRes<SInt>> buckets;
+  private final int[] publicBuckets;
   private final List<DRes<SInt>> data;
   private final double epsilon;
 
@@ -35,6 +36,23 @@ public class NoisyHistogram implements Computation<List<DRes<SInt>>, ProtocolBui
    */
   public NoisyHistogram(List<DRes<SInt>> buckets, List<DRes<SInt>> data, double epsilon) {
     this.buckets = buckets;
+    this.publicBuckets = null;
+    this.data = data;
+    this.epsilon = epsilon;
+  }
+
+  /**
+   * Given a list of public upper bounds for buckets and a list of samples, this computation
+   * computes a differentially private histogram for the given buckets. The last bucket contains
+   * all samples larger than the last upper bound.
+   *
+   * @param buckets Public soft upper bounds for buckets
+   * @param data    List of samples
+   * @param epsilon The privacy parameter
+   */
+  public NoisyHistogram(int[] buckets, List<DRes<SInt>> data, double epsilon) {
+    this.buckets = null;
+    this.publicBuckets = buckets;
     this.data = data;
     this.epsilon = epsilon;
   }
@@ -42,10 +60,13 @@ public class NoisyHistogram implements Computation<List<DRes<SInt>>, ProtocolBui
   @Override
   public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
     return builder.par(par -> {
-      DRes<List<DRes<SInt>>> histogram = Statistics.using(par).histogramDiscrete(buckets, data);
+      DRes<List<DRes<SInt>>> histogram = publicBuckets != null
+          ? Statistics.using(par).histogramDiscrete(publicBuckets, data)
+          : Statistics.using(par).histogramDiscrete(buckets, data);
+      int numberOfBuckets = publicBuckets != null ? publicBuckets.length + 1 : buckets.size() + 1;
       List<DRes<SFixed>> noise = new ArrayList<>();
       Sampler sampler = Sampler.using(par);
-      for (int i = 0; i < buckets.size() + 1; i++) {
+      for (int i = 0; i < numberOfBuckets; i++) {
         // We apply the Laplace mechanism with a sensitivity of 1 (because we are counting)
         noise.add(sampler.sampleLaplaceDistribution(1.0 / epsilon));
       }
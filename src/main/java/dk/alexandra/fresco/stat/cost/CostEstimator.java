@@ -0,0 +1,146 @@
+package dk.alexandra.fresco.stat.cost;
+
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticProtocolSuite;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePoolImpl;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Estimate the cost of a computation and the preprocessed material it needs before running it with
+ * an actual MPC protocol suite.
+ *
+ * <p>The computation is run by a single party using the dummy arithmetic protocol suite, which
+ * computes in the clear without any communication, while the operations it performs are counted.
+ * This is orders of magnitude faster than running the computation with an actual protocol suite,
+ * but the running time still grows with the cost of the computation.</p>
+ *
+ * <p>Since the computation is actually run, any control flow depending on opened values, eg. in
+ * {@link dk.alexandra.fresco.stat.Statistics#leakyFrequencyTable(java.util.List)}, is traced on
+ * the given inputs, and the estimate is exact for these inputs. The computation should build its
+ * own inputs, and since there is only one party, all inputs must be given by party 1 or be known
+ * values:</p>
+ *
+ * <pre>
+ * CostReport report = new CostEstimator().estimate(builder -> {
+ *   // Input the data using FixedNumeric.using(builder).input(..., 1)
+ *   List&lt;DRes&lt;SFixed&gt;&gt; x = ...
+ *   return Statistics.using(builder).sampleVariance(x);
+ * });
+ * </pre>
+ */
+public class CostEstimator {
+
+  private static final Duration TIMEOUT = Duration.ofHours(12);
+  private static final int DEFAULT_MODULUS_BIT_LENGTH = 512;
+  private static final int DEFAULT_MAX_BIT_LENGTH = 400;
+  private static final int DEFAULT_FIXED_POINT_PRECISION = 32;
+
+  private final FieldDefinition fieldDefinition;
+  private final int maxBitLength;
+  private final int fixedPointPrecision;
+
+  /**
+   * Create a new estimator using the given protocol parameters. The parameters affect the cost of
+   * comparisons and fixed point operations, so they should be the same as the ones used for the
+   * actual computation.
+   *
+   * @param fieldDefinition     The field to compute in.
+   * @param maxBitLength        The maximum bit length of the numbers used in the computation.
+   * @param fixedPointPrecision The number of bits used for the fractional part of fixed point
+   *                            numbers.
+   */
+  public CostEstimator(FieldDefinition fieldDefinition, int maxBitLength,
+      int fixedPointPrecision) {
+    this.fieldDefinition = fieldDefinition;
+    this.maxBitLength = maxBitLength;
+    this.fixedPointPrecision = fixedPointPrecision;
+  }
+
+  /**
+   * Create a new estimator using a 512 bit modulus, a maximum bit length of 400 and 32 bits of
+   * fixed point precision.
+   */
+  public CostEstimator() {
+    this(MersennePrimeFieldDefinition.find(DEFAULT_MODULUS_BIT_LENGTH), DEFAULT_MAX_BIT_LENGTH,
+        DEFAULT_FIXED_POINT_PRECISION);
+  }
+
+  /**
+   * Estimate the cost of the given computation.
+   */
+  public <T> CostReport estimate(Computation<T, ProtocolBuilderNumeric> computation) {
+    RoundCountingStrategy strategy = new RoundCountingStrategy(
+        EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy());
+    CountingProtocolSuite<?> suite = count(computation, strategy);
+    return new CostReport(strategy.getRounds(), suite.getMultiplications(),
+        suite.getTruncations(), suite.getComparisons(), suite.getTranscendentals(),
+        suite.getSquareRoots(), suite.getOpens(), suite.getInputs());
+  }
+
+  /**
+   * Estimate the preprocessed material needed to run the given computation with the SPDZ protocol
+   * suite. Note that the amount of material may depend on the inputs for computations where the
+   * leaked information affects the remaining computation.
+   */
+  public <T> PreprocessingReport estimatePreprocessing(
+      Computation<T, ProtocolBuilderNumeric> computation) {
+    CountingProtocolSuite<?> suite = count(computation,
+        EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy());
+    return new PreprocessingReport(suite.getMultiplications(), suite.getRandomBits(),
+        suite.getRandomElements(), suite.getExponentiationPipes(),
+        suite.getMaxExponentiationPipeLength(), suite.getInputs());
+  }
+
+  private <T> CountingProtocolSuite<?> count(Computation<T, ProtocolBuilderNumeric> computation,
+      BatchEvaluationStrategy<DummyArithmeticResourcePool> strategy) {
+    CountingProtocolSuite<DummyArithmeticResourcePool> suite = new CountingProtocolSuite<>(
+        new DummyArithmeticProtocolSuite(fieldDefinition, maxBitLength, fixedPointPrecision));
+    SecureComputationEngine<DummyArithmeticResourcePool, ProtocolBuilderNumeric> sce =
+        new SecureComputationEngineImpl<>(suite, new BatchedProtocolEvaluator<>(strategy, suite));
+
+    suite.setEnabled(true);
+    try {
+      sce.runApplication(computation::buildComputation,
+          new DummyArithmeticResourcePoolImpl(1, 1, fieldDefinition), new LoopbackNetwork(),
+          TIMEOUT);
+    } finally {
+      sce.close();
+    }
+    return suite;
+  }
+
+  /**
+   * Network for a single party where everything sent is received by the party itself.
+   */
+  private static class LoopbackNetwork implements Network {
+
+    private final Deque<byte[]> messages = new ArrayDeque<>();
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      messages.addLast(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return messages.pollFirst();
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 1;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package dk.alexandra.fresco.stat.cost;
+
+/**
+ * The cost of running a computation as estimated by a {@link CostEstimator}.
+ */
+public class CostReport {
+
+  private final long rounds;
+  private final long multiplications;
+  private final long truncations;
+  private final long comparisons;
+  private final long transcendentals;
+  private final long squareRoots;
+  private final long opens;
+  private final long inputs;
+
+  CostReport(long rounds, long multiplications, long truncations, long comparisons,
+      long transcendentals, long squareRoots, long opens, long inputs) {
+    this.rounds = rounds;
+    this.multiplications = multiplications;
+    this.truncations = truncations;
+    this.comparisons = comparisons;
+    this.transcendentals = transcendentals;
+    this.squareRoots = squareRoots;
+    this.opens = opens;
+    this.inputs = inputs;
+  }
+
+  /**
+   * Number of communication rounds, assuming that inputs, multiplications and openings each
+   * require one round of communication as in SPDZ.
+   */
+  public long getRounds() {
+    return rounds;
+  }
+
+  /** Number of multiplications of two secret values. */
+  public long getMultiplications() {
+    return multiplications;
+  }
+
+  /** Number of probabilistic truncations, eg. one for each fixed point multiplication. */
+  public long getTruncations() {
+    return truncations;
+  }
+
+  /** Number of comparisons, including equality tests, of secret values. */
+  public long getComparisons() {
+    return comparisons;
+  }
+
+  /**
+   * Number of evaluations of the exponential function, the logarithm, the reciprocal or the square
+   * root of secret fixed point numbers. These functions are counted together, see {@link
+   * CountingProtocolSuite}.
+   */
+  public long getTranscendentals() {
+    return transcendentals;
+  }
+
+  /**
+   * Number of square roots of secret fixed point numbers. These are also included in {@link
+   * #getTranscendentals()}.
+   */
+  public long getSquareRoots() {
+    return squareRoots;
+  }
+
+  /** Number of values opened to one or more parties. */
+  public long getOpens() {
+    return opens;
+  }
+
+  /** Number of secret values input by the parties. */
+  public long getInputs() {
+    return inputs;
+  }
+
+  @Override
+  public String toString() {
+    return "CostReport{" +
+        "rounds=" + rounds +
+        ", multiplications=" + multiplications +
+        ", truncations=" + truncations +
+        ", comparisons=" + comparisons +
+        ", transcendentals=" + transcendentals +
+        ", squareRoots=" + squareRoots +
+        ", opens=" + opens +
+        ", inputs=" + inputs +
+        '}';
+  }
+}
@@ -0,0 +1,355 @@
+package dk.alexandra.fresco.stat.cost;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.NumericResourcePool;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import java.lang.StackWalker.StackFrame;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decorator for a numeric protocol suite which counts the operations an application asks for.
+ * Counting is only done while {@link #setEnabled(boolean) enabled}, so the same suite may be used
+ * for timed runs without the overhead of the bookkeeping.
+ *
+ * <p>FRESCO does not expose comparisons, truncations or the fixed point functions as native
+ * protocols, so they are recognised from the native operations they use. Only multiplications by
+ * a public value, openings and subtractions of two secret values are classified, and only these
+ * look at the call stack. The class calling the native operation is matched by its fully qualified
+ * name against {@link #CLASSIFICATION}, which lists the components counted and why.</p>
+ *
+ * <p>The suite also counts the random values and exponentiation pipes requested, which in a
+ * protocol suite like SPDZ are taken from the preprocessed material.</p>
+ */
+public class CountingProtocolSuite<ResourcePoolT extends NumericResourcePool> implements
+    ProtocolSuiteNumeric<ResourcePoolT> {
+
+  private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+  /**
+   * The components recognised, keyed by the fully qualified name of the class calling the native
+   * operation. Lambdas are compiled into methods of the enclosing class, but nested classes are
+   * not, so the names must match exactly.
+   *
+   * <ul>
+   *   <li>Every comparison built on <code>LessThanZero</code> (<code>LT</code>, <code>LEQ</code> and
+   *   <code>sign</code>) performs exactly one multiplication by a public constant, and so does every
+   *   comparison to a public threshold done by
+   *   {@link dk.alexandra.fresco.stat.utils.LEQPublicThresholds}.</li>
+   *   <li>Every equality test built on <code>ZeroTestLogRounds</code> performs exactly one
+   *   opening.</li>
+   *   <li>Every truncation built on <code>Truncate</code>, which is used by fixed point
+   *   multiplication, performs exactly one opening.</li>
+   *   <li>The exponential function, the logarithm, the reciprocal and the square root of a fixed
+   *   point number all normalize their input using <code>NormalizeSInt</code>, which performs
+   *   exactly one multiplication by a public constant itself. These functions are built lazily
+   *   from the same components, so they cannot be told apart and are counted together.</li>
+   *   <li>The fixed point <code>SquareRoot</code> performs exactly one subtraction of two secret
+   *   values, so square roots are also counted separately.</li>
+   * </ul>
+   */
+  private static final Map<String, Classification> CLASSIFICATION = Map.of(
+      "dk.alexandra.fresco.lib.common.compare.lt.LessThanZero",
+      new Classification(NativeOperation.MULT_BY_PUBLIC, Counter.COMPARISONS),
+      "dk.alexandra.fresco.stat.utils.LEQPublicThresholds",
+      new Classification(NativeOperation.MULT_BY_PUBLIC, Counter.COMPARISONS),
+      "dk.alexandra.fresco.lib.common.compare.zerotest.ZeroTestLogRounds",
+      new Classification(NativeOperation.OPEN, Counter.COMPARISONS),
+      "dk.alexandra.fresco.lib.common.math.integer.binary.Truncate",
+      new Classification(NativeOperation.OPEN, Counter.TRUNCATIONS),
+      "dk.alexandra.fresco.lib.common.math.integer.binary.NormalizeSInt",
+      new Classification(NativeOperation.MULT_BY_PUBLIC, Counter.TRANSCENDENTALS),
+      "dk.alexandra.fresco.lib.fixed.math.SquareRoot",
+      new Classification(NativeOperation.SUB, Counter.SQUARE_ROOTS));
+
+  private final ProtocolSuiteNumeric<ResourcePoolT> delegate;
+  private boolean enabled;
+  private long multiplications;
+  private long truncations;
+  private long comparisons;
+  private long transcendentals;
+  private long squareRoots;
+  private long opens;
+  private long inputs;
+  private long randomBits;
+  private long randomElements;
+  private long exponentiationPipes;
+  private int maxExponentiationPipeLength;
+
+  public CountingProtocolSuite(ProtocolSuiteNumeric<ResourcePoolT> delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public BuilderFactoryNumeric init(ResourcePoolT resourcePool) {
+    BuilderFactoryNumeric factory = delegate.init(resourcePool);
+    return new BuilderFactoryNumeric() {
+      @Override
+      public BasicNumericContext getBasicNumericContext() {
+        return factory.getBasicNumericContext();
+      }
+
+      @Override
+      public Numeric createNumeric(ProtocolBuilderNumeric builder) {
+        return new CountingNumeric(factory.createNumeric(builder));
+      }
+
+      @Override
+      public PreprocessedValues createPreprocessedValues(ProtocolBuilderNumeric builder) {
+        PreprocessedValues preprocessedValues = factory.createPreprocessedValues(builder);
+        return pipeLength -> {
+          if (enabled) {
+            exponentiationPipes++;
+            maxExponentiationPipeLength = Math.max(maxExponentiationPipeLength, pipeLength);
+          }
+          return preprocessedValues.getExponentiationPipe(pipeLength);
+        };
+      }
+    };
+  }
+
+  @Override
+  public RoundSynchronization<ResourcePoolT> createRoundSynchronization() {
+    return delegate.createRoundSynchronization();
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public void reset() {
+    multiplications = 0;
+    truncations = 0;
+    comparisons = 0;
+    transcendentals = 0;
+    squareRoots = 0;
+    opens = 0;
+    inputs = 0;
+    randomBits = 0;
+    randomElements = 0;
+    exponentiationPipes = 0;
+    maxExponentiationPipeLength = 0;
+  }
+
+  /** Number of multiplications of two secret values. */
+  public long getMultiplications() {
+    return multiplications;
+  }
+
+  /** Number of probabilistic truncations. */
+  public long getTruncations() {
+    return truncations;
+  }
+
+  /** Number of comparisons, including equality tests, of secret values. */
+  public long getComparisons() {
+    return comparisons;
+  }
+
+  /**
+   * Number of evaluations of the exponential function, the logarithm, the reciprocal or the square
+   * root of secret fixed point numbers.
+   */
+  public long getTranscendentals() {
+    return transcendentals;
+  }
+
+  /** Number of square roots of secret fixed point numbers. */
+  public long getSquareRoots() {
+    return squareRoots;
+  }
+
+  /** Number of values opened to one or more parties. */
+  public long getOpens() {
+    return opens;
+  }
+
+  /** Number of secret values input by the parties. */
+  public long getInputs() {
+    return inputs;
+  }
+
+  /** Number of random bits requested. */
+  public long getRandomBits() {
+    return randomBits;
+  }
+
+  /** Number of random field elements requested. */
+  public long getRandomElements() {
+    return randomElements;
+  }
+
+  /** Number of exponentiation pipes requested. */
+  public long getExponentiationPipes() {
+    return exponentiationPipes;
+  }
+
+  /** The length of the longest exponentiation pipe requested. */
+  public int getMaxExponentiationPipeLength() {
+    return maxExponentiationPipeLength;
+  }
+
+  /**
+   * Get the fully qualified name of the class of the first method on the stack which is not part of
+   * this decorator or the {@link Numeric} interface.
+   */
+  private static Optional<String> caller() {
+    return STACK_WALKER.walk(frames -> frames.map(StackFrame::getClassName)
+        .filter(className -> !className.startsWith(CountingProtocolSuite.class.getName())
+            && !className.equals(Numeric.class.getName()))
+        .findFirst());
+  }
+
+  /**
+   * Count the component calling the given native operation if it is listed in {@link
+   * #CLASSIFICATION}.
+   */
+  private void classify(NativeOperation operation) {
+    caller().map(CLASSIFICATION::get)
+        .filter(classification -> classification.operation == operation)
+        .ifPresent(classification -> {
+          switch (classification.counter) {
+            case COMPARISONS:
+              comparisons++;
+              break;
+            case TRUNCATIONS:
+              truncations++;
+              break;
+            case TRANSCENDENTALS:
+              transcendentals++;
+              break;
+            case SQUARE_ROOTS:
+              squareRoots++;
+              break;
+          }
+        });
+  }
+
+  /** The native operations used to recognise the components in {@link #CLASSIFICATION}. */
+  private enum NativeOperation {
+    MULT_BY_PUBLIC, OPEN, SUB
+  }
+
+  private enum Counter {
+    COMPARISONS, TRUNCATIONS, TRANSCENDENTALS, SQUARE_ROOTS
+  }
+
+  private static class Classification {
+
+    private final NativeOperation operation;
+    private final Counter counter;
+
+    private Classification(NativeOperation operation, Counter counter) {
+      this.operation = operation;
+      this.counter = counter;
+    }
+  }
+
+  private class CountingNumeric implements Numeric {
+
+    private final Numeric numeric;
+
+    private CountingNumeric(Numeric numeric) {
+      this.numeric = numeric;
+    }
+
+    @Override
+    public DRes<SInt> add(DRes<SInt> a, DRes<SInt> b) {
+      return numeric.add(a, b);
+    }
+
+    @Override
+    public DRes<SInt> add(BigInteger a, DRes<SInt> b) {
+      return numeric.add(a, b);
+    }
+
+    @Override
+    public DRes<SInt> sub(DRes<SInt> a, DRes<SInt> b) {
+      if (enabled) {
+        classify(NativeOperation.SUB);
+      }
+      return numeric.sub(a, b);
+    }
+
+    @Override
+    public DRes<SInt> sub(BigInteger a, DRes<SInt> b) {
+      return numeric.sub(a, b);
+    }
+
+    @Override
+    public DRes<SInt> sub(DRes<SInt> a, BigInteger b) {
+      return numeric.sub(a, b);
+    }
+
+    @Override
+    public DRes<SInt> mult(DRes<SInt> a, DRes<SInt> b) {
+      if (enabled) {
+        multiplications++;
+      }
+      return numeric.mult(a, b);
+    }
+
+    @Override
+    public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
+      if (enabled) {
+        classify(NativeOperation.MULT_BY_PUBLIC);
+      }
+      return numeric.mult(a, b);
+    }
+
+    @Override
+    public DRes<SInt> randomBit() {
+      if (enabled) {
+        randomBits++;
+      }
+      return numeric.randomBit();
+    }
+
+    @Override
+    public DRes<SInt> randomElement() {
+      if (enabled) {
+        randomElements++;
+      }
+      return numeric.randomElement();
+    }
+
+    @Override
+    public DRes<SInt> known(BigInteger value) {
+      return numeric.known(value);
+    }
+
+    @Override
+    public DRes<SInt> input(BigInteger value, int inputParty) {
+      if (enabled) {
+        inputs++;
+      }
+      return numeric.input(value, inputParty);
+    }
+
+    @Override
+    public DRes<BigInteger> open(DRes<SInt> secretShare) {
+      countOpen();
+      return numeric.open(secretShare);
+    }
+
+    @Override
+    public DRes<BigInteger> open(DRes<SInt> secretShare, int outputParty) {
+      countOpen();
+      return numeric.open(secretShare, outputParty);
+    }
+
+    private void countOpen() {
+      if (enabled) {
+        opens++;
+        classify(NativeOperation.OPEN);
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package dk.alexandra.fresco.stat.cost;
+
+/**
+ * The preprocessed material needed to run a computation with the SPDZ protocol suite as estimated
+ * by a {@link CostEstimator}.
+ */
+public class PreprocessingReport {
+
+  private final long multiplicationTriples;
+  private final long randomBits;
+  private final long randomElements;
+  private final long exponentiationPipes;
+  private final int maxExponentiationPipeLength;
+  private final long inputMasks;
+
+  PreprocessingReport(long multiplicationTriples, long randomBits, long randomElements,
+      long exponentiationPipes, int maxExponentiationPipeLength, long inputMasks) {
+    this.multiplicationTriples = multiplicationTriples;
+    this.randomBits = randomBits;
+    this.randomElements = randomElements;
+    this.exponentiationPipes = exponentiationPipes;
+    this.maxExponentiationPipeLength = maxExponentiationPipeLength;
+    this.inputMasks = inputMasks;
+  }
+
+  /** Number of multiplication triples, one for each multiplication of two secret values. */
+  public long getMultiplicationTriples() {
+    return multiplicationTriples;
+  }
+
+  /**
+   * Number of random bits. These are mainly used for masking in comparisons and truncations.
+   */
+  public long getRandomBits() {
+    return randomBits;
+  }
+
+  /**
+   * Number of random field elements, including the keys and masks used by the {@link
+   * dk.alexandra.fresco.stat.utils.KeyedPRF} in eg. {@link
+   * dk.alexandra.fresco.stat.descriptive.LeakyFrequencyTable} and {@link
+   * dk.alexandra.fresco.stat.descriptive.LeakyBreakTies}.
+   */
+  public long getRandomElements() {
+    return randomElements;
+  }
+
+  /** Number of exponentiation pipes. */
+  public long getExponentiationPipes() {
+    return exponentiationPipes;
+  }
+
+  /**
+   * The length of the longest exponentiation pipe used. The preprocessed pipes should be at least
+   * this long.
+   */
+  public int getMaxExponentiationPipeLength() {
+    return maxExponentiationPipeLength;
+  }
+
+  /**
+   * Number of input masks. Since the estimate is computed by a single party, this is the total
+   * number of inputs, and the masks are needed for the parties actually giving the inputs.
+   */
+  public long getInputMasks() {
+    return inputMasks;
+  }
+
+  @Override
+  public String toString() {
+    return "PreprocessingReport{" +
+        "multiplicationTriples=" + multiplicationTriples +
+        ", randomBits=" + randomBits +
+        ", randomElements=" + randomElements +
+        ", exponentiationPipes=" + exponentiationPipes +
+        ", maxExponentiationPipeLength=" + maxExponentiationPipeLength +
+        ", inputMasks=" + inputMasks +
+        '}';
+  }
+}
@@ -0,0 +1,58 @@
+package dk.alexandra.fresco.stat.cost;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticCloseProtocol;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticMultProtocol;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticOpenProtocol;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticOpenToAllProtocol;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+
+/**
+ * Decorator for a batch evaluation strategy which counts the number of communication rounds an
+ * application would need in an actual MPC protocol.
+ *
+ * <p>The dummy arithmetic protocol suite computes in the clear, so it only communicates when
+ * values are input. In protocol suites like SPDZ, multiplications and openings also require
+ * communication, so a round is counted for every batch containing at least one input,
+ * multiplication or opening.</p>
+ */
+public class RoundCountingStrategy implements
+    BatchEvaluationStrategy<DummyArithmeticResourcePool> {
+
+  private final BatchEvaluationStrategy<DummyArithmeticResourcePool> delegate;
+  private long rounds;
+
+  public RoundCountingStrategy(BatchEvaluationStrategy<DummyArithmeticResourcePool> delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void processBatch(ProtocolCollection<DummyArithmeticResourcePool> protocols,
+      DummyArithmeticResourcePool resourcePool, NetworkBatchDecorator network) {
+    for (NativeProtocol<?, DummyArithmeticResourcePool> protocol : protocols) {
+      if (isInteractive(protocol)) {
+        rounds++;
+        break;
+      }
+    }
+    delegate.processBatch(protocols, resourcePool, network);
+  }
+
+  public void reset() {
+    rounds = 0;
+  }
+
+  public long getRounds() {
+    return rounds;
+  }
+
+  private static boolean isInteractive(NativeProtocol<?, ?> protocol) {
+    return protocol instanceof DummyArithmeticMultProtocol
+        || protocol instanceof DummyArithmeticOpenProtocol
+        || protocol instanceof DummyArithmeticOpenToAllProtocol
+        || protocol instanceof DummyArithmeticCloseProtocol;
+  }
+}
@@ -0,0 +1,138 @@
+package dk.alexandra.fresco.stat.descriptive;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compute approximate quantiles of a data set from a cumulative histogram over a list of bucket
+ * bounds, without sorting the data set.
+ *
+ * <p>The <i>q</i>'th quantile is approximated by the smallest bucket bound <i>b<sub>i</sub></i>
+ * such that at least <i>qn</i> samples are smaller than or equal to <i>b<sub>i</sub></i>, so the
+ * error is at most the width of the bucket containing the quantile. If the quantile is larger
+ * than all bucket bounds, the largest bound is returned.</p>
+ *
+ * <p>Each sample is compared to each bucket bound and the cumulative counts are then compared to
+ * the public rank of each quantile, so with <i>k</i> buckets and <i>m</i> quantiles this uses
+ * <i>k(n + m)</i> comparisons in a constant number of rounds, as opposed to the
+ * <i>O(n log<sup>2</sup> n)</i> comparisons used to sort the data set.</p>
+ */
+public class ApproximateQuantiles implements
+    Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SInt>> buckets;
+  private final BigInteger[] publicBuckets;
+  private final List<DRes<SInt>> data;
+  private final double[] quantiles;
+
+  private ApproximateQuantiles(List<DRes<SInt>> buckets, BigInteger[] publicBuckets,
+      List<DRes<SInt>> data, double[] quantiles) {
+    int k = buckets == null ? publicBuckets.length : buckets.size();
+    if (k == 0) {
+      throw new IllegalArgumentException("At least one bucket bound is needed");
+    }
+    if (data.isEmpty()) {
+      throw new IllegalArgumentException("Data set must not be empty");
+    }
+    if (Arrays.stream(quantiles).anyMatch(q -> q < 0.0 || q > 1.0)) {
+      throw new IllegalArgumentException("Quantiles must be between 0 and 1");
+    }
+    this.buckets = buckets;
+    this.publicBuckets = publicBuckets;
+    this.data = data;
+    this.quantiles = quantiles;
+  }
+
+  /**
+   * @param buckets   Secret bucket bounds in ascending order.
+   * @param data      List of samples.
+   * @param quantiles The quantiles to compute.
+   */
+  public ApproximateQuantiles(List<DRes<SInt>> buckets, List<DRes<SInt>> data,
+      double[] quantiles) {
+    this(buckets, null, data, quantiles);
+  }
+
+  /**
+   * @param buckets   Public bucket bounds in ascending order.
+   * @param data      List of samples.
+   * @param quantiles The quantiles to compute.
+   */
+  public ApproximateQuantiles(BigInteger[] buckets, List<DRes<SInt>> data, double[] quantiles) {
+    this(null, buckets, data, quantiles);
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    List<DRes<SInt>> bounds = buckets != null ? buckets
+        : Arrays.stream(publicBuckets).map(builder.numeric()::known).collect(Collectors.toList());
+    int k = bounds.size();
+    int n = data.size();
+
+    if (k == 1) {
+      return DRes.of(Arrays.stream(quantiles).mapToObj(q -> bounds.get(0))
+          .collect(Collectors.toList()));
+    }
+
+    // The cumulative count of the last bucket is not needed since all quantiles are clamped to the
+    // last bound
+    CumulativeHistogram cumulativeHistogram = publicBuckets != null
+        ? new CumulativeHistogram(Arrays.copyOf(publicBuckets, k - 1), data)
+        : new CumulativeHistogram(bounds.subList(0, k - 1), data);
+    return builder.seq(cumulativeHistogram)
+        .par((par, cumulative) -> {
+
+          // above.get(j).get(i) = 1 iff the i'th bound is at least the j'th quantile
+          List<List<DRes<SInt>>> above = new ArrayList<>();
+          for (double q : quantiles) {
+            DRes<SInt> rank = par.numeric().known(rank(n, q));
+            above.add(cumulative.stream().map(c -> Comparison.using(par).compareLEQ(rank, c))
+                .collect(Collectors.toList()));
+          }
+          return DRes.of(above);
+        }).par((par, above) -> {
+
+          // The indicators are monotone, so the smallest bound above the quantile is
+          // b_{k-1} - sum_i above_i * (b_{i+1} - b_i)
+          List<DRes<SInt>> result = new ArrayList<>();
+          for (List<DRes<SInt>> indicators : above) {
+            result.add(par.seq(seq -> {
+              DRes<SInt> offset;
+              if (publicBuckets != null) {
+                List<BigInteger> widths = new ArrayList<>();
+                for (int i = 0; i < k - 1; i++) {
+                  widths.add(publicBuckets[i + 1].subtract(publicBuckets[i]));
+                }
+                offset = AdvancedNumeric.using(seq).innerProductWithPublicPart(widths, indicators);
+              } else {
+                List<DRes<SInt>> widths = new ArrayList<>();
+                for (int i = 0; i < k - 1; i++) {
+                  widths.add(seq.numeric().sub(bounds.get(i + 1), bounds.get(i)));
+                }
+                offset = AdvancedNumeric.using(seq).innerProduct(widths, indicators);
+              }
+              return seq.numeric().sub(bounds.get(k - 1), offset);
+            }));
+          }
+          return DRes.of(result);
+        });
+  }
+
+  /**
+   * The smallest number of samples which must be smaller than or equal to the <i>q</i>'th
+   * quantile.
+   */
+  private static int rank(int n, double q) {
+    return Math.max(1, (int) Math.ceil(q * n));
+  }
+
+}
@@ -6,8 +6,8 @@ import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
-import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
-import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.linearalgebra.IntegerGramMatrix;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -37,15 +37,12 @@ public class ContingencyTable implements Computation<Matrix<DRes<SInt>>, Protoco
 
   @Override
   public DRes<Matrix<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
-    return builder.par(par ->
-        DRes.of(MatrixUtils.buildMatrix(width, height, (i, j) ->
-                par.par(sub ->
-                    DRes.of(data.stream().map(row ->
-                        sub.numeric().mult(row.getFirst().get(i), row.getSecond().get(j)))
-                        .collect(Collectors.toList()))).seq((seq, terms) ->
-                    AdvancedNumeric.using(seq).sum(terms)
-                )
-            )
-        ));
+    // The table is the matrix product A^T B where the rows of A and B are the indicator vectors of
+    // the first and second attribute respectively
+    List<List<DRes<SInt>>> a = VectorUtils.listBuilder(width,
+        i -> data.stream().map(row -> row.getFirst().get(i)).collect(Collectors.toList()));
+    List<List<DRes<SInt>>> b = VectorUtils.listBuilder(height,
+        j -> data.stream().map(row -> row.getSecond().get(j)).collect(Collectors.toList()));
+    return builder.seq(new IntegerGramMatrix(a, b));
   }
 }
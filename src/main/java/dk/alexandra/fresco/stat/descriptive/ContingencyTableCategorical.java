@@ -7,7 +7,11 @@ import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
 import dk.alexandra.fresco.lib.common.util.SIntPair;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.OneHotEncoding;
 import dk.alexandra.fresco.stat.utils.ParallelIndicator;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,9 +22,17 @@ import java.util.stream.Collectors;
 public class ContingencyTableCategorical implements
     Computation<Matrix<DRes<SInt>>, ProtocolBuilderNumeric> {
 
+  /**
+   * Largest range for which the values are encoded using {@link ParallelIndicator}. For larger
+   * ranges, {@link OneHotEncoding} uses a constant number of rounds and much less local
+   * computation.
+   */
+  private static final int MAX_POLYNOMIAL_RANGE = 8;
+
   private final List<SIntPair> data;
   private final int height;
   private final int width;
+  private final List<DRes<SInt>> filter;
 
   /**
    * Given a list of observations, each consisting of two categorical values <i>(x,y)</i> with <i>0
@@ -29,20 +41,52 @@ public class ContingencyTableCategorical implements
    * j</i>.
    */
   public ContingencyTableCategorical(List<SIntPair> data, int width, int height) {
+    this(data, width, height, null);
+  }
+
+  /**
+   * Compute the contingency table of the observations selected by a filter. The first value of
+   * each observation which is not selected is replaced by <i>width</i>, which requires a single
+   * multiplication per observation, and the extra row of the table with these observations is
+   * discarded.
+   *
+   * @param filter A secret 0-1-vector indicating which observations should be included.
+   */
+  public ContingencyTableCategorical(List<SIntPair> data, int width, int height,
+      List<DRes<SInt>> filter) {
+    if (filter != null && filter.size() != data.size()) {
+      throw new IllegalArgumentException("Data and filter must have same size");
+    }
     this.data = data;
     this.width = width;
     this.height = height;
+    this.filter = filter;
   }
 
   @Override
   public DRes<Matrix<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    if (filter != null) {
+      // Compute width + f (x - width) for each observation
+      return builder.seq(seq -> DRes.of(data.stream()
+          .map(row -> seq.numeric().sub(row.getFirst(), BigInteger.valueOf(width)))
+          .collect(Collectors.toList()))
+      ).par((par, differences) -> DRes.of(VectorUtils.listBuilder(data.size(),
+          i -> par.numeric().mult(filter.get(i), differences.get(i))))
+      ).seq((seq, products) -> {
+        List<SIntPair> filtered = VectorUtils.listBuilder(data.size(), i -> new SIntPair(
+            seq.numeric().add(BigInteger.valueOf(width), products.get(i)),
+            data.get(i).getSecond()));
+        return new ContingencyTableCategorical(filtered, width + 1, height)
+            .buildComputation(seq);
+      }).seq((seq, table) -> DRes.of(MatrixUtils.buildMatrix(width, height,
+          (i, j) -> table.getRow(i).get(j))));
+    }
+
     return builder.par(par -> {
       List<Pair<DRes<List<DRes<SInt>>>, DRes<List<DRes<SInt>>>>> indicators = new ArrayList<>();
       for (SIntPair row : data) {
-        ParallelIndicator leftIndicator = new ParallelIndicator(width, row.getFirst());
-        ParallelIndicator rightIndicator = new ParallelIndicator(height, row.getSecond());
-        indicators.add(
-            new Pair<>(leftIndicator.buildComputation(par), rightIndicator.buildComputation(par)));
+        indicators.add(new Pair<>(encode(width, row.getFirst(), par),
+            encode(height, row.getSecond(), par)));
       }
       return DRes.of(indicators);
     }).seq((seq, indicators) -> {
@@ -52,4 +96,12 @@ public class ContingencyTableCategorical implements
       return seq.seq(new ContingencyTable(data));
     });
   }
+
+  private static DRes<List<DRes<SInt>>> encode(int range, DRes<SInt> value,
+      ProtocolBuilderNumeric builder) {
+    if (range <= MAX_POLYNOMIAL_RANGE) {
+      return new ParallelIndicator(range, value).buildComputation(builder);
+    }
+    return new OneHotEncoding(range, value).buildComputation(builder);
+  }
 }
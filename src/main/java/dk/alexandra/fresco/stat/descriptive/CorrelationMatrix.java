@@ -0,0 +1,41 @@
+package dk.alexandra.fresco.stat.descriptive;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.helpers.NormalizeCovariance;
+import java.util.List;
+
+/**
+ * Compute the matrix of Pearson's correlation coefficients between all pairs of the given
+ * variables. The covariance matrix is computed once using {@link SampleCovariance}, and the
+ * standard deviations are derived from its diagonal, so this requires a square root and a
+ * reciprocal per variable instead of per pair of variables.
+ */
+public class CorrelationMatrix implements
+    Computation<Matrix<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final List<List<DRes<SFixed>>> observations;
+  private final List<DRes<SFixed>> mean;
+
+  /**
+   * Create a new computation with a given computed sample mean. Use {@link SampleMean} to compute
+   * the mean.
+   */
+  public CorrelationMatrix(List<List<DRes<SFixed>>> observations, List<DRes<SFixed>> mean) {
+    if (mean.size() != observations.size()) {
+      throw new IllegalArgumentException("There must be a sample mean per variable");
+    }
+    this.observations = observations;
+    this.mean = mean;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.seq(new SampleCovariance(observations, mean))
+        .seq((seq, covariance) -> new NormalizeCovariance(covariance)
+            .buildComputation(seq));
+  }
+}
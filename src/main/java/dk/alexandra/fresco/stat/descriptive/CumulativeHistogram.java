@@ -0,0 +1,74 @@
+package dk.alexandra.fresco.stat.descriptive;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.stat.utils.LEQPublicThresholds;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compute a cumulative histogram for a data set, eg. the number of samples smaller than or equal to
+ * each of a list of bounds.
+ */
+public class CumulativeHistogram implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SInt>> bounds;
+  private final BigInteger[] publicBounds;
+  private final List<DRes<SInt>> data;
+
+  /**
+   * @param bounds The bounds to count the samples below.
+   * @param data   List of samples
+   */
+  public CumulativeHistogram(List<DRes<SInt>> bounds, List<DRes<SInt>> data) {
+    this.bounds = bounds;
+    this.publicBounds = null;
+    this.data = data;
+  }
+
+  /**
+   * Compute the cumulative histogram for public bounds. Each sample is compared to all bounds using
+   * {@link LEQPublicThresholds}, which shares the randomness and the opening used by the
+   * comparisons among the bounds.
+   *
+   * @param bounds The public bounds to count the samples below.
+   * @param data   List of samples
+   */
+  public CumulativeHistogram(BigInteger[] bounds, List<DRes<SInt>> data) {
+    this.bounds = null;
+    this.publicBounds = bounds;
+    this.data = data;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.par(par -> {
+      if (publicBounds != null) {
+        List<DRes<List<DRes<SInt>>>> columns = data.stream()
+            .map(x -> new LEQPublicThresholds(x, Arrays.asList(publicBounds))
+                .buildComputation(par)).collect(Collectors.toList());
+        return () -> new Matrix<>(publicBounds.length, data.size(),
+            i -> columns.stream().map(column -> column.out().get(i))
+                .collect(Collectors.toCollection(ArrayList::new)));
+      }
+      Matrix<DRes<SInt>> c = new Matrix<>(bounds.size(), data.size(),
+          i -> data.stream().map(x -> Comparison.using(par).compareLEQ(x, bounds.get(i)))
+              .collect(Collectors.toCollection(ArrayList::new)));
+      return DRes.of(c);
+    }).par((par, c) -> {
+      List<DRes<SInt>> counts =
+          c.getRows().stream().map(r -> AdvancedNumeric.using(par).sum(r))
+              .collect(Collectors.toList());
+      return DRes.of(counts);
+    });
+  }
+
+}
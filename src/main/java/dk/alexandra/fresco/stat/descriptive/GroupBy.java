@@ -0,0 +1,232 @@
+package dk.alexandra.fresco.stat.descriptive;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.sort.ShuffleSortRows;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group samples by a secret key and compute the size, sum, mean and sample variance of each group.
+ * The groups are returned in increasing order of the keys, and only the number of groups is
+ * revealed. If a public number of groups is given, the output is padded to this size with empty
+ * groups, and nothing is revealed.
+ *
+ * <p>The samples are sorted by key using {@link ShuffleSortRows}, and a sample is marked as the
+ * last in its group if the next key is different. The sums of each group are computed as
+ * segmented prefix sums: Since the prefix sums of the sorted list may be computed without
+ * communication, the sum of a group is the difference between the prefix sums at the end of the
+ * group and at the end of the previous group. The last samples of the groups are moved to the
+ * front, keeping their order, by a second sort on the public position and the marks, after which
+ * the differences may be computed. This uses <i>O(n log n)</i> comparisons in expectation
+ * independently of the number of groups.</p>
+ *
+ * <p>The sample variance is not defined for groups with a single sample.</p>
+ */
+public class GroupBy implements Computation<List<GroupBy.Group>, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SInt>> keys;
+  private final List<DRes<SFixed>> values;
+  private final int groups;
+
+  /**
+   * Group the values by key and reveal the number of groups.
+   *
+   * @param keys   The key of each sample.
+   * @param values The value of each sample.
+   */
+  public GroupBy(List<DRes<SInt>> keys, List<DRes<SFixed>> values) {
+    this(keys, values, 0);
+  }
+
+  /**
+   * Group the values by key. The output has the given number of groups, the last of which are
+   * empty if there are fewer distinct keys. There must not be more distinct keys than this.
+   *
+   * @param keys   The key of each sample.
+   * @param values The value of each sample.
+   * @param groups The public number of groups in the output, or <i>0</i> if the actual number of
+   *               groups should be revealed.
+   */
+  public GroupBy(List<DRes<SInt>> keys, List<DRes<SFixed>> values, int groups) {
+    if (keys.size() != values.size()) {
+      throw new IllegalArgumentException("There must be a value for each key");
+    }
+    if (groups < 0 || groups > keys.size()) {
+      throw new IllegalArgumentException(
+          "The number of groups must be between 0 and the number of samples");
+    }
+    this.keys = keys;
+    this.values = values;
+    this.groups = groups;
+  }
+
+  @Override
+  public DRes<List<Group>> buildComputation(ProtocolBuilderNumeric builder) {
+    int n = keys.size();
+    boolean padded = groups > 0;
+
+    return builder.seq(seq -> {
+      List<List<DRes<SInt>>> rows = VectorUtils.listBuilder(n,
+          i -> List.of(keys.get(i), values.get(i).out().getSInt()));
+      return new ShuffleSortRows(keys, rows).buildComputation(seq);
+    }).par((par, sorted) -> {
+
+      // A sample is the last in its group if the next key is different
+      List<DRes<SInt>> last = VectorUtils.listBuilder(n, i -> i == n - 1
+          ? par.numeric().known(1)
+          : par.seq(seq -> seq.numeric().sub(BigInteger.ONE,
+              Comparison.using(seq).equals(sorted.get(i).get(0), sorted.get(i + 1).get(0)))));
+      List<DRes<SFixed>> squares = VectorUtils.listBuilder(n, i -> {
+        SFixed x = new SFixed(sorted.get(i).get(1));
+        return FixedNumeric.using(par).mult(x, x);
+      });
+      return Pair.lazy(sorted, new Pair<>(last, squares));
+    }).seq((seq, sortedAndLast) -> {
+      Numeric numeric = seq.numeric();
+      List<List<DRes<SInt>>> sorted = sortedAndLast.getFirst();
+      List<DRes<SInt>> last = sortedAndLast.getSecond().getFirst();
+      List<DRes<SFixed>> squares = sortedAndLast.getSecond().getSecond();
+
+      // Each row consists of | last? | key | count | sum | sum of squares |, where the last three
+      // are prefix sums
+      List<List<DRes<SInt>>> rows = new ArrayList<>();
+      DRes<SInt> sum = numeric.known(0);
+      DRes<SInt> sumOfSquares = numeric.known(0);
+      for (int i = 0; i < n; i++) {
+        sum = numeric.add(sum, sorted.get(i).get(1));
+        sumOfSquares = numeric.add(sumOfSquares, squares.get(i).out().getSInt());
+        rows.add(List.of(last.get(i), sorted.get(i).get(0), numeric.known(i + 1), sum,
+            sumOfSquares));
+      }
+
+      // Order the last samples of each group first, and otherwise by position
+      List<DRes<SInt>> order = VectorUtils.listBuilder(n, i -> numeric.add(BigInteger.valueOf(i),
+          numeric.mult(BigInteger.valueOf(n), numeric.sub(BigInteger.ONE, last.get(i)))));
+      DRes<BigInteger> numberOfGroups = padded ? DRes.of(BigInteger.valueOf(groups))
+          : numeric.open(AdvancedNumeric.using(seq).sum(last));
+      return Pair.lazy(new Pair<>(rows, order), numberOfGroups);
+    }).par((par, rowsAndGroups) -> {
+      List<List<DRes<SInt>>> rows = rowsAndGroups.getFirst().getFirst();
+      List<DRes<SInt>> order = rowsAndGroups.getFirst().getSecond();
+      if (!padded) {
+        return Pair.lazy(new Pair<>(VectorUtils.listBuilder(n, i -> DRes.of(rows.get(i))), order),
+            rowsAndGroups.getSecond());
+      }
+
+      // Rows which are not the last of a group are used for padding, so the key is set to zero
+      // and the prefix sums to the totals, making the differences zero
+      List<DRes<SInt>> totals = rows.get(n - 1);
+      List<DRes<List<DRes<SInt>>>> masked = VectorUtils.listBuilder(n, i -> par.seq(seq -> {
+        Numeric numeric = seq.numeric();
+        List<DRes<SInt>> row = rows.get(i);
+        List<DRes<SInt>> maskedRow = new ArrayList<>();
+        maskedRow.add(row.get(0));
+        maskedRow.add(numeric.mult(row.get(0), row.get(1)));
+        for (int j = 2; j < row.size(); j++) {
+          maskedRow.add(numeric.add(totals.get(j),
+              numeric.mult(row.get(0), numeric.sub(row.get(j), totals.get(j)))));
+        }
+        return DRes.of(maskedRow);
+      }));
+      return Pair.lazy(new Pair<>(masked, order), rowsAndGroups.getSecond());
+    }).seq((seq, rowsAndGroups) -> {
+      List<DRes<List<DRes<SInt>>>> rows = rowsAndGroups.getFirst().getFirst();
+      return Pair.lazy(new ShuffleSortRows(rowsAndGroups.getFirst().getSecond(),
+          VectorUtils.listBuilder(n, i -> rows.get(i).out())).buildComputation(seq),
+          rowsAndGroups.getSecond().out().intValueExact());
+    }).par((par, sortedAndGroups) -> {
+      List<List<DRes<SInt>>> sorted = sortedAndGroups.getFirst().out();
+      int numberOfGroups = sortedAndGroups.getSecond();
+      List<DRes<Group>> result = VectorUtils.listBuilder(numberOfGroups, g -> par.seq(seq -> {
+        Numeric numeric = seq.numeric();
+        FixedNumeric fixedNumeric = FixedNumeric.using(seq);
+        List<DRes<SInt>> row = sorted.get(g);
+        DRes<SInt> isGroup = row.get(0);
+        DRes<SInt> count = g == 0 ? row.get(2) : numeric.sub(row.get(2), sorted.get(g - 1).get(2));
+        DRes<SFixed> sum = new SFixed(
+            g == 0 ? row.get(3) : numeric.sub(row.get(3), sorted.get(g - 1).get(3)));
+        DRes<SFixed> sumOfSquares = new SFixed(
+            g == 0 ? row.get(4) : numeric.sub(row.get(4), sorted.get(g - 1).get(4)));
+
+        // Empty groups are divided by one instead of zero
+        DRes<SInt> notGroup = numeric.sub(BigInteger.ONE, isGroup);
+        DRes<SFixed> mean = fixedNumeric.div(sum,
+            fixedNumeric.fromSInt(numeric.add(count, notGroup)));
+        DRes<SFixed> variance = fixedNumeric.div(
+            fixedNumeric.sub(sumOfSquares, fixedNumeric.mult(sum, mean)),
+            fixedNumeric.fromSInt(numeric.add(numeric.sub(count, BigInteger.ONE),
+                numeric.mult(BigInteger.TWO, notGroup))));
+        return DRes.of(new Group(row.get(1), count, sum, mean, variance));
+      }));
+      return DRes.of(result);
+    }).seq((seq, result) -> DRes.of(VectorUtils.listBuilder(result.size(),
+        i -> result.get(i).out())));
+  }
+
+  /**
+   * The statistics of a single group.
+   */
+  public static class Group {
+
+    private final DRes<SInt> key;
+    private final DRes<SInt> count;
+    private final DRes<SFixed> sum;
+    private final DRes<SFixed> mean;
+    private final DRes<SFixed> variance;
+
+    public Group(DRes<SInt> key, DRes<SInt> count, DRes<SFixed> sum, DRes<SFixed> mean,
+        DRes<SFixed> variance) {
+      this.key = key;
+      this.count = count;
+      this.sum = sum;
+      this.mean = mean;
+      this.variance = variance;
+    }
+
+    /**
+     * The key of the group. This is zero for empty groups.
+     */
+    public DRes<SInt> getKey() {
+      return key;
+    }
+
+    /**
+     * The number of samples in the group.
+     */
+    public DRes<SInt> getCount() {
+      return count;
+    }
+
+    /**
+     * The sum of the samples in the group.
+     */
+    public DRes<SFixed> getSum() {
+      return sum;
+    }
+
+    /**
+     * The mean of the samples in the group. This is zero for empty groups.
+     */
+    public DRes<SFixed> getMean() {
+      return mean;
+    }
+
+    /**
+     * The sample variance of the samples in the group.
+     */
+    public DRes<SFixed> getVariance() {
+      return variance;
+    }
+  }
+}
@@ -4,12 +4,9 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
-import dk.alexandra.fresco.lib.common.collections.Matrix;
-import dk.alexandra.fresco.lib.common.compare.Comparison;
-import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Compute a 1-dimensional histogram for a data set.
@@ -17,6 +14,7 @@ import java.util.stream.Collectors;
 public class Histogram implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
 
   private final List<DRes<SInt>> buckets;
+  private final BigInteger[] publicBuckets;
   private final List<DRes<SInt>> data;
 
   /**
@@ -29,23 +27,32 @@ public class Histogram implements Computation<List<DRes<SInt>>, ProtocolBuilderN
    */
   public Histogram(List<DRes<SInt>> buckets, List<DRes<SInt>> data) {
     this.buckets = buckets;
+    this.publicBuckets = null;
+    this.data = data;
+  }
+
+  /**
+   * Given a list of public upper bounds for buckets and a list of samples, this computation
+   * computes the histogram for the given buckets. The last bucket contains all samples larger than
+   * the last upper bound.
+   *
+   * @param buckets Public soft upper bounds for buckets
+   * @param data    List of samples
+   */
+  public Histogram(BigInteger[] buckets, List<DRes<SInt>> data) {
+    this.buckets = null;
+    this.publicBuckets = buckets;
     this.data = data;
   }
 
   @Override
   public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
-    return builder.par(par -> {
-      Matrix<DRes<SInt>> c = new Matrix<>(buckets.size(), data.size(),
-          i -> data.stream().map(x -> Comparison.using(par).compareLEQ(x, buckets.get(i)))
-              .collect(Collectors.toCollection(ArrayList::new)));
-      return DRes.of(c);
-    }).par((par, c) -> {
-      List<DRes<SInt>> counts =
-          c.getRows().stream().map(r -> AdvancedNumeric.using(par).sum(r))
-              .collect(Collectors.toList());
-      counts.add(par.numeric().known(data.size()));
-      return DRes.of(counts);
-    }).seq((seq, counts) -> {
+    CumulativeHistogram cumulativeHistogram = publicBuckets != null
+        ? new CumulativeHistogram(publicBuckets, data)
+        : new CumulativeHistogram(buckets, data);
+    return builder.seq(cumulativeHistogram).seq((seq, cumulative) -> {
+      List<DRes<SInt>> counts = new ArrayList<>(cumulative);
+      counts.add(seq.numeric().known(data.size()));
       for (int i = counts.size() - 1; i > 0; i--) {
         counts.set(i, seq.numeric().sub(counts.get(i), counts.get(i - 1)));
       }
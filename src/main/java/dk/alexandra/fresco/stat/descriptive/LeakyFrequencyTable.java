@@ -5,14 +5,13 @@ import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
-import dk.alexandra.fresco.lib.mimc.MiMCDecryption;
-import dk.alexandra.fresco.lib.mimc.MiMCEncryption;
+import dk.alexandra.fresco.stat.utils.KeyedPRF;
+import dk.alexandra.fresco.stat.utils.LegendrePRF;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Compute the frequencies of entries in the given data. The set of frequencies will be leaked to
@@ -23,9 +22,19 @@ public class LeakyFrequencyTable implements
     Computation<List<Pair<DRes<SInt>, Integer>>, ProtocolBuilderNumeric> {
 
   private final List<DRes<SInt>> data;
+  private final KeyedPRF prf;
 
   public LeakyFrequencyTable(List<DRes<SInt>> data) {
+    this(data, new LegendrePRF());
+  }
+
+  /**
+   * @param data The data to count.
+   * @param prf  The PRF used to find equal entries.
+   */
+  public LeakyFrequencyTable(List<DRes<SInt>> data, KeyedPRF prf) {
     this.data = data;
+    this.prf = prf;
   }
 
   @Override
@@ -34,36 +43,16 @@ public class LeakyFrequencyTable implements
     // We assume the data is obliviously shuffled before running this computation
     //DRes<List<DRes<SInt>>> shuffled = Collections.using(builder).shuffle().shuffle(data);
 
-    // Generate encryption key
-    DRes<SInt> mimcKey = builder.numeric().randomElement();
-
-    return builder.par(par -> {
-      List<DRes<BigInteger>> ciphers = new ArrayList<>(data.size());
-      for (final DRes<SInt> entry : data) {
-        DRes<BigInteger> openedCipher =
-            par.seq(
-                (seq -> {
-                  DRes<SInt> cipherText = new MiMCEncryption(entry, mimcKey).buildComputation(seq);
-                  return seq.numeric().open(cipherText);
-                }));
-        ciphers.add(openedCipher);
-      }
-      return DRes.of(ciphers);
-    }).par((par, ciphers) -> {
-      // use cipher texts to perform aggregation "in-the-clear"
-      Map<BigInteger, Integer> groupedByCipher = new HashMap<>();
-
-      for (DRes<BigInteger> cipher : ciphers) {
-        BigInteger cipherOut = cipher.out();
-        groupedByCipher.putIfAbsent(cipherOut, 0);
-        groupedByCipher.computeIfPresent(cipherOut, (k, v) -> v + 1);
+    return builder.seq(seq -> prf.evaluateAndOpen(data, seq)).seq((seq, outputs) -> {
+      // use the PRF outputs to perform aggregation "in-the-clear". The first entry with a given
+      // output represents the group.
+      Map<BigInteger, Pair<DRes<SInt>, Integer>> groupedByOutput = new LinkedHashMap<>();
+      for (int i = 0; i < outputs.size(); i++) {
+        DRes<SInt> entry = data.get(i);
+        groupedByOutput.merge(outputs.get(i), new Pair<>(entry, 1),
+            (group, single) -> new Pair<>(group.getFirst(), group.getSecond() + 1));
       }
-      List<Pair<DRes<SInt>, Integer>> frequencies = groupedByCipher.keySet().stream()
-          .map(v -> new Pair<>(
-              new MiMCDecryption(par.numeric().known(v), mimcKey).buildComputation(par),
-              groupedByCipher.get(v)))
-          .collect(Collectors.toList());
-      return DRes.of(frequencies);
+      return DRes.of(new ArrayList<>(groupedByOutput.values()));
     });
   }
 }
@@ -5,13 +5,14 @@ import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
-import dk.alexandra.fresco.lib.common.compare.Comparison;
 import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
 import dk.alexandra.fresco.stat.utils.MatrixUtils;
 import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
-import java.util.Arrays;
+import dk.alexandra.fresco.stat.utils.MultiLEQ;
+import dk.alexandra.fresco.stat.utils.ProductTree;
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -21,6 +22,7 @@ public class MultiDimensionalHistogram
     implements Computation<MultiDimensionalArray<DRes<SInt>>, ProtocolBuilderNumeric> {
 
   private final List<List<DRes<SInt>>> buckets;
+  private final BigInteger[][] publicBuckets;
   private final Matrix<DRes<SInt>> data;
   private final int dimensions;
 
@@ -34,48 +36,50 @@ public class MultiDimensionalHistogram
       throw new IllegalArgumentException("There should be a list of buckets per dimension");
     }
     this.buckets = buckets;
+    this.publicBuckets = null;
     this.dimensions = buckets.size();
     this.data = data;
   }
 
   /**
-   * Return all subsets of a list
+   * @param buckets A list of public soft lower bounds for the buckets of the histogram per
+   *                dimension.
+   * @param data    The dataset. Rows are enterpreted as entries.
    */
-  private static <E> Stream<List<E>> subsets(List<E> set) {
-    return subsets(set.size()).map(subset -> sublist(set, subset));
+  public MultiDimensionalHistogram(BigInteger[][] buckets, Matrix<DRes<SInt>> data) {
+    if (data.getWidth() != buckets.length) {
+      throw new IllegalArgumentException("There should be a list of buckets per dimension");
+    }
+    this.buckets = null;
+    this.publicBuckets = buckets;
+    this.dimensions = buckets.length;
+    this.data = data;
   }
 
-  /**
-   * Return a list containing the given indices from the input list in the same order.
-   */
-  private static <E> List<E> sublist(List<E> list, int[] indices) {
-    return Arrays.stream(indices).mapToObj(list::get).collect(Collectors.toList());
+  private int numberOfBounds(int dimension) {
+    return publicBuckets != null ? publicBuckets[dimension].length
+        : buckets.get(dimension).size();
   }
 
-  /**
-   * Return all subsets of {0,1,2,...,r-1} lexicographical order.
-   */
-  private static Stream<int[]> subsets(int r) {
-
-    Stream<int[]> stream = Stream.of(new int[0]);
-    if (r == 0) {
-      return stream;
-    }
-
-    return Stream.concat(stream,
-        IntStream.range(0, r).boxed().flatMap(
-            i -> subsets(r - i - 1).map(set -> Arrays.stream(set).map(x -> x + i + 1).toArray())
-                .map(s -> prepend(i, s))));
+  private MultiLEQ compareToBounds(DRes<SInt> value, int dimension) {
+    return publicBuckets != null ? new MultiLEQ(value, publicBuckets[dimension])
+        : new MultiLEQ(value, buckets.get(dimension));
   }
 
   /**
-   * Return a new array from prepending <i>a</i> to the given list.
+   * Return an array of the same shape as the given array with the difference between each entry
+   * and the previous entry along the given axis. The first entries along the axis are kept.
    */
-  private static int[] prepend(int a, int[] list) {
-    int[] out = new int[list.length + 1];
-    out[0] = a;
-    System.arraycopy(list, 0, out, 1, list.length);
-    return out;
+  private static MultiDimensionalArray<DRes<SInt>> differences(
+      MultiDimensionalArray<DRes<SInt>> array, int axis, ProtocolBuilderNumeric builder) {
+    return MultiDimensionalArray.build(array.getShape(), i -> {
+      if (i.get(axis) == 0) {
+        return array.get(i);
+      }
+      List<Integer> previous = new ArrayList<>(i);
+      previous.set(axis, i.get(axis) - 1);
+      return builder.numeric().sub(array.get(i), array.get(previous));
+    });
   }
 
   @Override
@@ -85,29 +89,26 @@ public class MultiDimensionalHistogram
       // Perform all necessary comparisons (one per value per bucket) in parallel
       Matrix<DRes<List<DRes<SInt>>>> indicators = MatrixUtils.buildMatrix(data.getHeight(),
           data.getWidth(),
-          (i, j) -> new MultiLEQ(data.getRow(i).get(j), buckets.get(j)).buildComputation(par));
+          (i, j) -> compareToBounds(data.getRow(i).get(j), j).buildComputation(par));
       return DRes.of(indicators);
 
     }).par((par, indicators) -> {
 
       // Compute the histogram x the dataset -- a 1 indicates the data point is in the
-      // corresponding cumulative histogram.
+      // corresponding cumulative histogram. The products for each data point are computed as an
+      // outer product of the indicators for each dimension.
+      List<DRes<MultiDimensionalArray<DRes<SInt>>>> products = indicators.getRows().stream()
+          .map(row -> new ProductTree(row.stream().map(DRes::out).collect(Collectors.toList()))
+              .buildComputation(par)).collect(Collectors.toList());
+      return DRes.of(products);
+
+    }).par((par, products) -> {
+
       List<Integer> widths = Stream
-          .concat(buckets.stream().mapToInt(bucket -> bucket.size() + 1).boxed(),
+          .concat(IntStream.range(0, dimensions).map(d -> numberOfBounds(d) + 1).boxed(),
               Stream.of(data.getHeight())).collect(Collectors.toList());
-
-      Matrix<List<DRes<SInt>>> indicatorsOut = MatrixUtils.map(indicators, DRes::out);
       MultiDimensionalArray<DRes<SInt>> indicatorHistogram = MultiDimensionalArray
-          .build(widths, i -> {
-            int row = i.get(i.size() - 1);
-            List<DRes<SInt>> factors = IntStream.range(0, dimensions).mapToObj(d ->
-                indicatorsOut.getRow(row).get(d).get(i.get(d))).collect(
-                Collectors.toList());
-            return AdvancedNumeric.using(par).product(factors);
-          });
-      return DRes.of(indicatorHistogram);
-
-    }).par((par, indicatorHistogram) -> {
+          .build(widths, i -> products.get(i.get(dimensions)).out().get(i.subList(0, dimensions)));
 
       // Add all indicators per datapoint to compute the cumulative histogram.
       AdvancedNumeric advancedNumeric = AdvancedNumeric.using(par);
@@ -115,57 +116,16 @@ public class MultiDimensionalHistogram
           .project(advancedNumeric::sum);
       return DRes.of(cumulativeHistogram);
 
-    }).par((par, cumulativeHistogram) -> {
-
-      // Correct the cumulative histogram to the actual histogram
-      MultiDimensionalArray<DRes<SInt>> histogram = MultiDimensionalArray
-          .build(cumulativeHistogram.getShape(), i -> par.seq(seq -> {
-            AtomicReference<DRes<SInt>> value = new AtomicReference<>(cumulativeHistogram.get(i));
-
-            List<Integer> nonZeroIndices = IntStream.range(0, dimensions).filter(d -> i.get(d) > 0)
-                .boxed()
-                .collect(
-                    Collectors.toList());
-            if (!nonZeroIndices.isEmpty()) {
-              subsets(nonZeroIndices).filter(subset -> !subset.isEmpty()).forEach(subset -> {
-                List<Integer> x = IntStream.range(0, dimensions)
-                    .map(d -> subset.contains(d) ? i.get(d) - 1 : i.get(d))
-                    .boxed().collect(Collectors.toList());
-
-                if (Math.floorMod(subset.size(), 2) == 1) {
-                  value.set(seq.numeric().sub(value.get(), cumulativeHistogram.get(x)));
-                } else {
-                  value.set(seq.numeric().add(value.get(), cumulativeHistogram.get(x)));
-                }
-              });
-            }
-            return value.get();
-          }));
+    }).seq((seq, cumulativeHistogram) -> {
+
+      // Correct the cumulative histogram to the actual histogram by taking differences along one
+      // axis at a time
+      MultiDimensionalArray<DRes<SInt>> histogram = cumulativeHistogram;
+      for (int d = 0; d < dimensions; d++) {
+        histogram = differences(histogram, d, seq);
+      }
       return DRes.of(histogram);
     });
   }
 
-  private static class MultiLEQ implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
-
-    private final DRes<SInt> lhs;
-    private final List<DRes<SInt>> rhs;
-
-    private MultiLEQ(DRes<SInt> lhs, List<DRes<SInt>> rhs) {
-      this.lhs = lhs;
-      this.rhs = rhs;
-    }
-
-    @Override
-    public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
-      return builder.par(par -> {
-        Comparison comparison = Comparison.using(par);
-        List<DRes<SInt>> c = Stream.concat(rhs.stream()
-            .map(x -> comparison.compareLEQ(lhs, x)), Stream.of(par.numeric().known(1))).collect(
-            Collectors.toList());
-        return DRes.of(c);
-      });
-    }
-
-  }
-
 }
@@ -5,12 +5,13 @@ import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.sort.SortColumn;
+import dk.alexandra.fresco.stat.descriptive.sort.SortedColumn;
 import dk.alexandra.fresco.stat.utils.VectorUtils;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Output ranks with averaged ties and correction term for Kruskall-Wallis.
@@ -19,50 +20,36 @@ public class Ranks implements
     Computation<Pair<List<DRes<SFixed>>, Double>, ProtocolBuilderNumeric> {
 
   private final List<List<DRes<SInt>>> samples;
+  private final DRes<SortedColumn> sortedColumn;
 
   public Ranks(List<List<DRes<SInt>>> samples) {
     this.samples = samples;
+    this.sortedColumn = null;
+  }
+
+  /**
+   * Compute the ranks from samples which have already been sorted using {@link SortColumn}.
+   */
+  public Ranks(DRes<SortedColumn> sortedColumn) {
+    this.samples = null;
+    this.sortedColumn = sortedColumn;
   }
 
   @Override
   public DRes<Pair<List<DRes<SFixed>>, Double>> buildComputation(
       ProtocolBuilderNumeric builder) {
 
-    List<Pair<DRes<SInt>, List<DRes<SInt>>>> valuesWithClassIndicators = new ArrayList<>();
-
-    // For each data point we add a vector indicating what group it belongs to
-    int n = 0;
-    for (int i = 0; i < samples.size(); i++) {
-      List<DRes<SInt>> sample = samples.get(i);
-      List<DRes<SInt>> indicators = new ArrayList<>();
-      for (int j = 0; j < samples.size(); j++) {
-        indicators.add(builder.numeric().known(i == j ? 1 : 0));
+    return builder.seq(seq -> {
+      if (sortedColumn == null) {
+        return new SortColumn(samples).buildComputation(seq);
+      } else {
+        return sortedColumn;
       }
-      for (DRes<SInt> dataPoint : sample) {
-        valuesWithClassIndicators.add(new Pair<>(dataPoint, indicators));
-        n++;
-      }
-    }
-
-    int finalN = n;
-    return builder.seq(seq ->
-        // Sort data points
-        dk.alexandra.fresco.lib.common.collections.Collections.using(seq)
-            .sort(valuesWithClassIndicators)
-    ).seq((seq, sorted) -> {
+    }).par((par, sortedColumn) -> {
 
-      Collections.reverse(sorted);
-
-      Pair<List<Pair<DRes<SInt>, List<DRes<SInt>>>>, DRes<List<Double>>> out;
-
-      // Break ties by opening encrypted values. Note that this leaks the ranks of elements that are equal
-      DRes<List<Double>> r1 = new LeakyBreakTies(
-          sorted.stream().map(Pair::getFirst).collect(Collectors.toList())).buildComputation(seq);
-      out = new Pair<>(sorted, r1);
-      return DRes.of(out);
-    }).par((par, dataAndRanks) -> {
-
-      List<Double> ranks = dataAndRanks.getSecond().out();
+      int finalN = sortedColumn.size();
+      int groups = sortedColumn.getGroupSizes().size();
+      List<Double> ranks = sortedColumn.getRanks();
       double g = 0.0;
 
       // Compute correction factor. First find groups of equal elements and count the number of
@@ -92,12 +79,17 @@ public class Ranks implements
 
       // Sum of ranks for each group
       List<DRes<SFixed>> totals = new ArrayList<>();
-      for (int j = 0; j < samples.size(); j++) {
-        List<DRes<SInt>> column = new ArrayList<>();
-        for (Pair<DRes<SInt>, List<DRes<SInt>>> row : dataAndRanks.getFirst()) {
-          column.add(row.getSecond().get(j));
+      if (groups == 1) {
+        // All ranks are in the same group
+        totals.add(FixedNumeric.using(par).known(finalN * (finalN + 1) / 2.0));
+      } else {
+        for (int j = 0; j < groups; j++) {
+          List<DRes<SInt>> column = new ArrayList<>();
+          for (List<DRes<SInt>> indicators : sortedColumn.getGroupIndicators()) {
+            column.add(indicators.get(j));
+          }
+          totals.add(VectorUtils.innerProductWithBitvectorPublic(column, ranks, par));
         }
-        totals.add(VectorUtils.innerProductWithBitvectorPublic(column, ranks, par));
       }
       return Pair.lazy(totals, g);
     });
@@ -6,13 +6,15 @@ import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
 import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
-import dk.alexandra.fresco.stat.descriptive.helpers.SP;
+import dk.alexandra.fresco.stat.linearalgebra.GramMatrix;
 import dk.alexandra.fresco.stat.utils.MatrixUtils;
 import dk.alexandra.fresco.stat.utils.VectorUtils;
 import java.util.List;
 
 /**
- * Compute the unbiased covariance matrix for the given observations
+ * Compute the unbiased covariance matrix for the given observations. The sums of products of the
+ * centered observations are computed and divided by <i>n - 1</i> using {@link GramMatrix}, so
+ * each entry is truncated only once regardless of the number of observations.
  */
 public class SampleCovariance implements Computation<Matrix<DRes<SFixed>>, ProtocolBuilderNumeric> {
 
@@ -43,17 +45,9 @@ public class SampleCovariance implements Computation<Matrix<DRes<SFixed>>, Proto
           fixedNumeric.sub(observations.get(j).get(i), mean.get(j)));
       return DRes.of(corrected);
 
-    }).par((par, corrected) -> {
-
-      // The covariance matrix is symmetric, so we compute only the lower half
-      List<List<DRes<SFixed>>> upper = VectorUtils.listBuilder(k, i -> VectorUtils.listBuilder(i + 1,
-          j -> par.seq(seq -> FixedNumeric.using(seq).mult(1.0 / (n-1),
-              new SP(corrected.getColumn(i), corrected.getColumn(j)).buildComputation(seq)))));
-
-      // Construct entire matrix
-      return DRes.of(MatrixUtils.buildMatrix(k, k, (i,j) ->
-          i >= j ? upper.get(i).get(j) : upper.get(j).get(i)));
-    });
+    }).seq((seq, corrected) -> new GramMatrix(
+        VectorUtils.<List<DRes<SFixed>>>listBuilder(k, corrected::getColumn), null,
+        1.0 / (n - 1)).buildComputation(seq));
   }
 
 }
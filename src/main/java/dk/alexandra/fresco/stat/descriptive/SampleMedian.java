@@ -13,31 +13,58 @@ import dk.alexandra.fresco.lib.fixed.AdvancedFixedNumeric;
 import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
 import dk.alexandra.fresco.stat.AdvancedLinearAlgebra;
+import dk.alexandra.fresco.stat.descriptive.sort.ObliviousSelection;
+import dk.alexandra.fresco.stat.descriptive.sort.SortedColumn;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
-/** Compute the sample median of a sample */
+/**
+ * Compute the sample median of a sample. The middle elements are found using {@link
+ * ObliviousSelection}, so the sample is not sorted unless an already sorted sample is given.
+ */
 public class SampleMedian implements Computation<SFixed, ProtocolBuilderNumeric> {
 
   private final List<DRes<SFixed>> data;
+  private final DRes<SortedColumn> sortedColumn;
 
   public SampleMedian(List<DRes<SFixed>> data) {
     this.data = data;
+    this.sortedColumn = null;
+  }
+
+  /**
+   * Compute the median of a sample of fixed point numbers which has already been sorted using
+   * {@link dk.alexandra.fresco.stat.descriptive.sort.SortColumn}.
+   */
+  public SampleMedian(DRes<SortedColumn> sortedColumn) {
+    this.data = null;
+    this.sortedColumn = sortedColumn;
   }
 
   @Override
   public DRes<SFixed> buildComputation(ProtocolBuilderNumeric builder) {
     return builder.seq(seq -> {
-      List<DRes<SInt>> empty = List.of();
-      return Collections.using(seq).sort(data.stream().map(x -> new Pair<>(x.out().getSInt(), empty)).collect(Collectors.toList()));
-    }).seq((seq, sorted) -> {
-      if (Math.floorMod(sorted.size(), 2) == 1) {
-        return new SFixed(sorted.get(sorted.size() / 2).getFirst());
+      if (sortedColumn == null) {
+        return new ObliviousSelection(
+            data.stream().map(x -> x.out().getSInt()).collect(Collectors.toList()),
+            middleRanks(data.size())).buildComputation(seq);
+      } else {
+        List<DRes<SInt>> sorted = sortedColumn.out().getValues();
+        return DRes.of(Arrays.stream(middleRanks(sorted.size())).mapToObj(sorted::get)
+            .collect(Collectors.toList()));
+      }
+    }).seq((seq, middle) -> {
+      if (middle.size() == 1) {
+        return new SFixed(middle.get(0));
       } else {
-        DRes<SInt> sum = seq.numeric().add(sorted.get(sorted.size() / 2).getFirst(),
-            sorted.get(sorted.size() / 2 - 1).getFirst());
+        DRes<SInt> sum = seq.numeric().add(middle.get(0), middle.get(1));
         return new SFixed(AdvancedNumeric.using(seq).truncate(sum, 1));
       }
     });
   }
+
+  private static int[] middleRanks(int n) {
+    return Math.floorMod(n, 2) == 1 ? new int[]{n / 2} : new int[]{n / 2 - 1, n / 2};
+  }
 }
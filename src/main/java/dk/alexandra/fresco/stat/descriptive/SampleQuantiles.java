@@ -9,46 +9,131 @@ import dk.alexandra.fresco.lib.common.collections.Collections;
 import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
 import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.sort.ObliviousSelection;
+import dk.alexandra.fresco.stat.descriptive.sort.SortedColumn;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-/** Compute some quantiles for a sample */
+/**
+ * Compute some quantiles for a sample. If only a few quantiles are requested, the order statistics
+ * needed are found using {@link ObliviousSelection}. Otherwise, the sample is sorted, unless an
+ * already sorted sample is given.
+ */
 public class SampleQuantiles implements Computation<List<DRes<SFixed>>, ProtocolBuilderNumeric> {
 
+  /**
+   * The maximum number of order statistics to find using selection instead of sorting.
+   */
+  static final int MAX_RANKS_FOR_SELECTION = 8;
+
   private final List<DRes<SFixed>> data;
+  private final DRes<SortedColumn> sortedColumn;
   private final double[] quantiles;
 
   public SampleQuantiles(List<DRes<SFixed>> data, double[] quantiles) {
     this.data = data;
+    this.sortedColumn = null;
+    this.quantiles = quantiles;
+  }
+
+  /**
+   * Compute quantiles of a sample of fixed point numbers which has already been sorted using {@link
+   * dk.alexandra.fresco.stat.descriptive.sort.SortColumn}.
+   */
+  public SampleQuantiles(DRes<SortedColumn> sortedColumn, double[] quantiles) {
+    this.data = null;
+    this.sortedColumn = sortedColumn;
     this.quantiles = quantiles;
   }
 
   @Override
   public DRes<List<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    if (sortedColumn != null) {
+      return builder.seq(seq -> DRes.of(fromSorted(seq, sortedColumn.out().getValues().stream()
+          .map(SFixed::new).collect(Collectors.toList()), quantiles)));
+    }
+
+    int n = data.size();
+    int[] ranks = ranks(n, quantiles);
+    if (ranks.length <= MAX_RANKS_FOR_SELECTION) {
+      return builder.seq(seq -> new ObliviousSelection(
+          data.stream().map(x -> x.out().getSInt()).collect(Collectors.toList()), ranks)
+          .buildComputation(seq))
+          .seq((seq, selected) -> {
+            Map<Integer, DRes<SFixed>> orderStatistics = new HashMap<>();
+            for (int i = 0; i < ranks.length; i++) {
+              orderStatistics.put(ranks[i], new SFixed(selected.get(i)));
+            }
+            return DRes.of(fromOrderStatistics(seq, orderStatistics::get, n, quantiles));
+          });
+    }
+
     return builder.seq(seq -> {
       List<DRes<SInt>> empty = List.of();
       return Collections.using(seq).sort(data.stream().map(x -> new Pair<>(x.out().getSInt(), empty)).collect(Collectors.toList()));
     }).seq((seq, sorted) -> {
       java.util.Collections.reverse(sorted);
-      FixedNumeric fixedNumeric = FixedNumeric.using(seq);
-      List<DRes<SFixed>> percentiles = new ArrayList<>();
-      for (double quantile : quantiles) {
-        double pos = quantile * (sorted.size() + 1);
-        if (pos < 1) {
-          percentiles.add(new SFixed(sorted.get(0).getFirst()));
-        } else if (pos >= sorted.size()) {
-          percentiles.add(new SFixed(sorted.get(sorted.size() - 1).getFirst()));
-        } else {
-          double d = pos - Math.floor(pos);
-          int i = (int) Math.floor(pos);
-          DRes<SFixed> lower = new SFixed(sorted.get(i - 1).getFirst());
-          DRes<SFixed> upper = new SFixed(sorted.get(i).getFirst());
-          percentiles.add(fixedNumeric.add(lower, fixedNumeric.mult(d, fixedNumeric.sub(upper, lower))));
-        }
-      }
-      return DRes.of(percentiles);
+      return DRes.of(fromSorted(seq, sorted.stream().map(Pair::getFirst).map(SFixed::new)
+          .collect(Collectors.toList()), quantiles));
     });
   }
+
+  /**
+   * Compute the given quantiles from a sample which is already sorted in ascending order.
+   */
+  static List<DRes<SFixed>> fromSorted(ProtocolBuilderNumeric builder, List<DRes<SFixed>> sorted,
+      double[] quantiles) {
+    return fromOrderStatistics(builder, sorted::get, sorted.size(), quantiles);
+  }
+
+  /**
+   * Get the ranks of the order statistics, where rank 0 is the smallest element, needed to compute
+   * the given quantiles of a sample of size <i>n</i>.
+   */
+  static int[] ranks(int n, double[] quantiles) {
+    return Arrays.stream(quantiles).boxed().flatMapToInt(quantile -> {
+      double pos = quantile * (n + 1);
+      if (pos < 1) {
+        return IntStream.of(0);
+      } else if (pos >= n) {
+        return IntStream.of(n - 1);
+      } else {
+        int i = (int) Math.floor(pos);
+        return IntStream.of(i - 1, i);
+      }
+    }).distinct().sorted().toArray();
+  }
+
+  /**
+   * Compute the given quantiles of a sample of size <i>n</i> from the order statistics with the
+   * ranks given by {@link #ranks(int, double[])}.
+   */
+  private static List<DRes<SFixed>> fromOrderStatistics(ProtocolBuilderNumeric builder,
+      IntFunction<DRes<SFixed>> orderStatistic, int n, double[] quantiles) {
+    FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+    List<DRes<SFixed>> percentiles = new ArrayList<>();
+    for (double quantile : quantiles) {
+      double pos = quantile * (n + 1);
+      if (pos < 1) {
+        percentiles.add(orderStatistic.apply(0));
+      } else if (pos >= n) {
+        percentiles.add(orderStatistic.apply(n - 1));
+      } else {
+        double d = pos - Math.floor(pos);
+        int i = (int) Math.floor(pos);
+        DRes<SFixed> lower = orderStatistic.apply(i - 1);
+        DRes<SFixed> upper = orderStatistic.apply(i);
+        percentiles.add(
+            fixedNumeric.add(lower, fixedNumeric.mult(d, fixedNumeric.sub(upper, lower))));
+      }
+    }
+    return percentiles;
+  }
 }
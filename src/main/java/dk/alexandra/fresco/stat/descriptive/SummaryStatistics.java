@@ -0,0 +1,312 @@
+package dk.alexandra.fresco.stat.descriptive;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Collections;
+import dk.alexandra.fresco.lib.fixed.AdvancedFixedNumeric;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.SummaryStatistics.SummaryStatisticsResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compute the mean, variance, standard deviation, skewness, kurtosis, minimum, maximum and a number
+ * of quantiles of a sample in one computation.
+ *
+ * <p>The power sums of the deviations from the mean are shared by all moments: The squared
+ * deviations are computed once, and the third and fourth power sums are computed as inner products
+ * with the squared deviations, so each of them is only truncated once. The standard deviation and
+ * skewness share a single square root, and the skewness and kurtosis a single reciprocal. The order
+ * statistics are computed in parallel with the moments. If any quantiles are requested, the sample
+ * is sorted once and the extremes are read from the sorted sample. Otherwise, the minimum and
+ * maximum are found in a single tournament using <i>3n/2</i> comparisons.</p>
+ *
+ * <p>The skewness and kurtosis are defined as in {@link SampleSkewnessAndKurtosis} and the
+ * quantiles as in {@link SampleQuantiles}.</p>
+ */
+public class SummaryStatistics implements
+    Computation<SummaryStatisticsResult, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SFixed>> data;
+  private final double[] quantiles;
+
+  public SummaryStatistics(List<DRes<SFixed>> data, double[] quantiles) {
+    if (data.size() < 2) {
+      throw new IllegalArgumentException("At least two samples are needed");
+    }
+    this.data = data;
+    this.quantiles = quantiles;
+  }
+
+  public SummaryStatistics(List<DRes<SFixed>> data) {
+    this(data, new double[0]);
+  }
+
+  @Override
+  public DRes<SummaryStatisticsResult> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.par(par -> {
+      DRes<Moments> moments = par.seq(this::moments);
+      DRes<OrderStatistics> orderStatistics =
+          quantiles.length > 0 ? par.seq(this::sortedOrderStatistics) : par.seq(this::extremes);
+      return Pair.lazy(moments, orderStatistics);
+    }).seq((seq, momentsAndOrderStatistics) -> {
+      Moments moments = momentsAndOrderStatistics.getFirst().out();
+      OrderStatistics orderStatistics = momentsAndOrderStatistics.getSecond().out();
+      return DRes.of(new SummaryStatisticsResult(moments.mean, moments.variance,
+          moments.standardDeviation, moments.skewness, moments.kurtosis, orderStatistics.min,
+          orderStatistics.max, orderStatistics.quantiles));
+    });
+  }
+
+  private DRes<Moments> moments(ProtocolBuilderNumeric builder) {
+    int n = data.size();
+    return builder.seq(seq -> {
+      DRes<SFixed> sum = AdvancedFixedNumeric.using(seq).sum(data);
+      return FixedNumeric.using(seq).div(sum, n);
+    }).par((par, mean) -> {
+      FixedNumeric fixedNumeric = FixedNumeric.using(par);
+      List<DRes<SFixed>> deviations = data.stream().map(x -> fixedNumeric.sub(x, mean))
+          .collect(Collectors.toList());
+      return Pair.lazy(mean, deviations);
+    }).par((par, meanAndDeviations) -> {
+      FixedNumeric fixedNumeric = FixedNumeric.using(par);
+      List<DRes<SFixed>> deviations = meanAndDeviations.getSecond();
+      List<DRes<SFixed>> squares = deviations.stream().map(d -> fixedNumeric.mult(d, d))
+          .collect(Collectors.toList());
+      return Pair.lazy(meanAndDeviations, squares);
+    }).par((par, previous) -> {
+      AdvancedFixedNumeric advancedFixedNumeric = AdvancedFixedNumeric.using(par);
+      List<DRes<SFixed>> deviations = previous.getFirst().getSecond();
+      List<DRes<SFixed>> squares = previous.getSecond();
+
+      // The power sums can be computed in parallel
+      List<DRes<SFixed>> powerSums = List.of(advancedFixedNumeric.sum(squares),
+          advancedFixedNumeric.innerProduct(squares, deviations),
+          advancedFixedNumeric.innerProduct(squares, squares));
+      return Pair.lazy(previous.getFirst().getFirst(), powerSums);
+    }).seq((seq, meanAndPowerSums) -> {
+      FixedNumeric fixedNumeric = FixedNumeric.using(seq);
+      List<DRes<SFixed>> powerSums = meanAndPowerSums.getSecond();
+      DRes<SFixed> m2 = fixedNumeric.div(powerSums.get(0), n);
+      DRes<SFixed> m3 = fixedNumeric.div(powerSums.get(1), n);
+      DRes<SFixed> m4 = fixedNumeric.div(powerSums.get(2), n);
+      DRes<SFixed> variance = fixedNumeric.div(powerSums.get(0), n - 1);
+
+      // sd = sqrt(m2) * sqrt(n / (n - 1)), skewness = m3 / sqrt(m2)^3 and kurtosis = m4 / m2^2
+      DRes<SFixed> root = AdvancedFixedNumeric.using(seq).sqrt(m2);
+      DRes<SFixed> standardDeviation = fixedNumeric.mult(Math.sqrt(n / (n - 1.0)), root);
+      DRes<SFixed> inverseRoot = AdvancedFixedNumeric.using(seq).reciprocal(root);
+      DRes<SFixed> inverseM2 = fixedNumeric.mult(inverseRoot, inverseRoot);
+      DRes<SFixed> skewness = fixedNumeric.mult(m3, fixedNumeric.mult(inverseM2, inverseRoot));
+      DRes<SFixed> kurtosis = fixedNumeric.mult(m4, fixedNumeric.mult(inverseM2, inverseM2));
+      return DRes.of(new Moments(meanAndPowerSums.getFirst(), variance, standardDeviation,
+          skewness, kurtosis));
+    });
+  }
+
+  private DRes<OrderStatistics> sortedOrderStatistics(ProtocolBuilderNumeric builder) {
+    return builder.seq(seq -> {
+      List<DRes<SInt>> empty = List.of();
+      return Collections.using(seq).sort(data.stream()
+          .map(x -> new Pair<>(x.out().getSInt(), empty)).collect(Collectors.toList()));
+    }).seq((seq, sorted) -> {
+      java.util.Collections.reverse(sorted);
+      List<DRes<SFixed>> values = sorted.stream().map(Pair::getFirst).map(SFixed::new)
+          .collect(Collectors.toList());
+      return DRes.of(new OrderStatistics(values.get(0), values.get(values.size() - 1),
+          SampleQuantiles.fromSorted(seq, values, quantiles)));
+    });
+  }
+
+  private DRes<OrderStatistics> extremes(ProtocolBuilderNumeric builder) {
+    return builder.par(par -> {
+      // Split the sample into the smaller and larger element of each pair...
+      List<DRes<Pair<DRes<SFixed>, DRes<SFixed>>>> pairs = new ArrayList<>();
+      for (int i = 0; i + 1 < data.size(); i += 2) {
+        pairs.add(par.seq(compareAndSwap(data.get(i), data.get(i + 1))));
+      }
+      return DRes.of(pairs);
+    }).seq((seq, pairs) -> {
+      List<DRes<SFixed>> smaller = pairs.stream().map(pair -> pair.out().getFirst())
+          .collect(Collectors.toList());
+      List<DRes<SFixed>> larger = pairs.stream().map(pair -> pair.out().getSecond())
+          .collect(Collectors.toList());
+      if (data.size() % 2 == 1) {
+        smaller.add(data.get(data.size() - 1));
+        larger.add(data.get(data.size() - 1));
+      }
+      return Pair.lazy(smaller, larger);
+    }).whileLoop(pair -> pair.getFirst().size() > 1 || pair.getSecond().size() > 1,
+        (seq, pair) -> seq.par(par -> {
+          // ...and find the minimum of the smaller and the maximum of the larger elements
+          List<DRes<Pair<DRes<SFixed>, DRes<SFixed>>>> smaller = reduce(par, pair.getFirst());
+          List<DRes<Pair<DRes<SFixed>, DRes<SFixed>>>> larger = reduce(par, pair.getSecond());
+          return DRes.of(new Pair<>(smaller, larger));
+        }).seq((next, reduced) -> {
+          List<DRes<SFixed>> smaller = collect(reduced.getFirst(), pair.getFirst(), true);
+          List<DRes<SFixed>> larger = collect(reduced.getSecond(), pair.getSecond(), false);
+          return Pair.lazy(smaller, larger);
+        })).seq((seq, pair) -> DRes.of(new OrderStatistics(pair.getFirst().get(0),
+        pair.getSecond().get(0), List.of())));
+  }
+
+  /**
+   * Compare pairs of consecutive values in a list.
+   */
+  private static List<DRes<Pair<DRes<SFixed>, DRes<SFixed>>>> reduce(
+      ProtocolBuilderNumeric builder, List<DRes<SFixed>> values) {
+    List<DRes<Pair<DRes<SFixed>, DRes<SFixed>>>> pairs = new ArrayList<>();
+    for (int i = 0; i + 1 < values.size(); i += 2) {
+      pairs.add(builder.seq(compareAndSwap(values.get(i), values.get(i + 1))));
+    }
+    return pairs;
+  }
+
+  /**
+   * Keep the smaller or larger value of each of the compared pairs, and the last value if the
+   * number of values is odd.
+   */
+  private static List<DRes<SFixed>> collect(List<DRes<Pair<DRes<SFixed>, DRes<SFixed>>>> pairs,
+      List<DRes<SFixed>> values, boolean minimum) {
+    List<DRes<SFixed>> result = pairs.stream()
+        .map(pair -> minimum ? pair.out().getFirst() : pair.out().getSecond())
+        .collect(Collectors.toList());
+    if (values.size() % 2 == 1) {
+      result.add(values.get(values.size() - 1));
+    }
+    return result;
+  }
+
+  /**
+   * Sort two values using a single comparison and a single multiplication.
+   */
+  private static Computation<Pair<DRes<SFixed>, DRes<SFixed>>, ProtocolBuilderNumeric>
+      compareAndSwap(DRes<SFixed> a, DRes<SFixed> b) {
+    return builder -> builder.seq(seq -> FixedNumeric.using(seq).leq(a, b))
+        .seq((seq, aIsSmaller) -> {
+          FixedNumeric fixedNumeric = FixedNumeric.using(seq);
+          DRes<SFixed> min = fixedNumeric.add(b, new SFixed(seq.numeric().mult(aIsSmaller,
+              seq.numeric().sub(a.out().getSInt(), b.out().getSInt()))));
+          DRes<SFixed> max = fixedNumeric.sub(fixedNumeric.add(a, b), min);
+          return Pair.lazy(min, max);
+        });
+  }
+
+  private static class Moments {
+
+    private final DRes<SFixed> mean;
+    private final DRes<SFixed> variance;
+    private final DRes<SFixed> standardDeviation;
+    private final DRes<SFixed> skewness;
+    private final DRes<SFixed> kurtosis;
+
+    private Moments(DRes<SFixed> mean, DRes<SFixed> variance, DRes<SFixed> standardDeviation,
+        DRes<SFixed> skewness, DRes<SFixed> kurtosis) {
+      this.mean = mean;
+      this.variance = variance;
+      this.standardDeviation = standardDeviation;
+      this.skewness = skewness;
+      this.kurtosis = kurtosis;
+    }
+  }
+
+  private static class OrderStatistics {
+
+    private final DRes<SFixed> min;
+    private final DRes<SFixed> max;
+    private final List<DRes<SFixed>> quantiles;
+
+    private OrderStatistics(DRes<SFixed> min, DRes<SFixed> max, List<DRes<SFixed>> quantiles) {
+      this.min = min;
+      this.max = max;
+      this.quantiles = quantiles;
+    }
+  }
+
+  public static class SummaryStatisticsResult {
+
+    private final DRes<SFixed> mean;
+    private final DRes<SFixed> variance;
+    private final DRes<SFixed> standardDeviation;
+    private final DRes<SFixed> skewness;
+    private final DRes<SFixed> kurtosis;
+    private final DRes<SFixed> min;
+    private final DRes<SFixed> max;
+    private final List<DRes<SFixed>> quantiles;
+
+    private SummaryStatisticsResult(DRes<SFixed> mean, DRes<SFixed> variance,
+        DRes<SFixed> standardDeviation, DRes<SFixed> skewness, DRes<SFixed> kurtosis,
+        DRes<SFixed> min, DRes<SFixed> max, List<DRes<SFixed>> quantiles) {
+      this.mean = mean;
+      this.variance = variance;
+      this.standardDeviation = standardDeviation;
+      this.skewness = skewness;
+      this.kurtosis = kurtosis;
+      this.min = min;
+      this.max = max;
+      this.quantiles = quantiles;
+    }
+
+    /**
+     * The sample mean
+     */
+    public DRes<SFixed> getMean() {
+      return mean;
+    }
+
+    /**
+     * The sample variance
+     */
+    public DRes<SFixed> getVariance() {
+      return variance;
+    }
+
+    /**
+     * The sample standard deviation
+     */
+    public DRes<SFixed> getStandardDeviation() {
+      return standardDeviation;
+    }
+
+    /**
+     * The sample skewness
+     */
+    public DRes<SFixed> getSkewness() {
+      return skewness;
+    }
+
+    /**
+     * The sample kurtosis
+     */
+    public DRes<SFixed> getKurtosis() {
+      return kurtosis;
+    }
+
+    /**
+     * The smallest value in the sample
+     */
+    public DRes<SFixed> getMin() {
+      return min;
+    }
+
+    /**
+     * The largest value in the sample
+     */
+    public DRes<SFixed> getMax() {
+      return max;
+    }
+
+    /**
+     * The requested quantiles in the same order as they were given. This is empty if no quantiles
+     * were requested.
+     */
+    public List<DRes<SFixed>> getQuantiles() {
+      return quantiles;
+    }
+  }
+}
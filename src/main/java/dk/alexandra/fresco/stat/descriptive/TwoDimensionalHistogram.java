@@ -7,6 +7,7 @@ import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
 import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import java.math.BigInteger;
 import java.util.List;
 
 /**
@@ -16,11 +17,25 @@ public class TwoDimensionalHistogram
     implements Computation<Matrix<DRes<SInt>>, ProtocolBuilderNumeric> {
 
   private final Pair<List<DRes<SInt>>, List<DRes<SInt>>> buckets;
+  private final Pair<BigInteger[], BigInteger[]> publicBuckets;
   private final List<Pair<DRes<SInt>, DRes<SInt>>> data;
 
   public TwoDimensionalHistogram(Pair<List<DRes<SInt>>, List<DRes<SInt>>> buckets,
       List<Pair<DRes<SInt>, DRes<SInt>>> data) {
     this.buckets = buckets;
+    this.publicBuckets = null;
+    this.data = data;
+  }
+
+  /**
+   * @param bucketsX Public upper bounds for the buckets in the first dimension.
+   * @param bucketsY Public upper bounds for the buckets in the second dimension.
+   * @param data     The dataset.
+   */
+  public TwoDimensionalHistogram(BigInteger[] bucketsX, BigInteger[] bucketsY,
+      List<Pair<DRes<SInt>, DRes<SInt>>> data) {
+    this.buckets = null;
+    this.publicBuckets = new Pair<>(bucketsX, bucketsY);
     this.data = data;
   }
 
@@ -28,11 +43,21 @@ public class TwoDimensionalHistogram
   public DRes<Matrix<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
     Matrix<DRes<SInt>> dataMatrix = MatrixUtils.buildMatrix(data.size(), 2,
         (i, j) -> j == 0 ? data.get(i).getFirst() : data.get(i).getSecond());
-    List<List<DRes<SInt>>> bucketsList = List.of(buckets.getFirst(), buckets.getSecond());
-    return builder
-        .seq(seq -> new MultiDimensionalHistogram(bucketsList, dataMatrix).buildComputation(seq))
-        .seq((seq, histogram) -> DRes.of(MatrixUtils
-            .buildMatrix(buckets.getFirst().size() + 1, buckets.getSecond().size() + 1,
-                histogram::get)));
+    int height;
+    int width;
+    MultiDimensionalHistogram histogram;
+    if (publicBuckets != null) {
+      height = publicBuckets.getFirst().length + 1;
+      width = publicBuckets.getSecond().length + 1;
+      histogram = new MultiDimensionalHistogram(
+          new BigInteger[][]{publicBuckets.getFirst(), publicBuckets.getSecond()}, dataMatrix);
+    } else {
+      height = buckets.getFirst().size() + 1;
+      width = buckets.getSecond().size() + 1;
+      histogram = new MultiDimensionalHistogram(
+          List.of(buckets.getFirst(), buckets.getSecond()), dataMatrix);
+    }
+    return builder.seq(histogram)
+        .seq((seq, h) -> DRes.of(MatrixUtils.buildMatrix(height, width, h::get)));
   }
 }
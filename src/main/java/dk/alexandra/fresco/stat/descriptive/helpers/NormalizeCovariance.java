@@ -0,0 +1,49 @@
+package dk.alexandra.fresco.stat.descriptive.helpers;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.AdvancedFixedNumeric;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.List;
+
+/**
+ * Compute the matrix of Pearson's correlation coefficients from a covariance matrix, or any
+ * multiple of it, by scaling entry <i>(i,j)</i> by <i>1 / sqrt(c<sub>ii</sub> c<sub>jj</sub>)</i>.
+ * This requires a square root and a reciprocal per variable.
+ */
+public class NormalizeCovariance implements
+    Computation<Matrix<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final Matrix<DRes<SFixed>> covariance;
+
+  public NormalizeCovariance(Matrix<DRes<SFixed>> covariance) {
+    this.covariance = covariance;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    int k = covariance.getHeight();
+    return builder.par(par -> {
+      List<DRes<SFixed>> scales = VectorUtils.listBuilder(k, i -> par.seq(seq -> {
+        AdvancedFixedNumeric advancedFixedNumeric = AdvancedFixedNumeric.using(seq);
+        return advancedFixedNumeric.reciprocal(
+            advancedFixedNumeric.sqrt(covariance.getRow(i).get(i)));
+      }));
+      return DRes.of(scales);
+    }).par((par, scales) -> {
+      FixedNumeric fixedNumeric = FixedNumeric.using(par);
+      List<List<DRes<SFixed>>> lower = VectorUtils.listBuilder(k, i -> VectorUtils.listBuilder(
+          i + 1, j -> i == j ? fixedNumeric.known(1) : par.seq(seq -> {
+            FixedNumeric sub = FixedNumeric.using(seq);
+            return sub.mult(covariance.getRow(i).get(j), sub.mult(scales.get(i), scales.get(j)));
+          })));
+      return DRes.of(MatrixUtils.buildMatrix(k, k,
+          (i, j) -> i >= j ? lower.get(i).get(j) : lower.get(j).get(i)));
+    });
+  }
+}
@@ -0,0 +1,207 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Permute a list of rows using a Beneš network of conditional swaps controlled by secret bits. The
+ * network is defined for any number of rows <i>n</i>: The rows are paired by an input layer of
+ * <i>&lfloor;n/2&rfloor;</i> switches, the first row of each pair is permuted by a network of size
+ * <i>&lfloor;n/2&rfloor;</i> and the second row, along with the last row if <i>n</i> is odd, by a
+ * network of size <i>&lceil;n/2&rceil;</i>, and the outputs of the two networks are combined by
+ * an output layer of <i>&lfloor;n/2&rfloor;</i> switches. This can realize any permutation of the
+ * rows, and {@link #route(int[])} computes the control bits for a given permutation.
+ *
+ * <p>Each switch uses one multiplication per column and the depth of the network is
+ * <i>2 &lceil;log<sub>2</sub> n&rceil; - 1</i>.</p>
+ */
+class BenesNetwork implements Computation<List<List<DRes<SInt>>>, ProtocolBuilderNumeric> {
+
+  private final List<List<DRes<SInt>>> rows;
+  private final List<DRes<SInt>> controlBits;
+
+  /**
+   * @param rows        The rows to permute.
+   * @param controlBits Secret bits controlling the switches, ordered as the output of {@link
+   *                    #route(int[])}.
+   */
+  BenesNetwork(List<List<DRes<SInt>>> rows, List<DRes<SInt>> controlBits) {
+    if (controlBits.size() != switches(rows.size())) {
+      throw new IllegalArgumentException(
+          "A network for " + rows.size() + " rows has " + switches(rows.size()) + " switches");
+    }
+    this.rows = rows;
+    this.controlBits = controlBits;
+  }
+
+  /**
+   * Compute the number of switches in a network for <i>n</i> rows.
+   */
+  static int switches(int n) {
+    if (n <= 1) {
+      return 0;
+    } else if (n == 2) {
+      return 1;
+    }
+    int h = n / 2;
+    return 2 * h + switches(h) + switches(n - h);
+  }
+
+  /**
+   * Compute the control bits for a network which moves the row at position <i>i</i> to position
+   * <i>permutation[i]</i>. The bits are ordered as the input layer followed by the bits for the
+   * upper and lower networks and the output layer.
+   */
+  static int[] route(int[] permutation) {
+    int[] bits = new int[switches(permutation.length)];
+    route(permutation, bits, 0);
+    return bits;
+  }
+
+  private static void route(int[] permutation, int[] bits, int offset) {
+    int n = permutation.length;
+    if (n <= 1) {
+      return;
+    } else if (n == 2) {
+      bits[offset] = permutation[0];
+      return;
+    }
+
+    int h = n / 2;
+    int[] inverse = new int[n];
+    for (int i = 0; i < n; i++) {
+      inverse[permutation[i]] = i;
+    }
+
+    // Rows sharing an input switch or an output switch must go through different subnetworks, so
+    // we two-color the graph with these constraints as edges. Each row has at most two neighbours,
+    // so the components are paths and cycles of even length. If n is odd, the last row and the row
+    // going to the last output must use the lower subnetwork, but these are the two ends of the
+    // same path and the path has even length, so they get the same color.
+    int[] color = new int[n];
+    Arrays.fill(color, -1);
+    if (n % 2 == 1) {
+      colorComponent(n - 1, 1, permutation, inverse, color);
+    }
+    for (int i = 0; i < n; i++) {
+      if (color[i] < 0) {
+        colorComponent(i, 0, permutation, inverse, color);
+      }
+    }
+
+    int[] upper = new int[h];
+    int[] lower = new int[n - h];
+    for (int k = 0; k < h; k++) {
+      bits[offset + k] = color[2 * k];
+      upper[k] = permutation[2 * k + color[2 * k]] / 2;
+      lower[k] = permutation[2 * k + 1 - color[2 * k]] / 2;
+    }
+    if (n % 2 == 1) {
+      lower[h] = permutation[n - 1] / 2;
+    }
+
+    int upperOffset = offset + h;
+    int lowerOffset = upperOffset + switches(h);
+    int outputOffset = lowerOffset + switches(n - h);
+    route(upper, bits, upperOffset);
+    route(lower, bits, lowerOffset);
+    for (int k = 0; k < h; k++) {
+      bits[outputOffset + k] = color[inverse[2 * k]];
+    }
+  }
+
+  private static void colorComponent(int start, int startColor, int[] permutation, int[] inverse,
+      int[] color) {
+    int n = permutation.length;
+    Deque<Integer> stack = new ArrayDeque<>();
+    color[start] = startColor;
+    stack.push(start);
+    while (!stack.isEmpty()) {
+      int row = stack.pop();
+      int inputNeighbour = row ^ 1;
+      int outputNeighbour = (permutation[row] ^ 1) < n ? inverse[permutation[row] ^ 1] : n;
+      for (int neighbour : new int[]{inputNeighbour, outputNeighbour}) {
+        if (neighbour < n && color[neighbour] < 0) {
+          color[neighbour] = 1 - color[row];
+          stack.push(neighbour);
+        }
+      }
+    }
+  }
+
+  @Override
+  public DRes<List<List<DRes<SInt>>>> buildComputation(ProtocolBuilderNumeric builder) {
+    int n = rows.size();
+    if (n <= 1) {
+      return DRes.of(rows);
+    } else if (n == 2) {
+      return swapPairs(rows, controlBits, builder);
+    }
+
+    int h = n / 2;
+    int upperOffset = h;
+    int lowerOffset = upperOffset + switches(h);
+    int outputOffset = lowerOffset + switches(n - h);
+
+    return builder.seq(seq -> swapPairs(rows, controlBits.subList(0, h), seq))
+        .par((par, permuted) -> {
+          List<List<DRes<SInt>>> upper = VectorUtils.listBuilder(h, k -> permuted.get(2 * k));
+          List<List<DRes<SInt>>> lower = VectorUtils.listBuilder(n - h,
+              k -> permuted.get(Math.min(2 * k + 1, n - 1)));
+          return Pair.lazy(
+              par.seq(new BenesNetwork(upper, controlBits.subList(upperOffset, lowerOffset))),
+              par.seq(new BenesNetwork(lower, controlBits.subList(lowerOffset, outputOffset))));
+        }).seq((seq, subnetworks) -> {
+          List<List<DRes<SInt>>> upper = subnetworks.getFirst().out();
+          List<List<DRes<SInt>>> lower = subnetworks.getSecond().out();
+          List<List<DRes<SInt>>> merged = VectorUtils.listBuilder(n,
+              i -> i % 2 == 0 && i / 2 < h ? upper.get(i / 2) : lower.get(i / 2));
+          return swapPairs(merged, controlBits.subList(outputOffset, controlBits.size()), seq);
+        });
+  }
+
+  /**
+   * Swap the rows at positions <i>2k</i> and <i>2k + 1</i> if the <i>k</i>'th bit is one. Rows
+   * after the pairs covered by the bits are not changed.
+   */
+  private static DRes<List<List<DRes<SInt>>>> swapPairs(List<List<DRes<SInt>>> rows,
+      List<DRes<SInt>> bits, ProtocolBuilderNumeric builder) {
+    int width = rows.get(0).size();
+    return builder.par(par -> {
+      Numeric numeric = par.numeric();
+      List<List<DRes<SInt>>> differences = VectorUtils.listBuilder(bits.size(),
+          k -> VectorUtils.listBuilder(width,
+              j -> numeric.sub(rows.get(2 * k + 1).get(j), rows.get(2 * k).get(j))));
+      return DRes.of(differences);
+    }).par((par, differences) -> {
+      Numeric numeric = par.numeric();
+      List<List<DRes<SInt>>> deltas = VectorUtils.listBuilder(bits.size(),
+          k -> VectorUtils.listBuilder(width,
+              j -> numeric.mult(bits.get(k), differences.get(k).get(j))));
+      return DRes.of(deltas);
+    }).par((par, deltas) -> {
+      Numeric numeric = par.numeric();
+      List<List<DRes<SInt>>> result = new ArrayList<>(rows);
+      for (int k = 0; k < bits.size(); k++) {
+        List<DRes<SInt>> delta = deltas.get(k);
+        List<DRes<SInt>> first = rows.get(2 * k);
+        List<DRes<SInt>> second = rows.get(2 * k + 1);
+        result.set(2 * k, VectorUtils.listBuilder(width,
+            j -> numeric.add(first.get(j), delta.get(j))));
+        result.set(2 * k + 1, VectorUtils.listBuilder(width,
+            j -> numeric.sub(second.get(j), delta.get(j))));
+      }
+      return DRes.of(result);
+    });
+  }
+}
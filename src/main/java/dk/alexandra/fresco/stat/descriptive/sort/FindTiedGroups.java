@@ -4,11 +4,10 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
-import dk.alexandra.fresco.lib.mimc.MiMCEncryption;
+import dk.alexandra.fresco.stat.utils.KeyedPRF;
+import dk.alexandra.fresco.stat.utils.LegendrePRF;
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Find sets of mutually equal in a list of secret shared integers: If the <i>i</i>'th and <i>j</i>'th
@@ -18,27 +17,23 @@ import java.util.stream.Collectors;
 public class FindTiedGroups implements Computation<List<BigInteger>, ProtocolBuilderNumeric> {
 
   private final List<DRes<SInt>> data;
+  private final KeyedPRF prf;
 
   public FindTiedGroups(List<DRes<SInt>> data) {
+    this(data, new LegendrePRF());
+  }
+
+  /**
+   * @param data The data to find ties in.
+   * @param prf  The PRF used to compare the elements.
+   */
+  public FindTiedGroups(List<DRes<SInt>> data, KeyedPRF prf) {
     this.data = data;
+    this.prf = prf;
   }
 
   @Override
   public DRes<List<BigInteger>> buildComputation(ProtocolBuilderNumeric builder) {
-    DRes<SInt> mimcKey = builder.numeric().randomElement();
-
-    return builder.par(par -> {
-      List<DRes<BigInteger>> ciphers = new ArrayList<>(data.size());
-      for (final DRes<SInt> entry : data) {
-        DRes<BigInteger> openedCipher =
-            par.seq(
-                (seq -> {
-                  DRes<SInt> cipherText = seq.seq(new MiMCEncryption(entry, mimcKey));
-                  return seq.numeric().open(cipherText);
-                }));
-        ciphers.add(openedCipher);
-      }
-      return DRes.of(ciphers);
-    }).seq((seq, ciphers) -> () -> ciphers.stream().map(DRes::out).collect(Collectors.toList()));
+    return prf.evaluateAndOpen(data, builder);
   }
 }
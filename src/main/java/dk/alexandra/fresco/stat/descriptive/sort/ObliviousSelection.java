@@ -0,0 +1,56 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Find the elements with the given ranks in a list of secret integers, eg. the <i>k</i>'th smallest
+ * element, without sorting the list.
+ *
+ * <p>The list is first shuffled obliviously. To break ties, each element is then extended with its
+ * public position in the shuffled list as the least significant bits, so all elements are distinct.
+ * Since the order of distinct elements in a uniformly shuffled list is a uniformly random
+ * permutation, the results of comparisons between the shuffled elements may be opened without
+ * leaking anything about the data. This allows us to run quickselect on the shuffled elements
+ * using a public pivot and public partitions, which uses <i>O(n)</i> comparisons in expectation
+ * to find a single rank and <i>O(n log m)</i> comparisons to find <i>m</i> ranks, as opposed to
+ * the <i>O(n log<sup>2</sup> n)</i> comparisons used by a sorting network. The comparisons in
+ * each partitioning step are done in parallel, and the expected number of steps is
+ * <i>O(log n)</i>.</p>
+ *
+ * <p>Note that the extended elements use <i>log<sub>2</sub> n</i> more bits than the original
+ * elements.</p>
+ */
+public class ObliviousSelection implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SInt>> data;
+  private final int[] ranks;
+
+  /**
+   * @param data  The data to select from.
+   * @param ranks The ranks of the elements to select, where rank 0 is the smallest element.
+   */
+  public ObliviousSelection(List<DRes<SInt>> data, int[] ranks) {
+    if (Arrays.stream(ranks).anyMatch(rank -> rank < 0 || rank >= data.size())) {
+      throw new IllegalArgumentException("Ranks must be between 0 and " + (data.size() - 1));
+    }
+    this.data = data;
+    this.ranks = ranks;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.seq(new ShuffleWithTieBreaking(data)).seq((seq, shuffled) -> {
+      List<Integer> distinctRanks = Arrays.stream(ranks).distinct().sorted().boxed()
+          .collect(Collectors.toList());
+      return new QuickSelect<>(shuffled, 0, distinctRanks).buildComputation(seq);
+    }).seq((seq, selected) -> DRes.of(
+        Arrays.stream(ranks).mapToObj(rank -> selected.get(rank).get(0))
+            .collect(Collectors.toList())));
+  }
+}
@@ -0,0 +1,76 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Shuffle the rows of a matrix obliviously. Each party in turn samples a uniformly random
+ * permutation, inputs the control bits of a {@link BenesNetwork} realizing it, and the rows are
+ * permuted by the network. The result is uniformly shuffled unless all parties collude.
+ *
+ * <p>As opposed to the shuffle in FRESCO's <code>Collections</code>, the height of the matrix does
+ * not have to be a power of two, so the matrix does not have to be padded.</p>
+ */
+public class ObliviousShuffle implements Computation<Matrix<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final Matrix<DRes<SInt>> matrix;
+  private final Random random;
+
+  public ObliviousShuffle(Matrix<DRes<SInt>> matrix) {
+    this(matrix, new SecureRandom());
+  }
+
+  /**
+   * @param matrix The matrix whose rows should be shuffled.
+   * @param random The source of randomness used to sample this party's permutation.
+   */
+  public ObliviousShuffle(Matrix<DRes<SInt>> matrix, Random random) {
+    this.matrix = matrix;
+    this.random = random;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    List<List<DRes<SInt>>> rows = VectorUtils.listBuilder(matrix.getHeight(),
+        i -> matrix.getRow(i));
+    return builder.seq(seq -> permute(rows, 1, seq)).seq((seq, shuffled) -> {
+      ArrayList<ArrayList<DRes<SInt>>> shuffledRows = shuffled.stream().map(ArrayList::new)
+          .collect(Collectors.toCollection(ArrayList::new));
+      return DRes.of(new Matrix<>(matrix.getHeight(), matrix.getWidth(), shuffledRows));
+    });
+  }
+
+  private DRes<List<List<DRes<SInt>>>> permute(List<List<DRes<SInt>>> rows, int party,
+      ProtocolBuilderNumeric builder) {
+    if (party > builder.getBasicNumericContext().getNoOfParties()) {
+      return DRes.of(rows);
+    }
+    return builder.par(par -> {
+      int switches = BenesNetwork.switches(rows.size());
+      int[] bits = party == par.getBasicNumericContext().getMyId()
+          ? BenesNetwork.route(randomPermutation(rows.size())) : null;
+      List<DRes<SInt>> controlBits = VectorUtils.listBuilder(switches, i -> par.numeric()
+          .input(bits != null ? BigInteger.valueOf(bits[i]) : null, party));
+      return DRes.of(controlBits);
+    }).seq((seq, controlBits) -> new BenesNetwork(rows, controlBits).buildComputation(seq))
+        .seq((seq, permuted) -> permute(permuted, party + 1, seq));
+  }
+
+  private int[] randomPermutation(int n) {
+    List<Integer> permutation = IntStream.range(0, n).boxed().collect(Collectors.toList());
+    Collections.shuffle(permutation, random);
+    return permutation.stream().mapToInt(Integer::intValue).toArray();
+  }
+}
@@ -0,0 +1,83 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Recursively partition a list of distinct keys with values around a public pivot and select the
+ * values with the given ranks. The ranks are offset by the number of smaller elements not in the
+ * list. The list must be shuffled, eg. using {@link ShuffleWithTieBreaking}, since the first
+ * element is used as pivot and the results of the comparisons are opened.
+ */
+class QuickSelect<V> implements
+    Computation<Map<Integer, V>, ProtocolBuilderNumeric> {
+
+  private final List<Pair<DRes<SInt>, V>> keysAndValues;
+  private final int offset;
+  private final List<Integer> ranks;
+
+  QuickSelect(List<Pair<DRes<SInt>, V>> keysAndValues, int offset,
+      List<Integer> ranks) {
+    this.keysAndValues = keysAndValues;
+    this.offset = offset;
+    this.ranks = ranks;
+  }
+
+  @Override
+  public DRes<Map<Integer, V>> buildComputation(ProtocolBuilderNumeric builder) {
+    if (ranks.isEmpty()) {
+      return DRes.of(new HashMap<>());
+    } else if (keysAndValues.size() == 1) {
+      Map<Integer, V> result = new HashMap<>();
+      result.put(offset, keysAndValues.get(0).getSecond());
+      return DRes.of(result);
+    }
+
+    // The list is shuffled, so the first element is a uniformly random pivot
+    Pair<DRes<SInt>, V> pivot = keysAndValues.get(0);
+    List<Pair<DRes<SInt>, V>> others = keysAndValues.subList(1, keysAndValues.size());
+
+    return builder.par(par -> {
+      List<DRes<BigInteger>> smaller = others.stream()
+          .map(other -> par.seq(seq -> seq.numeric().open(
+              Comparison.using(seq).compareLT(other.getFirst(), pivot.getFirst()))))
+          .collect(Collectors.toList());
+      return DRes.of(smaller);
+    }).par((par, smaller) -> {
+      List<Pair<DRes<SInt>, V>> below = new ArrayList<>();
+      List<Pair<DRes<SInt>, V>> above = new ArrayList<>();
+      for (int i = 0; i < others.size(); i++) {
+        if (smaller.get(i).out().equals(BigInteger.ONE)) {
+          below.add(others.get(i));
+        } else {
+          above.add(others.get(i));
+        }
+      }
+      int pivotRank = offset + below.size();
+
+      Map<Integer, V> result = new HashMap<>();
+      if (ranks.contains(pivotRank)) {
+        result.put(pivotRank, pivot.getSecond());
+      }
+      DRes<Map<Integer, V>> selectedBelow = par.seq(new QuickSelect<>(below, offset,
+          ranks.stream().filter(rank -> rank < pivotRank).collect(Collectors.toList())));
+      DRes<Map<Integer, V>> selectedAbove = par.seq(new QuickSelect<>(above, pivotRank + 1,
+          ranks.stream().filter(rank -> rank > pivotRank).collect(Collectors.toList())));
+      return () -> {
+        result.putAll(selectedBelow.out());
+        result.putAll(selectedAbove.out());
+        return result;
+      };
+    });
+  }
+}
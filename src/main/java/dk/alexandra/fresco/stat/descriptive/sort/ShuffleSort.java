@@ -0,0 +1,42 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sort a list of values by a list of secret integer keys.
+ *
+ * <p>As in {@link ObliviousSelection}, the keys and values are shuffled obliviously and the keys
+ * are made distinct, so the list may be sorted using quicksort with opened comparisons without
+ * leaking anything about the keys. This uses <i>O(n log n)</i> comparisons in expectation in
+ * <i>O(log n)</i> rounds of comparisons, as opposed to the <i>O(n log<sup>2</sup> n)</i>
+ * comparisons used by a sorting network, but the order of tied keys is random.</p>
+ */
+public class ShuffleSort implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SInt>> keys;
+  private final List<DRes<SInt>> values;
+
+  /**
+   * @param keys   The keys to sort by.
+   * @param values The values to sort.
+   */
+  public ShuffleSort(List<DRes<SInt>> keys, List<DRes<SInt>> values) {
+    if (keys.size() != values.size()) {
+      throw new IllegalArgumentException("There must be a value for each key");
+    }
+    this.keys = keys;
+    this.values = values;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    List<List<DRes<SInt>>> rows = values.stream().map(List::of).collect(Collectors.toList());
+    return builder.seq(new ShuffleSortRows(keys, rows)).seq((seq, sorted) -> DRes.of(
+        sorted.stream().map(row -> row.get(0)).collect(Collectors.toList())));
+  }
+}
@@ -0,0 +1,42 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Sort rows of values by a list of secret integer keys. This works as {@link ShuffleSort} but
+ * moves an entire row of values with each key.
+ */
+public class ShuffleSortRows implements
+    Computation<List<List<DRes<SInt>>>, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SInt>> keys;
+  private final List<List<DRes<SInt>>> rows;
+
+  /**
+   * @param keys The keys to sort by.
+   * @param rows The rows to sort. All rows must have the same length.
+   */
+  public ShuffleSortRows(List<DRes<SInt>> keys, List<List<DRes<SInt>>> rows) {
+    if (keys.size() != rows.size()) {
+      throw new IllegalArgumentException("There must be a row for each key");
+    }
+    this.keys = keys;
+    this.rows = rows;
+  }
+
+  @Override
+  public DRes<List<List<DRes<SInt>>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.seq(new ShuffleWithTieBreaking(keys, rows)).seq(
+        (seq, shuffled) -> new QuickSelect<>(shuffled, 0,
+            IntStream.range(0, shuffled.size()).boxed().collect(Collectors.toList()))
+            .buildComputation(seq)
+    ).seq((seq, sorted) -> DRes.of(VectorUtils.listBuilder(sorted.size(), sorted::get)));
+  }
+}
@@ -0,0 +1,73 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shuffle a list of keys with rows of values obliviously and make the keys distinct by extending
+ * each key with its public position in the shuffled list as the least significant bits. If no
+ * values are given, the value of each key is a row containing only the key. The order of
+ * distinct keys in a uniformly shuffled list is a uniformly random permutation, so the results of
+ * comparisons between the extended keys may be opened without leaking anything about the keys.
+ *
+ * <p>Note that the extended keys use <i>log<sub>2</sub> n</i> more bits than the original
+ * keys.</p>
+ */
+class ShuffleWithTieBreaking implements
+    Computation<List<Pair<DRes<SInt>, List<DRes<SInt>>>>, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SInt>> keys;
+  private final List<List<DRes<SInt>>> values;
+
+  ShuffleWithTieBreaking(List<DRes<SInt>> keys, List<List<DRes<SInt>>> values) {
+    if (values != null && values.size() != keys.size()) {
+      throw new IllegalArgumentException("There must be a value for each key");
+    }
+    this.keys = keys;
+    this.values = values;
+  }
+
+  ShuffleWithTieBreaking(List<DRes<SInt>> keys) {
+    this(keys, null);
+  }
+
+  @Override
+  public DRes<List<Pair<DRes<SInt>, List<DRes<SInt>>>>> buildComputation(
+      ProtocolBuilderNumeric builder) {
+
+    int size = keys.size();
+    int width = values == null ? 1 : 1 + values.get(0).size();
+
+    return builder.seq(seq -> {
+      ArrayList<ArrayList<DRes<SInt>>> rows = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        ArrayList<DRes<SInt>> row = new ArrayList<>();
+        row.add(keys.get(i));
+        if (values != null) {
+          row.addAll(values.get(i));
+        }
+        rows.add(row);
+      }
+      return new ObliviousShuffle(new Matrix<>(size, width, rows)).buildComputation(seq);
+    }).par((par, shuffled) -> {
+
+      // Break ties by using the position in the shuffled list as least significant bits
+      BigInteger shift = BigInteger.ONE.shiftLeft(32 - Integer.numberOfLeadingZeros(size));
+      List<Pair<DRes<SInt>, List<DRes<SInt>>>> result = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        List<DRes<SInt>> row = shuffled.getRow(i);
+        DRes<SInt> key = par.numeric().add(BigInteger.valueOf(i),
+            par.numeric().mult(shift, row.get(0)));
+        result.add(new Pair<>(key, values == null ? row : row.subList(1, width)));
+      }
+      return DRes.of(result);
+    });
+  }
+}
@@ -0,0 +1,61 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Collections;
+import dk.alexandra.fresco.stat.descriptive.LeakyBreakTies;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sort the pooled observations of a number of groups and compute the ranks of the sorted elements.
+ * See {@link SortedColumn}.
+ */
+public class SortColumn implements Computation<SortedColumn, ProtocolBuilderNumeric> {
+
+  private final List<List<DRes<SInt>>> samples;
+
+  /**
+   * @param samples The observations of each group. If there is only one group, the group
+   *                memberships are trivial and are not computed.
+   */
+  public SortColumn(List<List<DRes<SInt>>> samples) {
+    this.samples = samples;
+  }
+
+  @Override
+  public DRes<SortedColumn> buildComputation(ProtocolBuilderNumeric builder) {
+    List<Integer> groupSizes = samples.stream().map(List::size).collect(Collectors.toList());
+
+    return builder.seq(seq -> {
+      List<Pair<DRes<SInt>, List<DRes<SInt>>>> valuesWithClassIndicators = new ArrayList<>();
+
+      // For each data point we add a vector indicating what group it belongs to
+      for (int i = 0; i < samples.size(); i++) {
+        List<DRes<SInt>> indicators = new ArrayList<>();
+        if (samples.size() > 1) {
+          for (int j = 0; j < samples.size(); j++) {
+            indicators.add(seq.numeric().known(i == j ? 1 : 0));
+          }
+        }
+        for (DRes<SInt> dataPoint : samples.get(i)) {
+          valuesWithClassIndicators.add(new Pair<>(dataPoint, indicators));
+        }
+      }
+      return Collections.using(seq).sort(valuesWithClassIndicators);
+    }).seq((seq, sorted) -> {
+
+      // Sorting in fresco returns the values in descending order, so we reverse
+      java.util.Collections.reverse(sorted);
+      List<DRes<SInt>> values = sorted.stream().map(Pair::getFirst).collect(Collectors.toList());
+      DRes<List<Double>> ranks = new LeakyBreakTies(values).buildComputation(seq);
+      return () -> new SortedColumn(values,
+          sorted.stream().map(Pair::getSecond).collect(Collectors.toList()), groupSizes,
+          ranks.out());
+    });
+  }
+}
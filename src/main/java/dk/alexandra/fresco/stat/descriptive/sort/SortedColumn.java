@@ -0,0 +1,72 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.util.List;
+
+/**
+ * A sorted sample, which may be the pooled observations of a number of groups, along with the
+ * group memberships of each sorted element and the ranks of the elements with ties averaged. This
+ * is computed once using {@link SortColumn} and may then be used for several rank-based statistics
+ * on the same sample without sorting it again.
+ *
+ * <p>The ranks are found using {@link dk.alexandra.fresco.stat.descriptive.LeakyBreakTies}, so the
+ * positions of tied elements in the sorted sample are public.</p>
+ */
+public class SortedColumn implements DRes<SortedColumn> {
+
+  private final List<DRes<SInt>> values;
+  private final List<List<DRes<SInt>>> groupIndicators;
+  private final List<Integer> groupSizes;
+  private final List<Double> ranks;
+
+  SortedColumn(List<DRes<SInt>> values, List<List<DRes<SInt>>> groupIndicators,
+      List<Integer> groupSizes, List<Double> ranks) {
+    this.values = values;
+    this.groupIndicators = groupIndicators;
+    this.groupSizes = groupSizes;
+    this.ranks = ranks;
+  }
+
+  /**
+   * The number of elements in the sample.
+   */
+  public int size() {
+    return values.size();
+  }
+
+  /**
+   * The elements of the sample in ascending order.
+   */
+  public List<DRes<SInt>> getValues() {
+    return values;
+  }
+
+  /**
+   * For each element in sorted order, a list of secret bits indicating what group the element
+   * belongs to. If there is only one group, the lists are empty.
+   */
+  public List<List<DRes<SInt>>> getGroupIndicators() {
+    return groupIndicators;
+  }
+
+  /**
+   * The number of elements in each group.
+   */
+  public List<Integer> getGroupSizes() {
+    return groupSizes;
+  }
+
+  /**
+   * The ranks of the elements in sorted order, starting from 1. Tied elements are all given the
+   * average of their ranks.
+   */
+  public List<Double> getRanks() {
+    return ranks;
+  }
+
+  @Override
+  public SortedColumn out() {
+    return this;
+  }
+}
@@ -0,0 +1,106 @@
+package dk.alexandra.fresco.stat.descriptive.sufficient;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.lib.fixed.AdvancedFixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.lib.fixed.utils.MultiplyWithSInt;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compute the {@link SufficientStatistics} for a sample. Each entry in the sample is an observation
+ * of the same number of variables.
+ *
+ * <p>If a filter is given, the statistics are computed for the selected observations only, and the
+ * number of observations is secret. The filter is folded into the sums of products by multiplying
+ * the observations of one side by the filter: Since the filter entries are either zero or one,
+ * <i>&sum; f<sub>i</sub> x<sub>i</sub> y<sub>i</sub> = &sum; (f<sub>i</sub> x<sub>i</sub>)
+ * y<sub>i</sub></i>, so the filter only adds one multiplication per entry of the sample.</p>
+ */
+public class ComputeSufficientStatistics implements
+    Computation<SufficientStatistics, ProtocolBuilderNumeric> {
+
+  private final List<List<DRes<SFixed>>> observations;
+  private final List<DRes<SInt>> filter;
+
+  public ComputeSufficientStatistics(List<List<DRes<SFixed>>> observations) {
+    this(observations, null);
+  }
+
+  /**
+   * Compute the sufficient statistics for the observations selected by a filter.
+   *
+   * @param observations The observations.
+   * @param filter       A secret 0-1-vector indicating which observations should be included.
+   */
+  public ComputeSufficientStatistics(List<List<DRes<SFixed>>> observations,
+      List<DRes<SInt>> filter) {
+    if (observations.isEmpty()) {
+      throw new IllegalArgumentException("There must be at least one observation");
+    }
+    if (observations.stream().mapToInt(List::size).distinct().count() != 1) {
+      throw new IllegalArgumentException(
+          "Each observation must contain the same number of entries");
+    }
+    if (filter != null && filter.size() != observations.size()) {
+      throw new IllegalArgumentException("Data and filter must have same size");
+    }
+    this.observations = observations;
+    this.filter = filter;
+  }
+
+  @Override
+  public DRes<SufficientStatistics> buildComputation(ProtocolBuilderNumeric builder) {
+    int n = observations.size();
+    int k = observations.get(0).size();
+    List<List<DRes<SFixed>>> variables = VectorUtils.listBuilder(k,
+        j -> observations.stream().map(observation -> observation.get(j))
+            .collect(Collectors.toList()));
+
+    if (filter == null) {
+      return builder.par(par -> DRes.of(new SufficientStatistics(n,
+          sums(variables, par), sumsOfProducts(variables, variables, par))));
+    }
+
+    return builder.par(par -> {
+      List<List<DRes<SFixed>>> filtered = VectorUtils.listBuilder(k,
+          j -> VectorUtils.listBuilder(n,
+              i -> new MultiplyWithSInt(variables.get(j).get(i), filter.get(i))
+                  .buildComputation(par)));
+      return Pair.lazy(filtered, AdvancedNumeric.using(par).sum(filter));
+    }).par((par, filteredAndCount) -> {
+      List<List<DRes<SFixed>>> filtered = filteredAndCount.getFirst();
+      return DRes.of(new SufficientStatistics(filteredAndCount.getSecond(),
+          sums(filtered, par), sumsOfProducts(filtered, variables, par)));
+    });
+  }
+
+  private static List<DRes<SFixed>> sums(List<List<DRes<SFixed>>> variables,
+      ProtocolBuilderNumeric builder) {
+    AdvancedFixedNumeric advancedFixedNumeric = AdvancedFixedNumeric.using(builder);
+    return VectorUtils.listBuilder(variables.size(),
+        j -> advancedFixedNumeric.sum(variables.get(j)));
+  }
+
+  private static Matrix<DRes<SFixed>> sumsOfProducts(List<List<DRes<SFixed>>> left,
+      List<List<DRes<SFixed>>> right, ProtocolBuilderNumeric builder) {
+    AdvancedFixedNumeric advancedFixedNumeric = AdvancedFixedNumeric.using(builder);
+    int k = left.size();
+
+    // The matrix is symmetric, so we compute only the lower half. Each inner product is only
+    // truncated once.
+    List<List<DRes<SFixed>>> lower = VectorUtils.listBuilder(k, i -> VectorUtils
+        .listBuilder(i + 1, j -> advancedFixedNumeric.innerProduct(left.get(i),
+            right.get(j))));
+    return MatrixUtils.buildMatrix(k, k,
+        (i, j) -> i >= j ? lower.get(i).get(j) : lower.get(j).get(i));
+  }
+}
@@ -0,0 +1,69 @@
+package dk.alexandra.fresco.stat.descriptive.sufficient;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Merge the {@link SufficientStatistics} of two samples of the same variables into the sufficient
+ * statistics of the union of the two samples. This only requires additions, so it does not require
+ * any communication. If the number of observations is secret for either of the samples, it is also
+ * secret for the merged statistics.
+ */
+public class MergeSufficientStatistics implements
+    Computation<SufficientStatistics, ProtocolBuilderNumeric> {
+
+  private final DRes<SufficientStatistics> first;
+  private final DRes<SufficientStatistics> second;
+
+  public MergeSufficientStatistics(DRes<SufficientStatistics> first,
+      DRes<SufficientStatistics> second) {
+    this.first = first;
+    this.second = second;
+  }
+
+  @Override
+  public DRes<SufficientStatistics> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.par(par -> {
+      SufficientStatistics a = first.out();
+      SufficientStatistics b = second.out();
+      if (a.getVariables() != b.getVariables()) {
+        throw new IllegalArgumentException(
+            "The statistics must be computed for the same number of variables");
+      }
+      int k = a.getVariables();
+      FixedNumeric fixedNumeric = FixedNumeric.using(par);
+      List<DRes<SFixed>> sums = VectorUtils.add(a.getSums(), b.getSums(), par);
+      List<List<DRes<SFixed>>> lower = VectorUtils.listBuilder(k, i -> VectorUtils
+          .listBuilder(i + 1, j -> fixedNumeric.add(a.getSumsOfProducts().getRow(i).get(j),
+              b.getSumsOfProducts().getRow(i).get(j))));
+      Matrix<DRes<SFixed>> sumsOfProducts = MatrixUtils.buildMatrix(k, k,
+          (i, j) -> i >= j ? lower.get(i).get(j) : lower.get(j).get(i));
+      if (!a.hasSecretCount() && !b.hasSecretCount()) {
+        return DRes.of(new SufficientStatistics(a.getCount() + b.getCount(), sums,
+            sumsOfProducts));
+      }
+
+      // If either count is secret, so is the count of the merged statistics
+      Numeric numeric = par.numeric();
+      DRes<SInt> count;
+      if (!a.hasSecretCount()) {
+        count = numeric.add(BigInteger.valueOf(a.getCount()), b.getSecretCount());
+      } else if (!b.hasSecretCount()) {
+        count = numeric.add(BigInteger.valueOf(b.getCount()), a.getSecretCount());
+      } else {
+        count = numeric.add(a.getSecretCount(), b.getSecretCount());
+      }
+      return DRes.of(new SufficientStatistics(count, sums, sumsOfProducts));
+    });
+  }
+}
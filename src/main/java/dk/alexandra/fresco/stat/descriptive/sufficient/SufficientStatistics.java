@@ -0,0 +1,158 @@
+package dk.alexandra.fresco.stat.descriptive.sufficient;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Sufficient statistics for the mean, variance, covariance, correlation and linear regression of a
+ * sample of observations of a number of variables. The statistics consists of the number of
+ * observations, the sums of each variable and the sums of the pairwise products of the variables,
+ * which if the observations are the rows of a matrix <i>X</i>, is the matrix
+ * <i>X<sup>T</sup>X</i>.
+ *
+ * <p>Sufficient statistics for two samples may be merged into the sufficient statistics of the
+ * union of the samples using only additions, so a sample which grows over time may be summarized
+ * incrementally by computing the sufficient statistics for each new batch of observations using
+ * {@link ComputeSufficientStatistics} and merging it with the existing statistics using {@link
+ * MergeSufficientStatistics}. The final statistics are derived from the sufficient statistics in
+ * time independent of the number of observations.</p>
+ *
+ * <p>If the statistics are computed for a filtered sample, the number of observations is secret,
+ * so the statistics derived from it compute a secret reciprocal of the number of observations once
+ * and multiply by it instead of dividing each entry.</p>
+ */
+public class SufficientStatistics implements DRes<SufficientStatistics> {
+
+  private final int count;
+  private final DRes<SInt> secretCount;
+  private final List<DRes<SFixed>> sums;
+  private final Matrix<DRes<SFixed>> sumsOfProducts;
+
+  SufficientStatistics(int count, List<DRes<SFixed>> sums,
+      Matrix<DRes<SFixed>> sumsOfProducts) {
+    this.count = count;
+    this.secretCount = null;
+    this.sums = sums;
+    this.sumsOfProducts = sumsOfProducts;
+  }
+
+  SufficientStatistics(DRes<SInt> count, List<DRes<SFixed>> sums,
+      Matrix<DRes<SFixed>> sumsOfProducts) {
+    this.count = -1;
+    this.secretCount = count;
+    this.sums = sums;
+    this.sumsOfProducts = sumsOfProducts;
+  }
+
+  /**
+   * The number of observations. This is only defined if the number of observations is public.
+   */
+  public int getCount() {
+    if (hasSecretCount()) {
+      throw new IllegalStateException("The number of observations is secret");
+    }
+    return count;
+  }
+
+  /**
+   * Whether the number of observations is secret, which is the case if the statistics were computed
+   * for a filtered sample.
+   */
+  public boolean hasSecretCount() {
+    return secretCount != null;
+  }
+
+  /**
+   * The number of observations as a secret value. This is only defined if the number of
+   * observations is secret.
+   */
+  public DRes<SInt> getSecretCount() {
+    if (!hasSecretCount()) {
+      throw new IllegalStateException("The number of observations is public");
+    }
+    return secretCount;
+  }
+
+  /**
+   * The number of variables in each observation.
+   */
+  public int getVariables() {
+    return sums.size();
+  }
+
+  /**
+   * The sum of each variable over all observations.
+   */
+  public List<DRes<SFixed>> getSums() {
+    return sums;
+  }
+
+  /**
+   * The symmetric matrix whose <i>(i,j)</i>'th entry is the sum of the products of the
+   * <i>i</i>'th and <i>j</i>'th variables over all observations. The diagonal holds the sums of
+   * squares of each variable.
+   */
+  public Matrix<DRes<SFixed>> getSumsOfProducts() {
+    return sumsOfProducts;
+  }
+
+  /**
+   * Compute a divisor which divides values by the number of observations minus the given offset.
+   * If the number of observations is secret, this costs a single secret division, after which each
+   * division costs a multiplication and a truncation.
+   */
+  DRes<CountDivisor> countDivisor(int offset, ProtocolBuilderNumeric builder) {
+    if (!hasSecretCount()) {
+      return DRes.of(new CountDivisor(count - offset, null, 0));
+    }
+
+    // Compute the reciprocal with twice the fixed point precision to keep the relative error small
+    // for large counts
+    int precision = 2 * builder.getBasicNumericContext().getDefaultFixedPointPrecision();
+    return builder.seq(seq -> {
+      DRes<SInt> reciprocal = AdvancedNumeric.using(seq).div(
+          seq.numeric().known(BigInteger.TWO.pow(precision)),
+          seq.numeric().sub(secretCount, BigInteger.valueOf(offset)));
+      return DRes.of(new CountDivisor(-1, reciprocal, precision));
+    });
+  }
+
+  @Override
+  public SufficientStatistics out() {
+    return this;
+  }
+
+  /**
+   * Divides values by the number of observations minus an offset. If the number of observations is
+   * secret, the values are multiplied by a secret fixed point reciprocal of the divisor.
+   */
+  static class CountDivisor {
+
+    private final int divisor;
+    private final DRes<SInt> reciprocal;
+    private final int precision;
+
+    private CountDivisor(int divisor, DRes<SInt> reciprocal, int precision) {
+      this.divisor = divisor;
+      this.reciprocal = reciprocal;
+      this.precision = precision;
+    }
+
+    DRes<SFixed> divide(DRes<SFixed> value, ProtocolBuilderNumeric builder) {
+      if (reciprocal == null) {
+        return FixedNumeric.using(builder).div(value, divisor);
+      }
+      return builder.seq(seq -> {
+        DRes<SInt> product = seq.numeric().mult(value.out().getSInt(), reciprocal);
+        return new SFixed(AdvancedNumeric.using(seq).truncate(product, precision));
+      });
+    }
+  }
+}
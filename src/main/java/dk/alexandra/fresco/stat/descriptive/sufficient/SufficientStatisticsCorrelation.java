@@ -0,0 +1,30 @@
+package dk.alexandra.fresco.stat.descriptive.sufficient;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.helpers.NormalizeCovariance;
+
+/**
+ * Compute the matrix of Pearson's correlation coefficients between all pairs of variables from the
+ * {@link SufficientStatistics} of a sample. This requires a square root and a reciprocal per
+ * variable.
+ */
+public class SufficientStatisticsCorrelation implements
+    Computation<Matrix<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final DRes<SufficientStatistics> statistics;
+
+  public SufficientStatisticsCorrelation(DRes<SufficientStatistics> statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.seq(new SufficientStatisticsCovariance(statistics, false))
+        .seq((seq, centered) -> new NormalizeCovariance(centered)
+            .buildComputation(seq));
+  }
+}
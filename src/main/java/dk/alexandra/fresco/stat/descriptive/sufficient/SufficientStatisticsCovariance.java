@@ -0,0 +1,63 @@
+package dk.alexandra.fresco.stat.descriptive.sufficient;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatistics.CountDivisor;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.List;
+
+/**
+ * Compute the unbiased covariance matrix of the variables from the {@link SufficientStatistics} of
+ * a sample. If the <code>unbiased</code> flag is false, the sums of products of the deviations from
+ * the means are returned instead, which are used to compute the correlation.
+ */
+public class SufficientStatisticsCovariance implements
+    Computation<Matrix<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final DRes<SufficientStatistics> statistics;
+  private final boolean unbiased;
+
+  public SufficientStatisticsCovariance(DRes<SufficientStatistics> statistics) {
+    this(statistics, true);
+  }
+
+  SufficientStatisticsCovariance(DRes<SufficientStatistics> statistics, boolean unbiased) {
+    this.statistics = statistics;
+    this.unbiased = unbiased;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.par(par -> {
+      SufficientStatistics s = statistics.out();
+      if (unbiased && !s.hasSecretCount() && s.getCount() < 2) {
+        throw new IllegalArgumentException("At least two observations are needed");
+      }
+      DRes<List<DRes<SFixed>>> mean = par.seq(new SufficientStatisticsMean(statistics));
+      DRes<CountDivisor> divisor = unbiased ? s.countDivisor(1, par) : null;
+      return Pair.lazy(mean, divisor);
+    }).par((par, meanAndDivisor) -> {
+      SufficientStatistics s = statistics.out();
+      int k = s.getVariables();
+      List<DRes<SFixed>> mean = meanAndDivisor.getFirst().out();
+
+      // sum (x_i - mean(x)) (y_i - mean(y)) = sum x_i y_i - mean(x) sum y_i. The matrix is
+      // symmetric, so we compute only the lower half.
+      List<List<DRes<SFixed>>> lower = VectorUtils.listBuilder(k, i -> VectorUtils.listBuilder(
+          i + 1, j -> par.seq(seq -> {
+            FixedNumeric fixedNumeric = FixedNumeric.using(seq);
+            DRes<SFixed> centered = fixedNumeric.sub(s.getSumsOfProducts().getRow(i).get(j),
+                fixedNumeric.mult(mean.get(i), s.getSums().get(j)));
+            return unbiased ? meanAndDivisor.getSecond().out().divide(centered, seq) : centered;
+          })));
+      return DRes.of(MatrixUtils.buildMatrix(k, k,
+          (i, j) -> i >= j ? lower.get(i).get(j) : lower.get(j).get(i)));
+    });
+  }
+}
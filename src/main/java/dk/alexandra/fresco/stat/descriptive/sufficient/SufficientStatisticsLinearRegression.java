@@ -0,0 +1,98 @@
+package dk.alexandra.fresco.stat.descriptive.sufficient;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.linearalgebra.LinearInverseProblem;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Estimate the coefficients of a linear model <i>y = b<sub>0</sub> + b<sub>1</sub> x<sub>1</sub> +
+ * ... + b<sub>p</sub> x<sub>p</sub></i> from the {@link SufficientStatistics} of a sample, where
+ * one of the variables is the response <i>y</i> and the remaining variables are the independent
+ * variables <i>x<sub>1</sub>, ..., x<sub>p</sub></i> in the order they appear in the observations.
+ * The first estimate is the intercept <i>b<sub>0</sub></i>.
+ *
+ * <p>The estimates are found by solving the normal equations <i>X<sup>T</sup>X b =
+ * X<sup>T</sup>y</i>, where <i>X</i> is the matrix of observations of the independent variables
+ * augmented with a column of ones. Both sides are divided by the number of observations before
+ * solving the system to keep the entries small. If the number of observations is secret, this
+ * costs a single secret division and a multiplication per entry. Unlike {@link
+ * dk.alexandra.fresco.stat.regression.linear.LinearRegression}, the cost does not depend on the
+ * number of observations, but the model diagnostics are not computed.</p>
+ */
+public class SufficientStatisticsLinearRegression implements
+    Computation<ArrayList<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final DRes<SufficientStatistics> statistics;
+  private final int response;
+
+  /**
+   * @param statistics The sufficient statistics for a sample.
+   * @param response   The index of the response variable.
+   */
+  public SufficientStatisticsLinearRegression(DRes<SufficientStatistics> statistics,
+      int response) {
+    this.statistics = statistics;
+    this.response = response;
+  }
+
+  @Override
+  public DRes<ArrayList<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.seq(seq -> {
+      SufficientStatistics s = statistics.out();
+      if (response < 0 || response >= s.getVariables()) {
+        throw new IllegalArgumentException("Invalid index of response variable: " + response);
+      }
+      return s.countDivisor(0, seq);
+    }).par((par, divisor) -> {
+      SufficientStatistics s = statistics.out();
+
+      // Indices of the independent variables, where -1 denotes the constant term
+      List<Integer> independent = IntStream.range(-1, s.getVariables())
+          .filter(i -> i != response).boxed().collect(Collectors.toList());
+      int p = independent.size();
+
+      // Divide both sides by the number of observations to keep the entries small
+      List<List<DRes<SFixed>>> lower = VectorUtils.listBuilder(p, i -> VectorUtils
+          .listBuilder(i + 1, j -> {
+            int a = independent.get(i);
+            int b = independent.get(j);
+            if (a == -1 && b == -1) {
+              return FixedNumeric.using(par).known(1);
+            } else {
+              return divisor.divide(sumOfProducts(s, a, b), par);
+            }
+          }));
+      Matrix<DRes<SFixed>> xtx = MatrixUtils.buildMatrix(p, p,
+          (i, j) -> i >= j ? lower.get(i).get(j) : lower.get(j).get(i));
+      ArrayList<DRes<SFixed>> xty = VectorUtils.listBuilder(p,
+          i -> divisor.divide(sumOfProducts(s, independent.get(i), response), par));
+      return DRes.of(new Pair<>(xtx, xty));
+    }).seq((seq, normalEquations) -> new LinearInverseProblem(normalEquations.getFirst(),
+        normalEquations.getSecond()).buildComputation(seq));
+  }
+
+  /**
+   * Get the sum of products of two variables, where the index -1 denotes the constant variable 1.
+   * At most one of the indices may be -1.
+   */
+  private static DRes<SFixed> sumOfProducts(SufficientStatistics statistics, int a, int b) {
+    if (a == -1) {
+      return statistics.getSums().get(b);
+    } else if (b == -1) {
+      return statistics.getSums().get(a);
+    } else {
+      return statistics.getSumsOfProducts().getRow(a).get(b);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package dk.alexandra.fresco.stat.descriptive.sufficient;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compute the sample mean of each variable from the {@link SufficientStatistics} of a sample.
+ */
+public class SufficientStatisticsMean implements
+    Computation<List<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final DRes<SufficientStatistics> statistics;
+
+  public SufficientStatisticsMean(DRes<SufficientStatistics> statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  public DRes<List<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.seq(seq -> statistics.out().countDivisor(0, seq)).par((par, divisor) ->
+        DRes.of(statistics.out().getSums().stream().map(sum -> divisor.divide(sum, par))
+            .collect(Collectors.toList())));
+  }
+}
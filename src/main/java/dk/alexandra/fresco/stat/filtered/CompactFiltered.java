@@ -0,0 +1,170 @@
+package dk.alexandra.fresco.stat.filtered;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.stat.descriptive.sort.ObliviousShuffle;
+import dk.alexandra.fresco.stat.utils.LEQPublicThresholds;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Move the rows of a data set selected by a secret filter to a smaller table, such that expensive
+ * analyses may be run on the selected rows only. The input is <i>filtered</i>, meaning that
+ * besides the data set, the input also consists of a secret 0-1-vector (a <code>filter</code>)
+ * which indicates what rows of the data set should be included.
+ *
+ * <p>The output is the compacted table along with a filter for the rows of this table. If no
+ * sizes are given, the number of selected rows is revealed and the output consists of exactly the
+ * selected rows, so the filter is all ones. Otherwise, the number of selected rows is padded up to
+ * the smallest of the given public sizes which is at least this number, or to the size of the
+ * data set if there is no such size. Only this size is revealed, and the output filter indicates
+ * which rows were selected in the original data set.</p>
+ *
+ * <p>The rows to keep are marked, including the padding rows which are chosen as the first
+ * unselected rows, and the table is shuffled obliviously using {@link ObliviousShuffle}. The marks
+ * of the shuffled rows are then opened, which reveals nothing but the number of marked rows since
+ * the rows are in uniformly random order. The rows of the output are thus also in random order.
+ * This uses <i>O(n log n)</i> multiplications for the shuffle and, if the output is padded,
+ * <i>n</i> comparisons.</p>
+ */
+public class CompactFiltered implements
+    Computation<Pair<Matrix<DRes<SInt>>, List<DRes<SInt>>>, ProtocolBuilderNumeric> {
+
+  private final Matrix<DRes<SInt>> data;
+  private final List<DRes<SInt>> filter;
+  private final int[] sizes;
+
+  /**
+   * Compact the selected rows of the data set and reveal the number of selected rows.
+   *
+   * @param data   A data set.
+   * @param filter A filter with an entry for each row of the data set.
+   */
+  public CompactFiltered(Matrix<DRes<SInt>> data, List<DRes<SInt>> filter) {
+    this(data, filter, null);
+  }
+
+  /**
+   * Compact the selected rows of the data set and pad the output to one of the given sizes.
+   *
+   * @param data   A data set.
+   * @param filter A filter with an entry for each row of the data set.
+   * @param sizes  The public sizes the output may be padded to in increasing order.
+   */
+  public CompactFiltered(Matrix<DRes<SInt>> data, List<DRes<SInt>> filter, int[] sizes) {
+    if (data.getHeight() != filter.size()) {
+      throw new IllegalArgumentException("There must be a filter entry for each row");
+    }
+    if (sizes != null) {
+      for (int i = 0; i < sizes.length; i++) {
+        if (sizes[i] < 0 || (i > 0 && sizes[i] <= sizes[i - 1])) {
+          throw new IllegalArgumentException("Sizes must be non-negative and increasing");
+        }
+      }
+    }
+    this.data = data;
+    this.filter = filter;
+    this.sizes = sizes;
+  }
+
+  @Override
+  public DRes<Pair<Matrix<DRes<SInt>>, List<DRes<SInt>>>> buildComputation(
+      ProtocolBuilderNumeric builder) {
+    int n = data.getHeight();
+    int width = data.getWidth();
+    boolean padded = sizes != null;
+
+    return builder.seq(seq -> AdvancedNumeric.using(seq).sum(filter)).seq((seq, count) -> {
+      if (!padded) {
+        DRes<BigInteger> opened = seq.numeric().open(count);
+        return Pair.lazy(count, (DRes<Integer>) () -> opened.out().intValueExact());
+      }
+
+      // Reveal the smallest size which is at least the number of selected rows
+      List<BigInteger> thresholds = Arrays.stream(sizes).mapToObj(BigInteger::valueOf)
+          .collect(Collectors.toList());
+      DRes<List<DRes<BigInteger>>> fits = seq.seq(
+          new LEQPublicThresholds(count, thresholds)).par((par, leq) -> DRes.of(
+          leq.stream().map(par.numeric()::open).collect(Collectors.toList())));
+      return Pair.lazy(count, (DRes<Integer>) () -> {
+        for (int i = 0; i < sizes.length; i++) {
+          if (fits.out().get(i).out().equals(BigInteger.ONE)) {
+            return Math.min(sizes[i], n);
+          }
+        }
+        return n;
+      });
+    }).seq((seq, countAndSize) -> {
+      int size = countAndSize.getSecond().out();
+      if (!padded || size == n) {
+        return Pair.lazy(size, new Pair<List<DRes<SInt>>, List<DRes<SInt>>>(null, null));
+      }
+
+      // An unselected row is used for padding if the number of unselected rows up to and including
+      // this row is at most the number of padding rows needed
+      Numeric numeric = seq.numeric();
+      DRes<SInt> padding = numeric.sub(BigInteger.valueOf(size), countAndSize.getFirst());
+      List<DRes<SInt>> unselected = VectorUtils.listBuilder(n,
+          i -> numeric.sub(BigInteger.ONE, filter.get(i)));
+      List<DRes<SInt>> prefixSums = new ArrayList<>();
+      DRes<SInt> prefixSum = numeric.known(0);
+      for (int i = 0; i < n; i++) {
+        prefixSum = numeric.add(prefixSum, unselected.get(i));
+        prefixSums.add(prefixSum);
+      }
+      return seq.par(par -> {
+        Comparison comparison = Comparison.using(par);
+        return DRes.of(VectorUtils.listBuilder(n,
+            i -> comparison.compareLEQ(prefixSums.get(i), padding)));
+      }).par((par, leq) -> DRes.of(VectorUtils.listBuilder(n,
+          i -> par.numeric().mult(unselected.get(i), leq.get(i))))
+      ).seq((s, dummies) -> Pair.lazy(size, new Pair<>(filter, dummies)));
+    }).seq((seq, sizeAndDummies) -> {
+      int size = sizeAndDummies.getFirst();
+      List<DRes<SInt>> dummies = sizeAndDummies.getSecond().getSecond();
+      if (dummies == null && size == n) {
+        // Everything is kept, so there is no need to shuffle
+        return Pair.lazy(data, filter);
+      }
+
+      // Each row is | data | filter | keep? |, where the last column is omitted if the table is not
+      // padded since the rows to keep are then the selected rows
+      int shuffledWidth = dummies == null ? width + 1 : width + 2;
+      ArrayList<ArrayList<DRes<SInt>>> rows = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        ArrayList<DRes<SInt>> row = new ArrayList<>(data.getRow(i));
+        row.add(filter.get(i));
+        if (dummies != null) {
+          row.add(seq.numeric().add(filter.get(i), dummies.get(i)));
+        }
+        rows.add(row);
+      }
+      return seq.seq(new ObliviousShuffle(new Matrix<>(n, shuffledWidth, rows)))
+          .par((par, shuffled) -> Pair.lazy(shuffled, VectorUtils.listBuilder(n,
+              i -> par.numeric().open(shuffled.getRow(i).get(shuffledWidth - 1)))))
+          .seq((s, shuffledAndKeep) -> {
+            Matrix<DRes<SInt>> shuffled = shuffledAndKeep.getFirst();
+            ArrayList<ArrayList<DRes<SInt>>> kept = new ArrayList<>();
+            List<DRes<SInt>> keptFilter = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+              if (shuffledAndKeep.getSecond().get(i).out().equals(BigInteger.ONE)) {
+                kept.add(new ArrayList<>(shuffled.getRow(i).subList(0, width)));
+                keptFilter.add(shuffled.getRow(i).get(width));
+              }
+            }
+            return Pair.lazy(new Matrix<>(kept.size(), width, kept), keptFilter);
+          });
+    });
+  }
+}
@@ -0,0 +1,76 @@
+package dk.alexandra.fresco.stat.filtered;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.stat.utils.LEQPublicThresholds;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+
+/**
+ * Compute a filter for a data set, eg. a secret 0-1-vector indicating which rows of the data set
+ * satisfy a given {@link FilterPredicate}.
+ *
+ * <p>For each row, every column used in the predicate is compared to all the thresholds the
+ * predicate uses for this column using {@link LEQPublicThresholds}, which masks the value and
+ * decomposes the mask into bits only once per column. Conjunctions are computed using a balanced
+ * tree of multiplications, so a predicate with <i>k</i> conditions uses <i>O(log k)</i> rounds
+ * after the comparisons.</p>
+ *
+ * <p>As for <code>compareLEQ</code>, the absolute value of <i>x - t - 1</i> must be smaller than
+ * <i>2<sup>l - 1</sup></i> for all values <i>x</i> and thresholds <i>t</i> where <i>l</i> is the
+ * maximum bit length.</p>
+ */
+public class Filter implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final Matrix<DRes<SInt>> data;
+  private final FilterPredicate predicate;
+
+  /**
+   * @param data      A data set.
+   * @param predicate The predicate the rows of the data set should satisfy.
+   */
+  public Filter(Matrix<DRes<SInt>> data, FilterPredicate predicate) {
+    this.data = data;
+    this.predicate = predicate;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    int n = data.getHeight();
+    Map<Integer, SortedSet<BigInteger>> thresholds = new TreeMap<>();
+    predicate.addThresholds(thresholds);
+    if (thresholds.keySet().stream().anyMatch(column -> column >= data.getWidth())) {
+      throw new IllegalArgumentException("The predicate uses a column not in the data set");
+    }
+
+    return builder.par(par -> {
+      Map<Integer, List<DRes<List<DRes<SInt>>>>> comparisons = new HashMap<>();
+      thresholds.forEach((column, columnThresholds) -> comparisons.put(column,
+          VectorUtils.listBuilder(n, i -> new LEQPublicThresholds(data.getRow(i).get(column),
+              new ArrayList<>(columnThresholds)).buildComputation(par))));
+      return DRes.of(comparisons);
+    }).seq((seq, comparisons) -> {
+      Map<Integer, Map<BigInteger, List<DRes<SInt>>>> indicators = new HashMap<>();
+      thresholds.forEach((column, columnThresholds) -> {
+        List<BigInteger> ordered = new ArrayList<>(columnThresholds);
+        Map<BigInteger, List<DRes<SInt>>> columnIndicators = new HashMap<>();
+        for (int j = 0; j < ordered.size(); j++) {
+          int finalJ = j;
+          columnIndicators.put(ordered.get(j), VectorUtils.listBuilder(n,
+              i -> comparisons.get(column).get(i).out().get(finalJ)));
+        }
+        indicators.put(column, columnIndicators);
+      });
+      return predicate.evaluate(n, indicators, seq);
+    });
+  }
+}
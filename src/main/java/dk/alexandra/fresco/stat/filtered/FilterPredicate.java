@@ -0,0 +1,269 @@
+package dk.alexandra.fresco.stat.filtered;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A predicate on the rows of a data set, used to compute a filter using {@link Filter}. Predicates
+ * are built from comparisons of a single column with public values, which may be combined using
+ * {@link #and(FilterPredicate...)}, {@link #or(FilterPredicate...)} and {@link
+ * #not(FilterPredicate)}.
+ *
+ * <p>All comparisons are reduced to indicators <i>[x &le; t]</i> for public thresholds <i>t</i>,
+ * eg. <i>[x = v] = [x &le; v] - [x &le; v - 1]</i>, so ranges, equalities and set memberships are
+ * linear combinations of such indicators, as are their negations. The indicators for the same
+ * column are computed together, and a threshold used more than once is only compared to once.</p>
+ */
+public abstract class FilterPredicate {
+
+  FilterPredicate() {
+  }
+
+  /**
+   * Add the thresholds this predicate compares each column to.
+   */
+  abstract void addThresholds(Map<Integer, SortedSet<BigInteger>> thresholds);
+
+  /**
+   * Evaluate this predicate on all rows given the indicators <i>[x &le; t]</i> for each column and
+   * each threshold added by {@link #addThresholds(Map)}.
+   */
+  abstract DRes<List<DRes<SInt>>> evaluate(int n,
+      Map<Integer, Map<BigInteger, List<DRes<SInt>>>> indicators, ProtocolBuilderNumeric builder);
+
+  /**
+   * The value in the given column is at most the bound.
+   */
+  public static FilterPredicate atMost(int column, long bound) {
+    return new LinearCombination(column, BigInteger.ZERO,
+        Map.of(BigInteger.valueOf(bound), BigInteger.ONE));
+  }
+
+  /**
+   * The value in the given column is smaller than the bound.
+   */
+  public static FilterPredicate lessThan(int column, long bound) {
+    return atMost(column, bound - 1);
+  }
+
+  /**
+   * The value in the given column is at least the bound.
+   */
+  public static FilterPredicate atLeast(int column, long bound) {
+    return not(lessThan(column, bound));
+  }
+
+  /**
+   * The value in the given column is greater than the bound.
+   */
+  public static FilterPredicate greaterThan(int column, long bound) {
+    return not(atMost(column, bound));
+  }
+
+  /**
+   * The value in the given column is at least the lower bound and smaller than the upper bound.
+   */
+  public static FilterPredicate range(int column, long lower, long upper) {
+    if (lower >= upper) {
+      return new LinearCombination(column, BigInteger.ZERO, Map.of());
+    }
+    return new LinearCombination(column, BigInteger.ZERO,
+        Map.of(BigInteger.valueOf(upper - 1), BigInteger.ONE,
+            BigInteger.valueOf(lower - 1), BigInteger.ONE.negate()));
+  }
+
+  /**
+   * The value in the given column is equal to the given value.
+   */
+  public static FilterPredicate equalTo(int column, long value) {
+    return range(column, value, value + 1);
+  }
+
+  /**
+   * The value in the given column is one of the given values.
+   */
+  public static FilterPredicate in(int column, long... values) {
+    LinearCombination result = new LinearCombination(column, BigInteger.ZERO, Map.of());
+    for (long value : Arrays.stream(values).distinct().toArray()) {
+      result = result.add((LinearCombination) equalTo(column, value));
+    }
+    return result;
+  }
+
+  /**
+   * All the given predicates are satisfied.
+   */
+  public static FilterPredicate and(FilterPredicate... predicates) {
+    if (predicates.length == 0) {
+      throw new IllegalArgumentException("There must be at least one predicate");
+    }
+    List<FilterPredicate> factors = new ArrayList<>();
+    for (FilterPredicate predicate : predicates) {
+      if (predicate instanceof And) {
+        factors.addAll(((And) predicate).factors);
+      } else {
+        factors.add(predicate);
+      }
+    }
+    return factors.size() == 1 ? factors.get(0) : new And(factors);
+  }
+
+  /**
+   * At least one of the given predicates is satisfied.
+   */
+  public static FilterPredicate or(FilterPredicate... predicates) {
+    return not(and(Arrays.stream(predicates).map(FilterPredicate::not)
+        .toArray(FilterPredicate[]::new)));
+  }
+
+  /**
+   * The given predicate is not satisfied.
+   */
+  public static FilterPredicate not(FilterPredicate predicate) {
+    if (predicate instanceof LinearCombination) {
+      return ((LinearCombination) predicate).negate();
+    } else if (predicate instanceof Not) {
+      return ((Not) predicate).predicate;
+    }
+    return new Not(predicate);
+  }
+
+  /**
+   * A linear combination <i>c + &sum; a<sub>t</sub> [x &le; t]</i> of indicators for a single
+   * column which is always either zero or one.
+   */
+  private static class LinearCombination extends FilterPredicate {
+
+    private final int column;
+    private final BigInteger constant;
+    private final Map<BigInteger, BigInteger> coefficients;
+
+    private LinearCombination(int column, BigInteger constant,
+        Map<BigInteger, BigInteger> coefficients) {
+      if (column < 0) {
+        throw new IllegalArgumentException("Column index must be non-negative");
+      }
+      this.column = column;
+      this.constant = constant;
+      this.coefficients = new TreeMap<>(coefficients);
+      this.coefficients.values().removeIf(a -> a.signum() == 0);
+    }
+
+    private LinearCombination add(LinearCombination other) {
+      Map<BigInteger, BigInteger> sum = new TreeMap<>(coefficients);
+      other.coefficients.forEach((t, a) -> sum.merge(t, a, BigInteger::add));
+      return new LinearCombination(column, constant.add(other.constant), sum);
+    }
+
+    private LinearCombination negate() {
+      Map<BigInteger, BigInteger> negated = new TreeMap<>();
+      coefficients.forEach((t, a) -> negated.put(t, a.negate()));
+      return new LinearCombination(column, BigInteger.ONE.subtract(constant), negated);
+    }
+
+    @Override
+    void addThresholds(Map<Integer, SortedSet<BigInteger>> thresholds) {
+      if (!coefficients.isEmpty()) {
+        thresholds.computeIfAbsent(column, c -> new TreeSet<>()).addAll(coefficients.keySet());
+      }
+    }
+
+    @Override
+    DRes<List<DRes<SInt>>> evaluate(int n,
+        Map<Integer, Map<BigInteger, List<DRes<SInt>>>> indicators,
+        ProtocolBuilderNumeric builder) {
+      return builder.seq(seq -> {
+        Numeric numeric = seq.numeric();
+        return DRes.of(VectorUtils.listBuilder(n, i -> {
+          DRes<SInt> result = numeric.known(constant);
+          for (Map.Entry<BigInteger, BigInteger> term : coefficients.entrySet()) {
+            result = numeric.add(result,
+                numeric.mult(term.getValue(), indicators.get(column).get(term.getKey()).get(i)));
+          }
+          return result;
+        }));
+      });
+    }
+  }
+
+  /**
+   * The conjunction of a list of predicates, computed as the product of the predicates using a
+   * balanced tree of multiplications.
+   */
+  private static class And extends FilterPredicate {
+
+    private final List<FilterPredicate> factors;
+
+    private And(List<FilterPredicate> factors) {
+      this.factors = factors;
+    }
+
+    @Override
+    void addThresholds(Map<Integer, SortedSet<BigInteger>> thresholds) {
+      factors.forEach(factor -> factor.addThresholds(thresholds));
+    }
+
+    @Override
+    DRes<List<DRes<SInt>>> evaluate(int n,
+        Map<Integer, Map<BigInteger, List<DRes<SInt>>>> indicators,
+        ProtocolBuilderNumeric builder) {
+      return product(factors, n, indicators, builder);
+    }
+
+    private static DRes<List<DRes<SInt>>> product(List<FilterPredicate> factors, int n,
+        Map<Integer, Map<BigInteger, List<DRes<SInt>>>> indicators,
+        ProtocolBuilderNumeric builder) {
+      if (factors.size() == 1) {
+        return factors.get(0).evaluate(n, indicators, builder);
+      }
+      int half = factors.size() / 2;
+      return builder.par(par -> Pair.lazy(
+          product(factors.subList(0, half), n, indicators, par),
+          product(factors.subList(half, factors.size()), n, indicators, par))
+      ).par((par, halves) -> {
+        List<DRes<SInt>> left = halves.getFirst().out();
+        List<DRes<SInt>> right = halves.getSecond().out();
+        return DRes.of(VectorUtils.listBuilder(n,
+            i -> par.numeric().mult(left.get(i), right.get(i))));
+      });
+    }
+  }
+
+  /**
+   * The negation of a predicate which is not a linear combination of indicators.
+   */
+  private static class Not extends FilterPredicate {
+
+    private final FilterPredicate predicate;
+
+    private Not(FilterPredicate predicate) {
+      this.predicate = predicate;
+    }
+
+    @Override
+    void addThresholds(Map<Integer, SortedSet<BigInteger>> thresholds) {
+      predicate.addThresholds(thresholds);
+    }
+
+    @Override
+    DRes<List<DRes<SInt>>> evaluate(int n,
+        Map<Integer, Map<BigInteger, List<DRes<SInt>>>> indicators,
+        ProtocolBuilderNumeric builder) {
+      return builder.seq(seq -> predicate.evaluate(n, indicators, seq)).seq((seq, values) ->
+          DRes.of(VectorUtils.listBuilder(n,
+              i -> seq.numeric().sub(BigInteger.ONE, values.get(i)))));
+    }
+  }
+}
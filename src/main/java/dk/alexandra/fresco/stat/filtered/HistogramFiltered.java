@@ -6,21 +6,28 @@ import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
-import dk.alexandra.fresco.lib.common.collections.Matrix;
-import dk.alexandra.fresco.lib.common.compare.Comparison;
 import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.stat.descriptive.CumulativeHistogram;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Compute a 1-dimensional histogram for a data set. The input is <i>filtered</i>, meaning that besides
  * the data set, the input also consists of a secret 0-1-vector (a <code>filter</code>) which
- * indicates what entries of the data set should be included in the analysis
+ * indicates what entries of the data set should be included in the analysis.
+ *
+ * <p>The filter is applied once per sample rather than once per comparison: A sample which is not
+ * included is replaced by a value larger than the last bucket using a single multiplication, so it
+ * is only counted in the last bucket, and the last bucket is computed from the number of included
+ * samples. The cost is thus that of an unfiltered histogram plus one multiplication per sample.
+ * This assumes that the buckets are increasing.</p>
  */
 public class HistogramFiltered implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
 
   private final List<DRes<SInt>> buckets;
+  private final BigInteger[] publicBuckets;
   private final List<DRes<SInt>> data;
   private final List<DRes<SInt>> filter;
 
@@ -31,49 +38,62 @@ public class HistogramFiltered implements Computation<List<DRes<SInt>>, Protocol
    *
    * @param buckets Soft upper bounds for buckets
    * @param data    List of samples
+   * @param filter  A filter with an entry for each sample. Must be 0 or 1.
    */
   public HistogramFiltered(List<DRes<SInt>> buckets, List<DRes<SInt>> data, List<DRes<SInt>> filter) {
     this.buckets = buckets;
+    this.publicBuckets = null;
+    this.data = data;
+    this.filter = filter;
+  }
+
+  /**
+   * Given a list of public upper bounds for buckets and a list of samples, this computation
+   * computes the histogram for the given buckets. The last bucket contains all samples larger than
+   * the last upper bound.
+   *
+   * @param buckets Public soft upper bounds for buckets
+   * @param data    List of samples
+   * @param filter  A filter with an entry for each sample. Must be 0 or 1.
+   */
+  public HistogramFiltered(BigInteger[] buckets, List<DRes<SInt>> data, List<DRes<SInt>> filter) {
+    this.buckets = null;
+    this.publicBuckets = buckets;
     this.data = data;
     this.filter = filter;
   }
 
   @Override
   public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
-    return builder.par(par -> {
-
-      // Compare all data points with the buckets
-      Matrix<DRes<SInt>> c = new Matrix<>(buckets.size(), data.size(),
-          (i,j) -> Comparison.using(par).compareLEQ(data.get(j), buckets.get(i)));
-      return DRes.of(c);
+    return builder.seq(seq -> publicBuckets != null
+        ? seq.numeric().known(publicBuckets[publicBuckets.length - 1].add(BigInteger.ONE))
+        : seq.numeric().add(BigInteger.ONE, buckets.get(buckets.size() - 1))
+    ).par((par, outside) -> {
 
-    }).par((par, c) -> {
-
-      // Filter so we only count data points as indicated by the filter
-      Numeric numeric = par.numeric();
-      Matrix<DRes<SInt>> filtered = new Matrix<>(buckets.size(), data.size(),
-          (i,j) -> numeric.mult(c.getRow(i).get(j), filter.get(j)));
+      // Move samples not included by the filter past the last bucket
+      List<DRes<SInt>> filtered = VectorUtils.listBuilder(data.size(), i -> par.seq(seq -> {
+        Numeric numeric = seq.numeric();
+        return numeric.add(outside, numeric.mult(filter.get(i), numeric.sub(data.get(i), outside)));
+      }));
       DRes<SInt> n = AdvancedNumeric.using(par).sum(filter);
       return Pair.lazy(filtered, n);
 
-    }).par((par, c) -> {
-
-      // Compute cumulative sums
-      List<DRes<SInt>> counts =
-          c.getFirst().getRows().stream().map(AdvancedNumeric.using(par)::sum)
-              .collect(Collectors.toList());
-      counts.add(c.getSecond()); // Add the total as the final element
-      return DRes.of(counts);
+    }).seq((seq, filteredAndCount) -> {
 
-    }).seq((seq, counts) -> {
+      CumulativeHistogram cumulativeHistogram = publicBuckets != null
+          ? new CumulativeHistogram(publicBuckets, filteredAndCount.getFirst())
+          : new CumulativeHistogram(buckets, filteredAndCount.getFirst());
+      return seq.seq(cumulativeHistogram).seq((s, cumulative) -> {
 
-      // The histogram is the difference between the cumulative sums
-      List<DRes<SInt>> histogram = new ArrayList<>();
-      histogram.add(counts.get(0));
-      for (int i = 1; i < counts.size(); i++) {
-        histogram.add(seq.numeric().sub(counts.get(i), counts.get(i - 1)));
-      }
-      return DRes.of(histogram);
+        // The histogram is the difference between the cumulative sums, where the total is the
+        // number of samples included by the filter
+        List<DRes<SInt>> counts = new ArrayList<>(cumulative);
+        counts.add(filteredAndCount.getSecond());
+        for (int i = counts.size() - 1; i > 0; i--) {
+          counts.set(i, s.numeric().sub(counts.get(i), counts.get(i - 1)));
+        }
+        return DRes.of(counts);
+      });
 
     });
   }
@@ -0,0 +1,56 @@
+package dk.alexandra.fresco.stat.filtered;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.SampleQuantiles;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.List;
+
+/**
+ * Compute some quantiles for a sample. The input is <i>filtered</i>, meaning that besides the data
+ * set, the input also consists of a secret 0-1-vector (a <code>filter</code>) which indicates what
+ * entries of the data set should be included in the analysis.
+ *
+ * <p>The ranks of the order statistics needed depend on the number of selected samples, so the
+ * selected samples are first moved to a smaller sample using {@link CompactFiltered}, which
+ * reveals the number of selected samples but nothing else, and the quantiles are computed from
+ * this sample using {@link SampleQuantiles}.</p>
+ */
+public class SampleQuantilesFiltered implements
+    Computation<List<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SFixed>> data;
+  private final double[] quantiles;
+  private final List<DRes<SInt>> filter;
+
+  public SampleQuantilesFiltered(List<DRes<SFixed>> data, double[] quantiles,
+      List<DRes<SInt>> filter) {
+    if (data.size() != filter.size()) {
+      throw new IllegalArgumentException("Data and filter must have same size");
+    }
+    this.data = data;
+    this.quantiles = quantiles;
+    this.filter = filter;
+  }
+
+  @Override
+  public DRes<List<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.seq(seq -> {
+      Matrix<DRes<SInt>> column = MatrixUtils.buildMatrix(data.size(), 1,
+          (i, j) -> data.get(i).out().getSInt());
+      return new CompactFiltered(column, filter).buildComputation(seq);
+    }).seq((seq, compacted) -> {
+      Matrix<DRes<SInt>> selected = compacted.getFirst();
+      if (selected.getHeight() == 0) {
+        throw new IllegalArgumentException("No samples are selected by the filter");
+      }
+      return new SampleQuantiles(VectorUtils.listBuilder(selected.getHeight(),
+          i -> new SFixed(selected.getRow(i).get(0))), quantiles).buildComputation(seq);
+    });
+  }
+}
@@ -0,0 +1,119 @@
+package dk.alexandra.fresco.stat.linearalgebra;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.fixed.AdvancedFixedNumeric;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compute the Cholesky decomposition of a symmetric positive definite <i>nxn</i>-matrix <i>A</i>,
+ * eg. the lower triangular matrix <i>L</i> with positive diagonal such that <i>A =
+ * LL<sup>T</sup></i>. Only the lower half of <i>A</i> is used.
+ *
+ * <p>The columns of <i>L</i> are computed one at a time, and all entries of a column are computed
+ * in parallel as <i>l<sub>ij</sub> = (a<sub>ij</sub> - &sum;<sub>k&lt;j</sub> l<sub>ik</sub>
+ * l<sub>jk</sub>) / &radic;d<sub>j</sub></i> where <i>d<sub>j</sub></i> is the pivot, eg. the
+ * numerator for <i>i = j</i>. This uses <i>n</i> square roots and reciprocals and
+ * <i>O(n<sup>3</sup>)</i> multiplications in <i>O(n)</i> rounds.</p>
+ *
+ * <p>The decomposition may be stopped after the first <i>m</i> columns, in which case the output is
+ * the <i>nxm</i> matrix of these columns of <i>L</i>, and only <i>m</i> square roots and
+ * reciprocals are used.</p>
+ */
+public class CholeskyDecomposition implements
+    Computation<Matrix<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final Matrix<DRes<SFixed>> a;
+  private final int m;
+
+  public CholeskyDecomposition(Matrix<DRes<SFixed>> a) {
+    this(a, a.getHeight());
+  }
+
+  /**
+   * @param a       A symmetric positive definite matrix.
+   * @param columns The number of columns of <i>L</i> to compute.
+   */
+  public CholeskyDecomposition(Matrix<DRes<SFixed>> a, int columns) {
+    if (a.getHeight() != a.getWidth()) {
+      throw new IllegalArgumentException("Matrix must be square");
+    }
+    if (columns < 0 || columns > a.getHeight()) {
+      throw new IllegalArgumentException(
+          "Number of columns must be between 0 and " + a.getHeight());
+    }
+    this.a = a;
+    this.m = columns;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    int n = a.getHeight();
+
+    // The columns of L computed so far, where column j has the entries from row j and down
+    return builder.seq(seq -> DRes.of(new ArrayList<List<DRes<SFixed>>>()))
+        .whileLoop(columns -> columns.size() < m, (seq, columns) -> {
+
+          // We add one column per step, so the iteration count is the number of columns so far
+          int j = columns.size();
+
+          return seq.par(par -> {
+
+            // Compute a_ij - sum_k<j l_ik l_jk for all i >= j
+            List<DRes<SFixed>> residuals = VectorUtils.listBuilder(n - j, i -> {
+              DRes<SFixed> aij = a.getRow(i + j).get(j);
+              if (j == 0) {
+                return aij;
+              }
+              return par.seq(sub -> FixedNumeric.using(sub).sub(aij,
+                  AdvancedFixedNumeric.using(sub).innerProduct(
+                      VectorUtils.listBuilder(j, k -> columns.get(k).get(i + j - k)),
+                      VectorUtils.listBuilder(j, k -> columns.get(k).get(j - k)))));
+            });
+            return DRes.of(residuals);
+
+          }).seq((sub, residuals) -> {
+
+            // Approximate the reciprocal of the square root of the pivot
+            AdvancedFixedNumeric advancedFixedNumeric = AdvancedFixedNumeric.using(sub);
+            DRes<SFixed> y = advancedFixedNumeric.reciprocal(
+                advancedFixedNumeric.sqrt(residuals.get(0)));
+            return Pair.lazy(residuals, y);
+
+          }).seq((sub, residualsAndY) -> {
+
+            // Refine the approximation using a Newton iteration, y' = y (3 - d y^2) / 2, since the
+            // later columns depend on the pivots with much cancellation
+            FixedNumeric fixedNumeric = FixedNumeric.using(sub);
+            DRes<SFixed> d = residualsAndY.getFirst().get(0);
+            DRes<SFixed> y = residualsAndY.getSecond();
+            DRes<SFixed> refined = fixedNumeric.mult(fixedNumeric.mult(0.5, y),
+                fixedNumeric.sub(3, fixedNumeric.mult(d, fixedNumeric.mult(y, y))));
+            return Pair.lazy(residualsAndY.getFirst(), refined);
+
+          }).par((par, residualsAndY) -> {
+
+            List<DRes<SFixed>> residuals = residualsAndY.getFirst();
+            FixedNumeric fixedNumeric = FixedNumeric.using(par);
+            List<DRes<SFixed>> column = VectorUtils.listBuilder(n - j,
+                i -> fixedNumeric.mult(residuals.get(i), residualsAndY.getSecond()));
+            ArrayList<List<DRes<SFixed>>> newColumns = new ArrayList<>(columns);
+            newColumns.add(column);
+            return DRes.of(newColumns);
+          });
+
+        }).seq((seq, columns) -> {
+          FixedNumeric fixedNumeric = FixedNumeric.using(seq);
+          return DRes.of(MatrixUtils.buildMatrix(n, m,
+              (i, j) -> i >= j ? columns.get(j).get(i - j) : fixedNumeric.known(0)));
+        });
+  }
+}
@@ -0,0 +1,112 @@
+package dk.alexandra.fresco.stat.linearalgebra;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compute the matrix of inner products <i>a<sub>i</sub> &middot; b<sub>j</sub></i> of two lists of
+ * vectors, eg. <i>A<sup>T</sup>B</i> if the vectors are the columns of two matrices <i>A</i> and
+ * <i>B</i>. If only one list of vectors is given, this is the Gram matrix
+ * <i>A<sup>T</sup>A</i>, which is symmetric, so only the lower half is computed.
+ *
+ * <p>Exploit that we are working with fixed point numbers: The inner products are computed on the
+ * underlying integer representations and each entry is truncated only once, as opposed to once per
+ * product if the inner products were computed using fixed point multiplication. A public factor
+ * to scale all entries by may be given, in which case it is multiplied onto the integer inner
+ * products before they are truncated, so each entry is still truncated only once.</p>
+ */
+public class GramMatrix implements Computation<Matrix<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final List<List<DRes<SFixed>>> a;
+  private final List<List<DRes<SFixed>>> b;
+  private final double scale;
+
+  /**
+   * Compute the Gram matrix of the given vectors.
+   *
+   * @param a A list of vectors of the same length.
+   */
+  public GramMatrix(List<List<DRes<SFixed>>> a) {
+    this(a, null);
+  }
+
+  /**
+   * Compute the inner products of all pairs of vectors from the two lists.
+   *
+   * @param a A list of vectors of the same length.
+   * @param b A list of vectors of the same length as the vectors in <code>a</code>.
+   */
+  public GramMatrix(List<List<DRes<SFixed>>> a, List<List<DRes<SFixed>>> b) {
+    this(a, b, 1.0);
+  }
+
+  /**
+   * Compute the inner products of all pairs of vectors from the two lists scaled by a public
+   * factor.
+   *
+   * @param a     A list of vectors of the same length.
+   * @param b     A list of vectors of the same length as the vectors in <code>a</code>, or
+   *              <code>null</code> to compute the Gram matrix of <code>a</code>.
+   * @param scale A public factor to multiply all entries by.
+   */
+  public GramMatrix(List<List<DRes<SFixed>>> a, List<List<DRes<SFixed>>> b, double scale) {
+    int n = a.get(0).size();
+    if (a.stream().anyMatch(v -> v.size() != n)
+        || (b != null && b.stream().anyMatch(v -> v.size() != n))) {
+      throw new IllegalArgumentException("Vectors must have same size");
+    }
+    this.a = a;
+    this.b = b;
+    this.scale = scale;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    boolean symmetric = b == null;
+    int height = a.size();
+    int width = symmetric ? a.size() : b.size();
+
+    return builder.seq(seq -> new IntegerGramMatrix(unscaled(a), symmetric ? null : unscaled(b))
+        .buildComputation(seq)
+    ).par((par, innerProducts) -> {
+      AdvancedNumeric advancedNumeric = AdvancedNumeric.using(par);
+      int precision = par.getBasicNumericContext().getDefaultFixedPointPrecision();
+      List<List<DRes<SFixed>>> entries = VectorUtils.listBuilder(height,
+          i -> VectorUtils.listBuilder(symmetric ? i + 1 : width, j -> {
+            DRes<SInt> innerProduct = innerProducts.getRow(i).get(j);
+            if (scale == 1.0) {
+              return new SFixed(advancedNumeric.truncate(innerProduct, precision));
+            }
+            // The scaled product has twice the precision, so it is truncated by 2f
+            return new SFixed(advancedNumeric.truncate(
+                par.numeric().mult(unscaled(scale, precision), innerProduct), 2 * precision));
+          }));
+      return DRes.of(entries);
+    }).seq((seq, entries) -> DRes.of(MatrixUtils.buildMatrix(height, width,
+        (i, j) -> !symmetric || j <= i ? entries.get(i).get(j) : entries.get(j).get(i))));
+  }
+
+  /* See dk.alexandra.fresco.lib.fixed.fixed.FixedNumeric.unscaled */
+  private static BigInteger unscaled(double value, int precision) {
+    return BigDecimal.valueOf(value).multiply(new BigDecimal(BigInteger.TWO.pow(precision)))
+        .setScale(0, RoundingMode.HALF_UP).toBigIntegerExact();
+  }
+
+  /* See dk.alexandra.fresco.lib.fixed.fixed.FixedNumeric.unscaled */
+  private static List<List<DRes<SInt>>> unscaled(List<List<DRes<SFixed>>> vectors) {
+    return vectors.stream().map(v -> v.stream().map(x -> x.out().getSInt())
+        .collect(Collectors.toList())).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,82 @@
+package dk.alexandra.fresco.stat.linearalgebra;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.util.List;
+
+/**
+ * Compute the matrix of inner products <i>a<sub>i</sub> &middot; b<sub>j</sub></i> of two lists of
+ * secret integer vectors, eg. <i>A<sup>T</sup>B</i> if the vectors are the columns of two matrices
+ * <i>A</i> and <i>B</i>. If only one list of vectors is given, this is the Gram matrix
+ * <i>A<sup>T</sup>A</i>, which is symmetric, so only the lower half is computed.
+ *
+ * <p>All products are computed in a single round without a separate scope per entry, and the
+ * products are then added, which does not require any communication.</p>
+ */
+public class IntegerGramMatrix implements Computation<Matrix<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final List<List<DRes<SInt>>> a;
+  private final List<List<DRes<SInt>>> b;
+
+  /**
+   * Compute the Gram matrix of the given vectors.
+   *
+   * @param a A list of vectors of the same length.
+   */
+  public IntegerGramMatrix(List<List<DRes<SInt>>> a) {
+    this(a, null);
+  }
+
+  /**
+   * Compute the inner products of all pairs of vectors from the two lists.
+   *
+   * @param a A list of vectors of the same length.
+   * @param b A list of vectors of the same length as the vectors in <code>a</code>.
+   */
+  public IntegerGramMatrix(List<List<DRes<SInt>>> a, List<List<DRes<SInt>>> b) {
+    int n = a.get(0).size();
+    if (a.stream().anyMatch(v -> v.size() != n)
+        || (b != null && b.stream().anyMatch(v -> v.size() != n))) {
+      throw new IllegalArgumentException("Vectors must have same size");
+    }
+    this.a = a;
+    this.b = b;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    boolean symmetric = b == null;
+    List<List<DRes<SInt>>> right = symmetric ? a : b;
+    int height = a.size();
+    int width = right.size();
+    int n = a.get(0).size();
+
+    return builder.par(par -> {
+      Numeric numeric = par.numeric();
+      List<List<List<DRes<SInt>>>> products = VectorUtils.listBuilder(height,
+          i -> VectorUtils.listBuilder(symmetric ? i + 1 : width,
+              j -> VectorUtils.listBuilder(n,
+                  k -> numeric.mult(a.get(i).get(k), right.get(j).get(k)))));
+      return DRes.of(products);
+    }).seq((seq, products) -> {
+      Numeric numeric = seq.numeric();
+      List<List<DRes<SInt>>> entries = VectorUtils.listBuilder(products.size(),
+          i -> VectorUtils.listBuilder(products.get(i).size(), j -> {
+            List<DRes<SInt>> terms = products.get(i).get(j);
+            DRes<SInt> sum = terms.get(0);
+            for (int k = 1; k < n; k++) {
+              sum = numeric.add(sum, terms.get(k));
+            }
+            return sum;
+          }));
+      return DRes.of(MatrixUtils.buildMatrix(height, width,
+          (i, j) -> !symmetric || j <= i ? entries.get(i).get(j) : entries.get(j).get(i)));
+    });
+  }
+}
@@ -49,7 +49,7 @@ public class MahalanobisDistance implements
         seq.seq(new MoorePenrosePseudoInverse(S))
     ).par((par, Sinv) -> {
       ArrayList<DRes<SFixed>> result = new ArrayList<>();
-      for (int i = 0; i < X.size(); i++) {
+      for (int i = 0; i < X.get(0).size(); i++) {
         int finalI = i;
         DRes<SFixed> d = par.seq(seq -> {
           ArrayList<DRes<SFixed>> diff = VectorUtils.sub(getIthObservation(finalI), mean, seq);
@@ -12,6 +12,9 @@ import dk.alexandra.fresco.lib.fixed.SFixed;
 import dk.alexandra.fresco.stat.descriptive.SampleMean;
 import dk.alexandra.fresco.stat.descriptive.SampleSkewnessAndKurtosis;
 import dk.alexandra.fresco.stat.descriptive.helpers.SSD;
+import dk.alexandra.fresco.stat.linearalgebra.BackSubstitution;
+import dk.alexandra.fresco.stat.linearalgebra.CholeskyDecomposition;
+import dk.alexandra.fresco.stat.linearalgebra.GramMatrix;
 import dk.alexandra.fresco.stat.linearalgebra.InvertUpperTriangularMatrix;
 import dk.alexandra.fresco.stat.linearalgebra.QRDecomposition;
 import dk.alexandra.fresco.stat.regression.linear.LinearRegression.LinearRegressionResult;
@@ -25,6 +28,10 @@ import java.util.stream.Collectors;
 /**
  * Fit a linear model to the given dataset and output estimates for the coefficients and some model
  * diagnostics (see {@link LinearRegressionResult}).
+ *
+ * <p>The normal equations may be solved in two ways (see {@link Solver}). Both give the
+ * upper-triangular matrix <i>R</i> with <i>X<sup>T</sup>X = R<sup>T</sup>R</i>, which is also used
+ * to compute the standard errors of the estimates.</p>
  */
 public class LinearRegression implements
     Computation<LinearRegressionResult, ProtocolBuilderNumeric> {
@@ -33,14 +40,25 @@ public class LinearRegression implements
   private final int n;
   private final int p;
   private final ArrayList<DRes<SFixed>> y;
+  private final Solver solver;
   private final boolean computeModelDiagnostics;
 
   public LinearRegression(List<ArrayList<DRes<SFixed>>> observations, ArrayList<DRes<SFixed>> y) {
-    this(observations, y, true);
+    this(observations, y, Solver.QR);
+  }
+
+  public LinearRegression(List<ArrayList<DRes<SFixed>>> observations, ArrayList<DRes<SFixed>> y,
+      Solver solver) {
+    this(observations, y, solver, true);
   }
 
   LinearRegression(List<ArrayList<DRes<SFixed>>> observations, ArrayList<DRes<SFixed>> y,
       boolean computeModelDiagnostics) {
+    this(observations, y, Solver.QR, computeModelDiagnostics);
+  }
+
+  LinearRegression(List<ArrayList<DRes<SFixed>>> observations, ArrayList<DRes<SFixed>> y,
+      Solver solver, boolean computeModelDiagnostics) {
     if (observations.stream().mapToInt(ArrayList::size).distinct().count() != 1) {
       throw new IllegalArgumentException(
           "Each observation must contain the same number of entries");
@@ -55,6 +73,7 @@ public class LinearRegression implements
     this.n = observations.size();
     this.p = observations.get(0).size();
     this.y = y;
+    this.solver = solver;
     this.computeModelDiagnostics = computeModelDiagnostics;
   }
 
@@ -63,25 +82,10 @@ public class LinearRegression implements
     Matrix<DRes<SFixed>> x = new Matrix<>(n, p, new ArrayList<>(observations));
 
     State state = new State();
-    return builder.seq(new QRDecomposition(x))
-        .seq((seq, qr) -> {
-
-          state.qr = qr;
-          return new InvertUpperTriangularMatrix(state.qr.getSecond())
-              .buildComputation(seq);
-
-        }).seq((seq, rInverse) -> {
-
-          FixedLinearAlgebra fixedLinearAlgebra = FixedLinearAlgebra.using(seq);
-          state.qInverse = fixedLinearAlgebra
-              .mult(DRes.of(rInverse), DRes.of(MatrixUtils.transpose(rInverse)));
-          state.estimates = fixedLinearAlgebra
-              .vectorMult(
-                  fixedLinearAlgebra.mult(state.qInverse, DRes.of(MatrixUtils.transpose(x))),
-                  DRes.of(y));
-          return state;
-
-        }).par((par, s) -> {
+    return builder.seq(seq -> solver == Solver.QR
+            ? solveWithQR(x, state, seq)
+            : solveWithCholesky(x, state, seq))
+        .par((par, s) -> {
 
           state.mean = par.seq(new SampleMean(y));
           state.yHat = FixedLinearAlgebra.using(par).vectorMult(DRes.of(x), state.estimates);
@@ -137,7 +141,7 @@ public class LinearRegression implements
                             FixedNumeric.using(seq).sub(1, state.rSquared))));
 
                 // Compute std errors (squared) for all estimates
-                state.errors = par.seq(new InvertUpperTriangularMatrix(state.qr.getSecond())
+                state.errors = par.seq(new InvertUpperTriangularMatrix(state.r)
                 ).seq((seq, rInverse) -> {
                   FixedLinearAlgebra fixedLinearAlgebra = FixedLinearAlgebra.using(seq);
                   return fixedLinearAlgebra
@@ -169,6 +173,88 @@ public class LinearRegression implements
         }).seq((seq, s) -> new LinearRegressionResult(s));
   }
 
+  /**
+   * Compute <i>R</i> using a QR-decomposition of the design matrix and the estimates as
+   * <i>(R<sup>-1</sup> R<sup>-T</sup>) X<sup>T</sup>y</i>.
+   */
+  private DRes<State> solveWithQR(Matrix<DRes<SFixed>> x, State state,
+      ProtocolBuilderNumeric builder) {
+    return builder.seq(new QRDecomposition(x))
+        .seq((seq, qr) -> {
+
+          state.r = qr.getSecond();
+          return new InvertUpperTriangularMatrix(state.r).buildComputation(seq);
+
+        }).seq((seq, rInverse) -> {
+
+          FixedLinearAlgebra fixedLinearAlgebra = FixedLinearAlgebra.using(seq);
+          DRes<Matrix<DRes<SFixed>>> qInverse = fixedLinearAlgebra
+              .mult(DRes.of(rInverse), DRes.of(MatrixUtils.transpose(rInverse)));
+
+          // Compute (X^T X)^{-1} (X^T y) rather than ((X^T X)^{-1} X^T) y to avoid a p x n matrix
+          // product, and compute X^T y with only one truncation per entry
+          DRes<Matrix<DRes<SFixed>>> xty = new GramMatrix(
+              VectorUtils.<List<DRes<SFixed>>>listBuilder(p, x::getColumn), List.of(y))
+              .buildComputation(seq);
+          state.estimates = fixedLinearAlgebra.vectorMult(qInverse,
+              () -> xty.out().getColumn(0));
+          return state;
+
+        });
+  }
+
+  /**
+   * Compute <i>X<sup>T</sup>X</i> and <i>X<sup>T</sup>y</i> together as the Gram matrix of the
+   * columns of <i>X</i> and <i>y</i>, and solve the normal equations using a Cholesky decomposition
+   * <i>X<sup>T</sup>X = LL<sup>T</sup></i>, so <i>R = L<sup>T</sup></i>.
+   */
+  private DRes<State> solveWithCholesky(Matrix<DRes<SFixed>> x, State state,
+      ProtocolBuilderNumeric builder) {
+    return builder.seq(seq -> {
+
+      List<List<DRes<SFixed>>> columns = new ArrayList<>(
+          VectorUtils.<List<DRes<SFixed>>>listBuilder(p, x::getColumn));
+      columns.add(y);
+      return new GramMatrix(columns).buildComputation(seq);
+
+    }).seq((seq, gram) -> new CholeskyDecomposition(gram, p).buildComputation(seq)
+    ).seq((seq, augmented) -> {
+
+      // The Cholesky decomposition of the Gram matrix of [X | y] is [L 0 | z^T s] where LL^T =
+      // X^T X and Lz = X^T y, so the forward substitution comes for free and only L^T b = z must be
+      // solved. This also avoids the reciprocals of the diagonal of L in the forward substitution.
+      // The last pivot s^2 is the SSE, which is not needed and is close to zero for a good fit, so
+      // we stop after the first p columns.
+      state.r = MatrixUtils.buildMatrix(p, p, (i, j) -> augmented.getRow(j).get(i));
+      ArrayList<DRes<SFixed>> z = new ArrayList<>(augmented.getRow(p).subList(0, p));
+      state.estimates = new BackSubstitution(state.r, z).buildComputation(seq);
+      return state;
+
+    });
+  }
+
+  /**
+   * The method used to solve the normal equations <i>X<sup>T</sup>X b = X<sup>T</sup>y</i>.
+   */
+  public enum Solver {
+
+    /**
+     * Compute a QR-decomposition of the <i>nxp</i> design matrix <i>X</i> using Gram-Schmidt. This
+     * uses <i>O(p)</i> rounds of projections of vectors of length <i>n</i>.
+     */
+    QR,
+
+    /**
+     * Compute the <i>pxp</i> matrix <i>X<sup>T</sup>X</i> and <i>X<sup>T</sup>y</i> using
+     * <i>O(np<sup>2</sup>)</i> multiplications in a constant number of rounds, and solve the normal
+     * equations using a Cholesky decomposition and a triangular solve on this small matrix. This
+     * is cheaper than QR when there are many observations, but less accurate for ill-conditioned
+     * design matrices since the condition number of <i>X<sup>T</sup>X</i> is the square of the
+     * condition number of <i>X</i>.
+     */
+    CHOLESKY
+  }
+
   /** Class used to store results and intermediate results during computation */
   private static class State implements DRes<State> {
 
@@ -178,9 +264,8 @@ public class LinearRegression implements
     public DRes<SFixed> omnibus;
     private DRes<SFixed> adjustedRSquared;
     private DRes<ArrayList<DRes<SFixed>>> yHat;
-    private Pair<Matrix<DRes<SFixed>>, Matrix<DRes<SFixed>>> qr;
+    private Matrix<DRes<SFixed>> r;
     private DRes<ArrayList<DRes<SFixed>>> t;
-    private DRes<Matrix<DRes<SFixed>>> qInverse;
     private ArrayList<DRes<SFixed>> residuals;
     private DRes<SFixed> durbinWatson;
     private DRes<SFixed> mean;
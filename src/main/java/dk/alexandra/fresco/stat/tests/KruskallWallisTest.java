@@ -9,6 +9,8 @@ import dk.alexandra.fresco.lib.fixed.AdvancedFixedNumeric;
 import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
 import dk.alexandra.fresco.stat.descriptive.Ranks;
+import dk.alexandra.fresco.stat.descriptive.sort.SortColumn;
+import dk.alexandra.fresco.stat.descriptive.sort.SortedColumn;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,9 +29,20 @@ import java.util.stream.Collectors;
 public class KruskallWallisTest implements Computation<SFixed, ProtocolBuilderNumeric> {
 
   private final List<List<DRes<SInt>>> observed;
+  private final DRes<SortedColumn> sortedColumn;
 
   public KruskallWallisTest(List<List<DRes<SInt>>> observed) {
     this.observed = observed;
+    this.sortedColumn = null;
+  }
+
+  /**
+   * Compute the test statistic from groups which have already been sorted using {@link
+   * SortColumn}. Note that this always averages ties.
+   */
+  public KruskallWallisTest(DRes<SortedColumn> sortedColumn) {
+    this.observed = null;
+    this.sortedColumn = sortedColumn;
   }
 
   /**
@@ -48,32 +61,40 @@ public class KruskallWallisTest implements Computation<SFixed, ProtocolBuilderNu
 
   @Override
   public DRes<SFixed> buildComputation(ProtocolBuilderNumeric builder) {
-    int groups = observed.size();
-    int N = observed.stream().mapToInt(List::size).sum();
-
-    return builder.seq(seq -> new Ranks(observed)
-        .buildComputation(seq)).par((par, ranks) -> {
-      List<DRes<SFixed>> squared = ranks.getFirst().stream()
-          .map(rank -> FixedNumeric.using(par).mult(rank, rank))
-          .collect(
-              Collectors.toList());
-      return Pair.lazy(squared, ranks.getSecond());
-    }).par((par, squared) -> {
-      List<DRes<SFixed>> squaredAverages = new ArrayList<>();
-      for (int i = 0; i < groups; i++) {
-        squaredAverages
-            .add(FixedNumeric.using(par).div(squared.getFirst().get(i), observed.get(i).size()));
+    return builder.seq(seq -> {
+      if (sortedColumn == null) {
+        return new SortColumn(observed).buildComputation(seq);
+      } else {
+        return sortedColumn;
       }
-      return Pair.lazy(squaredAverages, squared.getSecond());
-    }).seq((seq, squaredAverages) -> {
-      DRes<SFixed> h = AdvancedFixedNumeric.using(seq).sum(squaredAverages.getFirst());
+    }).seq((seq, sorted) -> {
+      List<Integer> groupSizes = sorted.getGroupSizes();
+      int groups = groupSizes.size();
+      int N = sorted.size();
+
+      return seq.seq(new Ranks(sorted)).par((par, ranks) -> {
+        List<DRes<SFixed>> squared = ranks.getFirst().stream()
+            .map(rank -> FixedNumeric.using(par).mult(rank, rank))
+            .collect(
+                Collectors.toList());
+        return Pair.lazy(squared, ranks.getSecond());
+      }).par((par, squared) -> {
+        List<DRes<SFixed>> squaredAverages = new ArrayList<>();
+        for (int i = 0; i < groups; i++) {
+          squaredAverages
+              .add(FixedNumeric.using(par).div(squared.getFirst().get(i), groupSizes.get(i)));
+        }
+        return Pair.lazy(squaredAverages, squared.getSecond());
+      }).seq((sub, squaredAverages) -> {
+        DRes<SFixed> h = AdvancedFixedNumeric.using(sub).sum(squaredAverages.getFirst());
 
-      FixedNumeric numeric = FixedNumeric.using(seq);
-      h = numeric.mult(12.0, h);
-      h = numeric.div(h, N * (N + 1));
-      h = numeric.sub(h, 3 * (N + 1));
-      h = numeric.mult(squaredAverages.getSecond(), h);
-      return h;
+        FixedNumeric numeric = FixedNumeric.using(sub);
+        h = numeric.mult(12.0, h);
+        h = numeric.div(h, N * (N + 1));
+        h = numeric.sub(h, 3 * (N + 1));
+        h = numeric.mult(squaredAverages.getSecond(), h);
+        return h;
+      });
     });
   }
 }
@@ -3,19 +3,35 @@ package dk.alexandra.fresco.stat.utils;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 public class Indicator implements Computation<SInt, ProtocolBuilderNumeric> {
 
-  // Cache polynomials
-  private static final Map<Triple<Integer, Integer, BigInteger>, List<BigInteger>> polynomials = new HashMap<>();
+  /**
+   * The maximum number of (range, modulus) pairs for which the filter polynomials are cached.
+   */
+  private static final int CACHE_SIZE = 32;
+
+  // Cache polynomials for all values of a range. Accessed from all sessions in the JVM.
+  private static final Map<Pair<Integer, BigInteger>, List<List<BigInteger>>> polynomials =
+      Collections.synchronizedMap(new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(
+            Map.Entry<Pair<Integer, BigInteger>, List<List<BigInteger>>> eldest) {
+          return size() > CACHE_SIZE;
+        }
+      });
+
   private final int range;
   private final int filterValue;
   private final DRes<SInt> value;
@@ -38,74 +54,71 @@ public class Indicator implements Computation<SInt, ProtocolBuilderNumeric> {
   }
 
   /**
-   * Compute the product of two polynomials
+   * Compute the coefficients of a polynomial <i>p</i> such that <i>p(filterValue) = 1</i> and
+   * <i>p(x) = 0</i> for <i>0 &le; x &lt; range</i> and <i>x &ne; filterValue</i>.
    */
-  private static List<BigInteger> polynomialMultiplication(List<BigInteger> x, List<BigInteger> y) {
-    int degreeX = degree(x);
-    int degreeY = degree(y);
-
-    int degreeZ = degreeX + degreeY;
-    List<BigInteger> z = new ArrayList<>(degreeZ + 1);
-    for (int i = 0; i < degreeZ + 1; i++) {
-      BigInteger c = BigInteger.ZERO;
-      for (int j = 0; j < i + 1; j++) {
-        c = c.add((j < x.size() ? x.get(j) : BigInteger.ZERO)
-            .multiply(i - j < y.size() ? y.get(i - j) : BigInteger.ZERO));
-      }
-      z.add(c);
-    }
-    return z;
+  static List<BigInteger> computeFilter(int range, int filterValue, BigInteger modulus) {
+    return filterPolynomials(range, modulus).get(filterValue);
   }
 
   /**
-   * Compute the degree of a polynomial
+   * Get the filter polynomials for all values in the given range, eg. the <i>i</i>'th polynomial
+   * <i>p<sub>i</sub></i> satisfies <i>p<sub>i</sub>(i) = 1</i> and <i>p<sub>i</sub>(x) = 0</i> for
+   * all other <i>0 &le; x &lt; range</i>.
+   *
+   * <p>The polynomials are cached, so this may be called at startup to avoid computing them
+   * while running a computation.</p>
    */
-  private static int degree(List<BigInteger> x) {
-    int degree = 0;
-    for (int i = 0; i < x.size(); i++) {
-      if (!x.get(i).equals(BigInteger.ZERO)) {
-        degree = i;
-      }
-    }
-    return degree;
+  public static List<List<BigInteger>> filterPolynomials(int range, BigInteger modulus) {
+    return polynomials.computeIfAbsent(new Pair<>(range, modulus),
+        key -> computeFilters(range, modulus));
   }
 
   /**
-   * Compute the coefficients of a polynomial <i>p</i> such that <i>p(filterValue) = 1</i> and
-   * <i>p(x) = 0</i> for <i>0 &le; x /lt; range</i> and <i>x &ne; filterValue</i>.
+   * Compute all filter polynomials for the given range. The polynomial with roots at all values
+   * in the range is computed first, and the filter polynomial for each value is found by dividing
+   * it by <i>x - filterValue</i> and normalizing.
    */
-  static List<BigInteger> computeFilter(int range, int filterValue, BigInteger modulus) {
-
-    if (polynomials.containsKey(new Triple<>(range, filterValue, modulus))) {
-      return polynomials.get(new Triple<>(range, filterValue, modulus));
-    }
+  private static List<List<BigInteger>> computeFilters(int range, BigInteger modulus) {
 
-    List<BigInteger> p = List.of(BigInteger.ONE);
+    // Coefficients of (x - 0)(x - 1)...(x - (range - 1))
+    BigInteger[] p = new BigInteger[range + 1];
+    Arrays.fill(p, BigInteger.ZERO);
+    p[0] = BigInteger.ONE;
     for (int i = 0; i < range; i++) {
-      if (i == filterValue) {
-        continue;
+      BigInteger root = BigInteger.valueOf(i);
+      for (int j = i + 1; j > 0; j--) {
+        p[j] = p[j - 1].subtract(root.multiply(p[j])).mod(modulus);
       }
-      p = polynomialMultiplication(p, List.of(BigInteger.valueOf(-i), BigInteger.ONE));
+      p[0] = p[0].multiply(root).negate().mod(modulus);
     }
 
-    BigInteger correction = evaluate(p, BigInteger.valueOf(filterValue), modulus)
-        .modInverse(modulus);
-    List<BigInteger> polynomial = p.stream().map(pi -> pi.multiply(correction).mod(modulus))
-        .collect(
-            Collectors.toList());
-    polynomials.put(new Triple<>(range, filterValue, modulus), polynomial);
-    return polynomial;
-  }
+    // The filter polynomial for v is p(x) / (x - v) divided by its value at v, which is
+    // prod_{i != v} (v - i) = (-1)^(range - 1 - v) v! (range - 1 - v)!
+    BigInteger[] factorials = new BigInteger[range];
+    factorials[0] = BigInteger.ONE;
+    for (int i = 1; i < range; i++) {
+      factorials[i] = factorials[i - 1].multiply(BigInteger.valueOf(i)).mod(modulus);
+    }
 
-  /**
-   * Evaluate a polynomial on a given value <i>x</i>.
-   */
-  static BigInteger evaluate(List<BigInteger> polynomial, BigInteger x, BigInteger modulus) {
-    BigInteger y = BigInteger.ZERO;
-    for (int i = 0; i < polynomial.size(); i++) {
-      y = y.add(polynomial.get(i).multiply(x.modPow(BigInteger.valueOf(i), modulus))).mod(modulus);
+    List<List<BigInteger>> filters = new ArrayList<>(range);
+    for (int v = 0; v < range; v++) {
+      BigInteger value = factorials[v].multiply(factorials[range - 1 - v]);
+      if ((range - 1 - v) % 2 == 1) {
+        value = value.negate();
+      }
+      BigInteger correction = value.mod(modulus).modInverse(modulus);
+
+      // Synthetic division by x - v
+      BigInteger[] q = new BigInteger[range];
+      q[range - 1] = p[range];
+      for (int j = range - 1; j > 0; j--) {
+        q[j - 1] = p[j].add(BigInteger.valueOf(v).multiply(q[j])).mod(modulus);
+      }
+      filters.add(Arrays.stream(q).map(qi -> qi.multiply(correction).mod(modulus))
+          .collect(Collectors.toUnmodifiableList()));
     }
-    return y;
+    return Collections.unmodifiableList(filters);
   }
 
   @Override
@@ -0,0 +1,28 @@
+package dk.alexandra.fresco.stat.utils;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * A pseudo-random function with a secret key which is used to find equal elements in a list of
+ * secret values without revealing the values, eg. to find ties or count frequencies. The outputs
+ * are opened, so all parties learn which of the values are equal.
+ */
+public interface KeyedPRF {
+
+  /**
+   * Sample a fresh secret key and evaluate the PRF on all the given values using this key. The
+   * outputs are opened. Equal values give equal outputs, and distinct values give distinct outputs
+   * except with negligible probability.
+   *
+   * @param values  The values to evaluate the PRF on.
+   * @param builder The builder to use.
+   * @return The opened outputs.
+   */
+  DRes<List<BigInteger>> evaluateAndOpen(List<DRes<SInt>> values,
+      ProtocolBuilderNumeric builder);
+
+}
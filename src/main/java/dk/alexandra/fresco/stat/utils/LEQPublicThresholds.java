@@ -0,0 +1,80 @@
+package dk.alexandra.fresco.stat.utils;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compare a secret value to a list of public thresholds, eg. compute <i>[x &le; t<sub>j</sub>]</i>
+ * for all <i>j</i>.
+ *
+ * <p>Comparing the value to each threshold using <code>compareLEQ</code> would use a fresh random
+ * mask with known bits and an opening per threshold. Here the value is masked once, and the
+ * comparisons to all thresholds are computed from the same opened value and the same bits. As in
+ * FRESCO's comparisons, <i>[x &le; t]</i> is computed as the sign of <i>d = x - t - 1</i>, which is
+ * found from <i>d mod 2<sup>l - 1</sup></i> where <i>l</i> is the maximum bit length, and this
+ * only needs a comparison of a public value with the low bits of the shared mask per threshold.</p>
+ *
+ * <p>As for <code>compareLEQ</code>, the absolute value of <i>x - t - 1</i> must be smaller than
+ * <i>2<sup>l - 1</sup></i> for all thresholds.</p>
+ */
+public class LEQPublicThresholds implements
+    Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final DRes<SInt> value;
+  private final List<BigInteger> thresholds;
+
+  /**
+   * @param value      A secret value.
+   * @param thresholds The public thresholds to compare the value to.
+   */
+  public LEQPublicThresholds(DRes<SInt> value, List<BigInteger> thresholds) {
+    this.value = value;
+    this.thresholds = thresholds;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    BasicNumericContext context = builder.getBasicNumericContext();
+    int m = context.getMaxBitLength() - 1;
+    BigInteger twoToM = BigInteger.ONE.shiftLeft(m);
+    BigInteger twoToMInverse = twoToM.modInverse(context.getModulus());
+
+    return builder.seq(seq -> AdvancedNumeric.using(seq)
+        .additiveMask(context.getMaxBitLength() + context.getStatisticalSecurityParam()))
+        .seq((seq, mask) -> {
+          // Open c = 2^m + x + r. The shift ensures that c - t - 1 = 2^m + d + r is non-negative
+          DRes<SInt> masked = seq.numeric().add(twoToM, seq.numeric().add(mask.value, value));
+
+          // The m least significant bits of the mask
+          List<DRes<SInt>> lowBits = mask.bits.subList(0, m);
+          DRes<SInt> low = AdvancedNumeric.using(seq).innerProductWithPublicPart(
+              VectorUtils.listBuilder(m, i -> BigInteger.ONE.shiftLeft(i)), lowBits);
+          return Pair.lazy(new Pair<>(lowBits, seq.numeric().add(low, value)),
+              seq.numeric().open(masked));
+        }).par((par, maskAndOpened) -> {
+          List<DRes<SInt>> lowBits = maskAndOpened.getFirst().getFirst();
+          DRes<SInt> lowPlusValue = maskAndOpened.getFirst().getSecond();
+          BigInteger c = maskAndOpened.getSecond().out().mod(context.getModulus());
+          List<DRes<SInt>> result = thresholds.stream().map(t -> par.seq(seq -> {
+            // With c' = c - t - 1 mod 2^m and r' = r mod 2^m we have
+            // d mod 2^m = c' - r' + 2^m [c' < r'] and [d < 0] = ((d mod 2^m) - d) / 2^m
+            BigInteger ct = c.subtract(t).subtract(BigInteger.ONE).mod(twoToM);
+            DRes<SInt> underflow = Comparison.using(seq).compareLTBits(ct, DRes.of(lowBits));
+            DRes<SInt> difference = seq.numeric()
+                .sub(ct.add(t).add(BigInteger.ONE), lowPlusValue);
+            return seq.numeric().add(underflow, seq.numeric().mult(twoToMInverse, difference));
+          })).collect(Collectors.toList());
+          return DRes.of(result);
+        });
+  }
+
+}
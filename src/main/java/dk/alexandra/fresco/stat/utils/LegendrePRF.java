@@ -0,0 +1,73 @@
+package dk.alexandra.fresco.stat.utils;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * A {@link KeyedPRF} based on the Legendre symbol: Given a random key <i>k</i>, the output on
+ * <i>x</i> is the Legendre symbol of <i>x + k</i> modulo the field's prime. An output bit is
+ * computed by opening <i>(x + k)r<sup>2</sup></i> for a random <i>r</i>, which has the same
+ * Legendre symbol as <i>x + k</i> but reveals nothing else about it, so each bit uses two
+ * multiplications and a single opening in a constant number of rounds (see Grassi et al.:
+ * "MPC-Friendly Symmetric Key Primitives", CCS 2016).
+ *
+ * <p>To avoid collisions, the output consists of <i>t = s + 2 &lceil;log<sub>2</sub> n&rceil;</i>
+ * bits computed with independent keys, where <i>s</i> is the statistical security parameter and
+ * <i>n</i> is the number of values, so the probability that two distinct values among the
+ * <i>n</i> values have the same output is at most <i>2<sup>-s</sup></i>.</p>
+ */
+public class LegendrePRF implements KeyedPRF {
+
+  @Override
+  public DRes<List<BigInteger>> evaluateAndOpen(List<DRes<SInt>> values,
+      ProtocolBuilderNumeric builder) {
+    BasicNumericContext context = builder.getBasicNumericContext();
+    int n = values.size();
+    int t = context.getStatisticalSecurityParam()
+        + 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(n - 1, 1)));
+    BigInteger modulus = context.getModulus();
+    BigInteger exponent = modulus.shiftRight(1);
+
+    return builder.par(par -> {
+      List<DRes<SInt>> keys = VectorUtils.listBuilder(t, i -> par.numeric().randomElement());
+      List<List<DRes<SInt>>> masks = VectorUtils.listBuilder(n,
+          j -> VectorUtils.listBuilder(t, i -> par.numeric().randomElement()));
+      return Pair.lazy(keys, masks);
+    }).par((par, keysAndMasks) -> {
+      List<DRes<SInt>> keys = keysAndMasks.getFirst();
+      List<List<DRes<SInt>>> masks = keysAndMasks.getSecond();
+      List<List<DRes<SInt>>> squares = VectorUtils.listBuilder(n,
+          j -> VectorUtils.listBuilder(t, i -> par.numeric().mult(masks.get(j).get(i),
+              masks.get(j).get(i))));
+      List<List<DRes<SInt>>> shifted = VectorUtils.listBuilder(n,
+          j -> VectorUtils.listBuilder(t, i -> par.numeric().add(values.get(j), keys.get(i))));
+      return Pair.lazy(shifted, squares);
+    }).par((par, shiftedAndSquares) -> {
+      List<List<DRes<SInt>>> masked = VectorUtils.listBuilder(n,
+          j -> VectorUtils.listBuilder(t, i -> par.numeric().mult(
+              shiftedAndSquares.getFirst().get(j).get(i),
+              shiftedAndSquares.getSecond().get(j).get(i))));
+      return DRes.of(masked);
+    }).par((par, masked) -> {
+      List<List<DRes<BigInteger>>> opened = VectorUtils.listBuilder(n,
+          j -> VectorUtils.listBuilder(t, i -> par.numeric().open(masked.get(j).get(i))));
+      return DRes.of(opened);
+    }).seq((seq, opened) -> DRes.of(VectorUtils.listBuilder(n, j -> {
+      BigInteger output = BigInteger.ZERO;
+      for (int i = 0; i < t; i++) {
+        // Euler's criterion: c^((p-1)/2) is 1 if c is a non-zero square and -1 otherwise
+        BigInteger c = opened.get(j).get(i).out().mod(modulus);
+        if (!c.modPow(exponent, modulus).equals(BigInteger.ONE)) {
+          output = output.setBit(i);
+        }
+      }
+      return output;
+    })));
+  }
+
+}
@@ -0,0 +1,30 @@
+package dk.alexandra.fresco.stat.utils;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.mimc.MiMCEncryption;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link KeyedPRF} using MiMC encryption with a random key. The number of rounds is
+ * proportional to the bit length of the modulus, since each round of MiMC is a cubing.
+ */
+public class MiMCPRF implements KeyedPRF {
+
+  @Override
+  public DRes<List<BigInteger>> evaluateAndOpen(List<DRes<SInt>> values,
+      ProtocolBuilderNumeric builder) {
+    return builder.seq(seq -> seq.numeric().randomElement()).par((par, mimcKey) -> {
+      List<DRes<BigInteger>> ciphers = values.stream().map(entry -> par.seq(seq -> {
+        DRes<SInt> cipherText = seq.seq(new MiMCEncryption(entry, DRes.of(mimcKey)));
+        return seq.numeric().open(cipherText);
+      })).collect(Collectors.toList());
+      return DRes.of(ciphers);
+    }).seq((seq, ciphers) -> DRes.of(ciphers.stream().map(DRes::out)
+        .collect(Collectors.toList())));
+  }
+
+}
@@ -0,0 +1,61 @@
+package dk.alexandra.fresco.stat.utils;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compare a secret value to a list of bounds. The output is a list of indicators
+ * <i>[x &le; b<sub>i</sub>]</i> followed by a 1, which indicates that the value is in the last,
+ * unbounded bucket of a cumulative histogram.
+ */
+public class MultiLEQ implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final DRes<SInt> lhs;
+  private final List<DRes<SInt>> rhs;
+  private final BigInteger[] publicRhs;
+
+  /**
+   * @param lhs A secret value.
+   * @param rhs The secret bounds to compare the value to.
+   */
+  public MultiLEQ(DRes<SInt> lhs, List<DRes<SInt>> rhs) {
+    this.lhs = lhs;
+    this.rhs = rhs;
+    this.publicRhs = null;
+  }
+
+  /**
+   * @param lhs A secret value.
+   * @param rhs The public bounds to compare the value to.
+   */
+  public MultiLEQ(DRes<SInt> lhs, BigInteger[] rhs) {
+    this.lhs = lhs;
+    this.rhs = null;
+    this.publicRhs = rhs;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.par(par -> {
+      if (publicRhs != null) {
+        return new LEQPublicThresholds(lhs, Arrays.asList(publicRhs)).buildComputation(par);
+      }
+      Comparison comparison = Comparison.using(par);
+      return DRes.of(rhs.stream().map(x -> comparison.compareLEQ(lhs, x))
+          .collect(Collectors.toList()));
+    }).seq((seq, c) -> {
+      List<DRes<SInt>> result = new ArrayList<>(c);
+      result.add(seq.numeric().known(1));
+      return DRes.of(result);
+    });
+  }
+
+}
@@ -0,0 +1,93 @@
+package dk.alexandra.fresco.stat.utils;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Given a <i>range</i> and a value where <i>0 &le; value &lt; range</i> this computation returns a
+ * list of <i>0</i>'s and <i>1</i>'s such that the <i>value</i>'th entry is the only nonzero
+ * value.
+ *
+ * <p>This computes the same as {@link ParallelIndicator} but uses a constant number of rounds and
+ * no polynomial evaluation. Let <i>m = 2<sup>k</sup></i> be the smallest power of two which is at
+ * least the range. A uniformly random <i>s</i> with <i>0 &le; s &lt; m</i> is sampled as <i>k</i>
+ * random bits, and the one-hot encoding of <i>s</i> is computed as the product of either the bit or
+ * one minus the bit for each of the bits, using a {@link ProductTree}. In parallel, <i>c = x + s
+ * mod m</i> is opened, which reveals nothing about <i>x</i> since <i>s</i> is uniformly random.
+ * The encoding of <i>x</i> is then the encoding of <i>s = c - x mod m</i> rotated by <i>c</i>.</p>
+ *
+ * <p>To open <i>c</i> without computing a reduction modulo <i>m</i>, we open <i>x + s + mt</i>
+ * where <i>t</i> is a random number with as many bits as the statistical security parameter.</p>
+ *
+ * <p>This uses about <i>m</i> multiplications and a single opening in <i>&lceil;log<sub>2</sub>
+ * k&rceil; + 1</i> rounds, while {@link ParallelIndicator} uses <i>range</i> multiplications in
+ * <i>log<sub>2</sub> range</i> rounds but also <i>O(range<sup>2</sup>)</i> local operations per
+ * value and <i>O(range<sup>3</sup>)</i> to compute the polynomials, so this should be preferred
+ * for large ranges.</p>
+ */
+public class OneHotEncoding implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final int range;
+  private final DRes<SInt> value;
+
+  public OneHotEncoding(int range, DRes<SInt> value) {
+    if (range < 2) {
+      throw new IllegalArgumentException("Range must be at least 2");
+    }
+    this.range = range;
+    this.value = value;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    int k = Integer.SIZE - Integer.numberOfLeadingZeros(range - 1);
+    int m = 1 << k;
+    BigInteger modulus = builder.getBasicNumericContext().getModulus();
+
+    return builder.par(par -> {
+      List<DRes<SInt>> bits = VectorUtils.listBuilder(k, i -> par.numeric().randomBit());
+      DRes<AdvancedNumeric.RandomAdditiveMask> t = AdvancedNumeric.using(par)
+          .additiveMask(par.getBasicNumericContext().getStatisticalSecurityParam());
+      return Pair.lazy(bits, t);
+    }).seq((seq, bitsAndMask) -> {
+      Numeric numeric = seq.numeric();
+      List<DRes<SInt>> bits = bitsAndMask.getFirst();
+      List<List<DRes<SInt>>> factors = bits.stream()
+          .map(bit -> List.of(numeric.sub(BigInteger.ONE, bit), bit))
+          .collect(Collectors.toList());
+      DRes<SInt> s = AdvancedNumeric.using(seq).innerProductWithPublicPart(
+          VectorUtils.listBuilder(k, i -> BigInteger.ONE.shiftLeft(i)), bits);
+      DRes<SInt> masked = numeric.add(numeric.add(value, s),
+          numeric.mult(BigInteger.valueOf(m), bitsAndMask.getSecond().out().value));
+      return Pair.lazy(factors, masked);
+    }).par((par, factorsAndMasked) -> Pair.lazy(
+        new ProductTree(factorsAndMasked.getFirst()).buildComputation(par),
+        par.numeric().open(factorsAndMasked.getSecond()))
+    ).seq((seq, encodingAndOpened) -> {
+      MultiDimensionalArray<DRes<SInt>> encoding = encodingAndOpened.getFirst().out();
+      int c = encodingAndOpened.getSecond().out().mod(modulus)
+          .mod(BigInteger.valueOf(m)).intValue();
+      List<DRes<SInt>> result = IntStream.range(0, range)
+          .mapToObj(x -> encoding.get(bitsOf(Math.floorMod(c - x, m), k)))
+          .collect(Collectors.toList());
+      return DRes.of(result);
+    });
+  }
+
+  /**
+   * Return the <i>k</i> least significant bits of <i>x</i>, least significant bit first.
+   */
+  private static List<Integer> bitsOf(int x, int k) {
+    return IntStream.range(0, k).map(i -> (x >> i) & 1).boxed().collect(Collectors.toList());
+  }
+
+}
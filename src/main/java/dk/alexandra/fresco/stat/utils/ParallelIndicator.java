@@ -27,12 +27,13 @@ public class ParallelIndicator implements Computation<List<DRes<SInt>>, Protocol
   @Override
   public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
 
+    List<List<BigInteger>> polynomials = Indicator
+        .filterPolynomials(range, builder.getBasicNumericContext().getModulus());
+
     return builder.seq(new PowerList(value, range - 1)).par((par, powers) -> {
 
       List<DRes<SInt>> indicator = new ArrayList<>();
-      for (int filterValue = 0; filterValue < range; filterValue = filterValue + 1) {
-        List<BigInteger> polynomial = Indicator
-            .computeFilter(range, filterValue, par.getBasicNumericContext().getModulus());
+      for (List<BigInteger> polynomial : polynomials) {
         indicator.add(par.seq(seq -> seq.numeric().add(polynomial.get(0), AdvancedNumeric.using(seq)
             .innerProductWithPublicPart(polynomial.subList(1, polynomial.size()), powers))));
       }
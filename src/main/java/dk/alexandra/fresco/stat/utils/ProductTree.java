@@ -0,0 +1,61 @@
+package dk.alexandra.fresco.stat.utils;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Given <i>d</i> lists of secret values <i>x<sub>0</sub>, ..., x<sub>d-1</sub></i>, compute the
+ * <i>d</i>-dimensional array with the product <i>x<sub>0,i<sub>0</sub></sub> &middot; ... &middot;
+ * x<sub>d-1,i<sub>d-1</sub></sub></i> at index <i>(i<sub>0</sub>, ..., i<sub>d-1</sub>)</i>.
+ *
+ * <p>Computing each entry as a separate product would recompute the partial products shared by
+ * entries with common indices. Instead, the lists are split in two halves whose outer products are
+ * computed recursively, and each entry is then computed with a single multiplication of an entry
+ * from each half. With <i>N</i> entries in the result, this uses <i>N</i> multiplications plus the
+ * multiplications for the two halves, which have about <i>&radic;N</i> entries each when the
+ * lists have the same length, and the multiplicative depth is <i>&lceil;log<sub>2</sub>
+ * d&rceil;</i>.</p>
+ */
+public class ProductTree implements
+    Computation<MultiDimensionalArray<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final List<List<DRes<SInt>>> factors;
+
+  /**
+   * @param factors A non-empty list of lists of factors, one list per dimension.
+   */
+  public ProductTree(List<List<DRes<SInt>>> factors) {
+    if (factors.isEmpty()) {
+      throw new IllegalArgumentException("There must be at least one list of factors");
+    }
+    this.factors = factors;
+  }
+
+  @Override
+  public DRes<MultiDimensionalArray<DRes<SInt>>> buildComputation(
+      ProtocolBuilderNumeric builder) {
+    if (factors.size() == 1) {
+      return DRes.of(MultiDimensionalArray.build(factors.get(0)));
+    }
+
+    int half = factors.size() / 2;
+    return builder.par(par -> Pair.lazy(
+        new ProductTree(factors.subList(0, half)).buildComputation(par),
+        new ProductTree(factors.subList(half, factors.size())).buildComputation(par))
+    ).par((par, halves) -> {
+      MultiDimensionalArray<DRes<SInt>> left = halves.getFirst().out();
+      MultiDimensionalArray<DRes<SInt>> right = halves.getSecond().out();
+      List<Integer> shape = Stream.concat(left.getShape().stream(), right.getShape().stream())
+          .collect(Collectors.toList());
+      return DRes.of(MultiDimensionalArray.build(shape, i -> par.numeric()
+          .mult(left.get(i.subList(0, half)), right.get(i.subList(half, i.size())))));
+    });
+  }
+
+}
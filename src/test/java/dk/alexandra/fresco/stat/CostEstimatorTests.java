@@ -0,0 +1,147 @@
+package dk.alexandra.fresco.stat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.lib.fixed.AdvancedFixedNumeric;
+import dk.alexandra.fresco.lib.fixed.FixedNumeric;
+import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.cost.CostEstimator;
+import dk.alexandra.fresco.stat.cost.CostReport;
+import dk.alexandra.fresco.stat.cost.PreprocessingReport;
+import dk.alexandra.fresco.stat.descriptive.LeakyFrequencyTable;
+import dk.alexandra.fresco.stat.utils.LEQPublicThresholds;
+import dk.alexandra.fresco.stat.utils.LegendrePRF;
+import dk.alexandra.fresco.stat.utils.MiMCPRF;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class CostEstimatorTests {
+
+  @Test
+  public void testComparisons() {
+    CostReport report = new CostEstimator().estimate(builder -> {
+      DRes<SInt> x = builder.numeric().input(5, 1);
+      DRes<SInt> y = builder.numeric().known(7);
+      Comparison.using(builder).compareLEQ(x, y);
+      Comparison.using(builder).compareLT(x, y);
+      return Comparison.using(builder).equals(x, y);
+    });
+    assertEquals(3, report.getComparisons());
+    assertEquals(1, report.getInputs());
+    assertEquals(0, report.getTranscendentals());
+    assertTrue(report.getRounds() > 1);
+  }
+
+  @Test
+  public void testExactCounts() {
+    // Pins the counts of components recognised by CountingProtocolSuite, so this fails if FRESCO
+    // changes how they are built
+    CostReport report = new CostEstimator().estimate(builder -> {
+      DRes<SInt> x = builder.numeric().input(5, 1);
+      new LEQPublicThresholds(x, Arrays.asList(BigInteger.ONE, BigInteger.TWO, BigInteger.TEN))
+          .buildComputation(builder);
+      Comparison.using(builder).compareLEQ(x, builder.numeric().known(7));
+      Comparison.using(builder).equals(x, builder.numeric().known(7));
+
+      FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+      DRes<SFixed> y = fixedNumeric.input(2.5, 1);
+      DRes<SFixed> z = fixedNumeric.input(1.5, 1);
+      fixedNumeric.mult(y, z);
+      return fixedNumeric.mult(fixedNumeric.mult(y, y), z);
+    });
+    assertEquals(5, report.getComparisons());
+    assertEquals(3, report.getTruncations());
+    assertEquals(0, report.getTranscendentals());
+    assertEquals(0, report.getSquareRoots());
+  }
+
+  @Test
+  public void testFixedPoint() {
+    CostReport report = new CostEstimator().estimate(builder -> {
+      FixedNumeric fixedNumeric = FixedNumeric.using(builder);
+      DRes<SFixed> x = fixedNumeric.input(2.5, 1);
+      DRes<SFixed> y = fixedNumeric.mult(x, x);
+      AdvancedFixedNumeric advancedFixedNumeric = AdvancedFixedNumeric.using(builder);
+      advancedFixedNumeric.exp(y);
+      advancedFixedNumeric.log(y);
+      advancedFixedNumeric.reciprocal(y);
+      return advancedFixedNumeric.sqrt(y);
+    });
+    assertEquals(4, report.getTranscendentals());
+    assertEquals(1, report.getSquareRoots());
+    assertTrue(report.getTruncations() > 1);
+    assertTrue(report.getMultiplications() > report.getTruncations());
+  }
+
+  @Test
+  public void testStatistics() {
+    int n = 20;
+    CostReport report = new CostEstimator().estimate(builder -> {
+      List<DRes<SFixed>> x = VectorUtils.listBuilder(n,
+          i -> FixedNumeric.using(builder).input(i, 1));
+      return Statistics.using(builder).sampleStandardDeviation(x);
+    });
+    assertEquals(n, report.getInputs());
+    assertTrue(report.getTruncations() >= n);
+    assertEquals(1, report.getTranscendentals());
+    assertEquals(1, report.getSquareRoots());
+  }
+
+  @Test
+  public void testPreprocessing() {
+    int n = 10;
+    CostEstimator estimator = new CostEstimator();
+    Computation<List<Pair<DRes<SInt>, Integer>>, ProtocolBuilderNumeric> computation = builder -> {
+      List<DRes<SInt>> x = VectorUtils.listBuilder(n,
+          i -> builder.numeric().input(i % 3, 1));
+      return new LeakyFrequencyTable(x, new MiMCPRF()).buildComputation(builder);
+    };
+    PreprocessingReport preprocessing = estimator.estimatePreprocessing(computation);
+    CostReport cost = estimator.estimate(computation);
+
+    // The MiMC key is the only random element used
+    assertEquals(1, preprocessing.getRandomElements());
+    assertEquals(cost.getMultiplications(), preprocessing.getMultiplicationTriples());
+    assertEquals(n, preprocessing.getInputMasks());
+  }
+
+  @Test
+  public void testKeyedPRFs() {
+    int n = 10;
+    CostEstimator estimator = new CostEstimator();
+    CostReport mimc = estimator.estimate(builder -> builder.par(par -> DRes.of(
+        VectorUtils.listBuilder(n, i -> par.numeric().input(i % 3, 1))))
+        .seq((seq, x) -> new MiMCPRF().evaluateAndOpen(x, seq)));
+    CostReport legendre = estimator.estimate(builder -> builder.par(par -> DRes.of(
+        VectorUtils.listBuilder(n, i -> par.numeric().input(i % 3, 1))))
+        .seq((seq, x) -> new LegendrePRF().evaluateAndOpen(x, seq)));
+
+    // The inputs are given in a single round, so the rounds are dominated by the PRF
+    assertTrue(10 * legendre.getRounds() < mimc.getRounds());
+    assertTrue(legendre.getMultiplications() < mimc.getMultiplications());
+    assertTrue(legendre.getOpens() > mimc.getOpens());
+  }
+
+  @Test
+  public void testRandomBits() {
+    int n = 10;
+    PreprocessingReport preprocessing = new CostEstimator().estimatePreprocessing(
+        builder -> builder.par(par -> {
+          List<DRes<SInt>> samples = VectorUtils.listBuilder(n,
+              i -> Sampler.using(par).sampleRademacherDistribution());
+          return DRes.of(samples);
+        }));
+    assertEquals(n, preprocessing.getRandomBits());
+    assertEquals(0, preprocessing.getMultiplicationTriples());
+  }
+}
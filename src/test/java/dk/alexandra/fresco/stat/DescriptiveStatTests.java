@@ -18,18 +18,24 @@ import dk.alexandra.fresco.lib.common.util.SIntPair;
 import dk.alexandra.fresco.lib.fixed.FixedLinearAlgebra;
 import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.anonymisation.LeakyKAnonymity;
 import dk.alexandra.fresco.stat.anonymisation.NoisyHistogram;
 import dk.alexandra.fresco.stat.descriptive.ContingencyTableCategorical;
+import dk.alexandra.fresco.stat.descriptive.GroupBy.Group;
 import dk.alexandra.fresco.stat.descriptive.LeakyBreakTies;
 import dk.alexandra.fresco.stat.descriptive.MultiDimensionalHistogram;
 import dk.alexandra.fresco.stat.descriptive.Ranks;
 import dk.alexandra.fresco.stat.descriptive.SampleCovariance;
 import dk.alexandra.fresco.stat.descriptive.sort.FindTiedGroups;
+import dk.alexandra.fresco.stat.descriptive.sort.ObliviousSelection;
+import dk.alexandra.fresco.stat.descriptive.sort.ObliviousShuffle;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatistics;
 import dk.alexandra.fresco.stat.outlier.MahalanobisDistance;
 import dk.alexandra.fresco.stat.utils.MatrixUtils;
 import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +54,7 @@ import org.apache.commons.math3.stat.descriptive.rank.Median;
 import org.apache.commons.math3.stat.descriptive.rank.Percentile;
 import org.apache.commons.math3.stat.ranking.NaturalRanking;
 import org.apache.commons.math3.stat.ranking.RankingAlgorithm;
+import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
 import org.junit.Assert;
 
 public class DescriptiveStatTests {
@@ -172,6 +179,136 @@ public class DescriptiveStatTests {
     }
   }
 
+  public static class TestObliviousSelection<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 37;
+
+        // Use a small range to get many ties
+        final List<Integer> x = IntStream.range(0, n).map(i -> random.nextInt(10)).boxed()
+            .collect(Collectors.toList());
+        final int[] ranks = new int[]{n - 1, 0, n / 2, 3, n / 2, 17};
+
+        @Override
+        public void test() {
+
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                List<DRes<SInt>> xSecret = x.stream().map(xi -> seq.numeric().input(xi, 1))
+                    .collect(Collectors.toList());
+                return DRes.of(xSecret);
+              }).seq((seq, xSecret) -> new ObliviousSelection(xSecret, ranks)
+                  .buildComputation(seq))
+              .seq((seq, selected) -> {
+                List<DRes<BigInteger>> opened = selected.stream().map(seq.numeric()::open)
+                    .collect(Collectors.toList());
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+
+          List<Integer> sorted = x.stream().sorted().collect(Collectors.toList());
+          List<BigInteger> output = runApplication(testApplication);
+          for (int i = 0; i < ranks.length; i++) {
+            assertEquals(BigInteger.valueOf(sorted.get(ranks[i])), output.get(i));
+          }
+        }
+      };
+    }
+  }
+
+  public static class TestObliviousShuffle<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        // Not a power of two
+        final int n = 13;
+
+        @Override
+        public void test() {
+
+          Application<List<List<BigInteger>>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                ArrayList<ArrayList<DRes<SInt>>> rows = IntStream.range(0, n)
+                    .mapToObj(i -> new ArrayList<>(List.of(seq.numeric().input(i, 1),
+                        seq.numeric().input(2 * i, 2))))
+                    .collect(Collectors.toCollection(ArrayList::new));
+                return new ObliviousShuffle(new Matrix<>(n, 2, rows)).buildComputation(seq);
+              }).seq((seq, shuffled) -> {
+                List<List<DRes<BigInteger>>> opened = shuffled.getRows().stream()
+                    .map(row -> row.stream().map(seq.numeric()::open).collect(Collectors.toList()))
+                    .collect(Collectors.toList());
+                return () -> opened.stream().map(row -> row.stream().map(DRes::out)
+                    .collect(Collectors.toList())).collect(Collectors.toList());
+              });
+
+          List<List<BigInteger>> output = runApplication(testApplication);
+          assertEquals(n, output.size());
+          for (List<BigInteger> row : output) {
+            assertEquals(row.get(0).shiftLeft(1), row.get(1));
+          }
+          assertEquals(IntStream.range(0, n).mapToObj(BigInteger::valueOf)
+                  .collect(Collectors.toList()),
+              output.stream().map(row -> row.get(0)).sorted().collect(Collectors.toList()));
+        }
+      };
+    }
+  }
+
+  public static class TestSortedColumn<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final List<List<Integer>> data = ranksDataset();
+
+        @Override
+        public void test() {
+          Application<List<BigDecimal>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                List<List<DRes<SFixed>>> input = data.stream().map(
+                    sample -> sample.stream().map(x -> FixedNumeric.using(seq).input(x, 1))
+                        .collect(Collectors.toList())).collect(Collectors.toList());
+                return DRes.of(input);
+              }).seq((seq, input) -> Statistics.using(seq).sortedSamples(input))
+              .par((par, sorted) -> {
+
+                // Several rank-based statistics computed from the same sorted samples
+                Statistics statistics = Statistics.using(par);
+                DRes<SFixed> h = statistics.kruskallWallisTest(sorted);
+                DRes<SFixed> median = statistics.sampleMedian(sorted);
+                DRes<List<DRes<SFixed>>> quartiles = statistics
+                    .samplePercentiles(sorted, new double[]{0.25, 0.75});
+                return () -> List.of(h, median, quartiles.out().get(0), quartiles.out().get(1));
+              }).seq((seq, results) -> {
+                List<DRes<BigDecimal>> opened = results.stream()
+                    .map(FixedNumeric.using(seq)::open).collect(Collectors.toList());
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+
+          double[] pooled = data.stream().flatMap(List::stream).mapToDouble(x -> x).toArray();
+          Percentile percentile = new Percentile();
+
+          // Data and expected values from example 12.3 in Blæsild & Granfeldt: "Statistics with
+          // applications in biology and geology".
+          List<BigDecimal> output = runApplication(testApplication);
+          assertEquals(29.4203, output.get(0).doubleValue(), 0.01);
+          assertEquals(new Median().evaluate(pooled), output.get(1).doubleValue(), 0.001);
+          assertEquals(percentile.evaluate(pooled, 25), output.get(2).doubleValue(), 0.001);
+          assertEquals(percentile.evaluate(pooled, 75), output.get(3).doubleValue(), 0.001);
+        }
+      };
+    }
+  }
+
   public static class TestPercentiles<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -213,6 +350,148 @@ public class DescriptiveStatTests {
     }
   }
 
+  public static class TestSummaryStatistics<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 31;
+        final List<Double> x = IntStream.range(0, n)
+            .mapToDouble(i -> random.nextDouble() * 10.0 - 5.0).boxed()
+            .collect(Collectors.toList());
+
+        private List<BigDecimal> summary(double[] quantiles) {
+          Application<List<BigDecimal>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                FixedNumeric numeric = FixedNumeric.using(seq);
+                List<DRes<SFixed>> xSecret =
+                    x.stream().map(x -> numeric.input(x, 1)).collect(Collectors.toList());
+                return Statistics.using(seq).summaryStatistics(xSecret, quantiles);
+              }).seq((seq, summary) -> {
+                FixedNumeric fixedNumeric = FixedNumeric.using(seq);
+                List<DRes<BigDecimal>> opened = new ArrayList<>(List.of(
+                    fixedNumeric.open(summary.getMean()),
+                    fixedNumeric.open(summary.getVariance()),
+                    fixedNumeric.open(summary.getStandardDeviation()),
+                    fixedNumeric.open(summary.getSkewness()),
+                    fixedNumeric.open(summary.getKurtosis()),
+                    fixedNumeric.open(summary.getMin()),
+                    fixedNumeric.open(summary.getMax())));
+                summary.getQuantiles().stream().map(fixedNumeric::open).forEach(opened::add);
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+          return runApplication(testApplication);
+        }
+
+        @Override
+        public void test() {
+          double[] xArray = x.stream().mapToDouble(i -> i).toArray();
+          double mean = new Mean().evaluate(xArray);
+          double m2 = Arrays.stream(xArray).map(xi -> Math.pow(xi - mean, 2)).sum() / n;
+          double m3 = Arrays.stream(xArray).map(xi -> Math.pow(xi - mean, 3)).sum() / n;
+          double m4 = Arrays.stream(xArray).map(xi -> Math.pow(xi - mean, 4)).sum() / n;
+          double[] expected = new double[]{mean, new Variance().evaluate(xArray),
+              new StandardDeviation().evaluate(xArray), m3 / Math.pow(m2, 1.5), m4 / (m2 * m2),
+              Arrays.stream(xArray).min().getAsDouble(),
+              Arrays.stream(xArray).max().getAsDouble()};
+
+          // Without quantiles, the extremes are found without sorting
+          List<BigDecimal> output = summary(new double[0]);
+          assertEquals(expected.length, output.size());
+          for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], output.get(i).doubleValue(), 0.01);
+          }
+
+          output = summary(new double[]{0.25, 0.5, 0.75});
+          assertEquals(expected.length + 3, output.size());
+          for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], output.get(i).doubleValue(), 0.01);
+          }
+          Percentile percentile = new Percentile();
+          assertEquals(percentile.evaluate(xArray, 25), output.get(7).doubleValue(), 0.001);
+          assertEquals(percentile.evaluate(xArray, 50), output.get(8).doubleValue(), 0.001);
+          assertEquals(percentile.evaluate(xArray, 75), output.get(9).doubleValue(), 0.001);
+        }
+      };
+    }
+  }
+
+  public static class TestSufficientStatistics<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 20;
+        final int split = 12;
+        final double[][] data = IntStream.range(0, n).mapToObj(i -> {
+          double x1 = random.nextDouble() * 10.0;
+          double x2 = random.nextDouble() * 5.0 - 2.0;
+          return new double[]{x1, x2, 1.5 + 2.0 * x1 - 0.5 * x2 + random.nextGaussian()};
+        }).toArray(double[][]::new);
+
+        @Override
+        public void test() {
+          Application<List<List<BigDecimal>>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.seq(seq -> {
+                FixedNumeric numeric = FixedNumeric.using(seq);
+                List<List<DRes<SFixed>>> observations = Arrays.stream(data).map(
+                    row -> Arrays.stream(row).mapToObj(x -> numeric.input(x, 1))
+                        .collect(Collectors.toList())).collect(Collectors.toList());
+
+                // Compute the statistics incrementally
+                Statistics statistics = Statistics.using(seq);
+                DRes<SufficientStatistics> first = statistics
+                    .sufficientStatistics(observations.subList(0, split));
+                return statistics.updateSufficientStatistics(first,
+                    observations.subList(split, n));
+              }).par((par, s) -> {
+                Statistics statistics = Statistics.using(par);
+                DRes<List<DRes<SFixed>>> mean = statistics.sampleMean(s);
+                DRes<List<DRes<SFixed>>> variance = statistics.sampleVariance(s);
+                DRes<Matrix<DRes<SFixed>>> covariance = statistics.sampleCovariance(s);
+                DRes<Matrix<DRes<SFixed>>> correlation = statistics.correlation(s);
+                DRes<ArrayList<DRes<SFixed>>> beta = statistics.linearRegression(s, 2);
+                return () -> List.of(mean.out(), variance.out(), covariance.out().getRow(0),
+                    correlation.out().getRow(0), beta.out());
+              }).seq((seq, results) -> {
+                FixedNumeric fixedNumeric = FixedNumeric.using(seq);
+                List<List<DRes<BigDecimal>>> opened = results.stream()
+                    .map(result -> result.stream().map(fixedNumeric::open)
+                        .collect(Collectors.toList())).collect(Collectors.toList());
+                return () -> opened.stream().map(result -> result.stream().map(DRes::out)
+                    .collect(Collectors.toList())).collect(Collectors.toList());
+              });
+
+          List<List<BigDecimal>> output = runApplication(testApplication);
+
+          RealMatrix matrix = new Array2DRowRealMatrix(data);
+          RealMatrix covariance = new Covariance(matrix).getCovarianceMatrix();
+          RealMatrix correlation = new PearsonsCorrelation(matrix).getCorrelationMatrix();
+          OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
+          regression.newSampleData(matrix.getColumn(2),
+              Arrays.stream(data).map(row -> new double[]{row[0], row[1]})
+                  .toArray(double[][]::new));
+          double[] beta = regression.estimateRegressionParameters();
+
+          for (int j = 0; j < 3; j++) {
+            assertEquals(new Mean().evaluate(matrix.getColumn(j)),
+                output.get(0).get(j).doubleValue(), 0.001);
+            assertEquals(covariance.getEntry(j, j), output.get(1).get(j).doubleValue(), 0.001);
+            assertEquals(covariance.getEntry(0, j), output.get(2).get(j).doubleValue(), 0.001);
+            assertEquals(correlation.getEntry(0, j), output.get(3).get(j).doubleValue(), 0.001);
+            assertEquals(beta[j], output.get(4).get(j).doubleValue(), 0.001);
+          }
+        }
+      };
+    }
+  }
+
   public static class TestVariance<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -325,6 +604,51 @@ public class DescriptiveStatTests {
     }
   }
 
+  public static class TestCorrelationMatrix<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final List<Double> x = Arrays.asList(6.4, 6.6, 6.8, 6.9, 7.3);
+        final List<Double> y = Arrays.asList(5.8, 5.7, 5.9, 6.6, 6.0);
+        final List<Double> z = Arrays.asList(2.9, 3.3, 3.7, 4.6, 5.5);
+
+        @Override
+        public void test() {
+
+          Application<Matrix<BigDecimal>, ProtocolBuilderNumeric> testApplication = builder -> builder.seq(seq -> {
+            FixedNumeric numeric = FixedNumeric.using(seq);
+            List<DRes<SFixed>> xSecret =
+                x.stream().map(x -> numeric.input(x, 1)).collect(Collectors.toList());
+            List<DRes<SFixed>> ySecret =
+                y.stream().map(x -> numeric.input(x, 1)).collect(Collectors.toList());
+            List<DRes<SFixed>> zSecret =
+                z.stream().map(x -> numeric.input(x, 1)).collect(Collectors.toList());
+
+            return FixedLinearAlgebra.using(seq).openMatrix(Statistics.using(seq)
+                .correlationMatrix(List.of(xSecret, ySecret, zSecret)));
+          }).seq((seq, c) -> DRes.of(MatrixUtils.map(c, DRes::out)));
+
+          Matrix<BigDecimal> output = runApplication(testApplication);
+
+          double[][] data = new double[3][5];
+          data[0] = x.stream().mapToDouble(x -> x).toArray();
+          data[1] = y.stream().mapToDouble(x -> x).toArray();
+          data[2] = z.stream().mapToDouble(x -> x).toArray();
+          RealMatrix M = new Array2DRowRealMatrix(data).transpose();
+          RealMatrix C = new PearsonsCorrelation(M).getCorrelationMatrix();
+
+          for (int i = 0; i < 3; i++) {
+            Assert.assertArrayEquals(C.getRow(i),
+                output.getRow(i).stream().mapToDouble(BigDecimal::doubleValue).toArray(), 0.001);
+          }
+        }
+      };
+    }
+  }
+
   public static class TestMahalanobisDistance<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -442,6 +766,75 @@ public class DescriptiveStatTests {
     }
   }
 
+  public static class TestGroupBy<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+        final int n = 12;
+        final int keys = 3;
+        final int groups = 5;
+        final Random random = new Random(1234);
+        final List<Integer> k = IntStream.range(0, n).map(i -> 2 * (i % keys) + 1).boxed()
+            .collect(Collectors.toList());
+        final List<Double> x = IntStream.range(0, n).mapToObj(i -> random.nextDouble() * 10)
+            .collect(Collectors.toList());
+
+        @Override
+        public void test() {
+          Application<List<List<List<BigDecimal>>>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.seq(seq -> {
+                List<DRes<SInt>> kSecret =
+                    k.stream().map(ki -> seq.numeric().input(ki, 1)).collect(Collectors.toList());
+                List<DRes<SFixed>> xSecret = x.stream()
+                    .map(xi -> FixedNumeric.using(seq).input(xi, 2)).collect(Collectors.toList());
+                return Pair.lazy(Statistics.using(seq).groupBy(kSecret, xSecret),
+                    Statistics.using(seq).groupBy(kSecret, xSecret, groups));
+              }).seq((seq, result) -> {
+                List<List<List<DRes<BigDecimal>>>> opened = new ArrayList<>();
+                for (List<Group> output : List.of(result.getFirst().out(),
+                    result.getSecond().out())) {
+                  opened.add(output.stream().map(group -> {
+                    DRes<BigInteger> key = seq.numeric().open(group.getKey());
+                    DRes<BigInteger> count = seq.numeric().open(group.getCount());
+                    return List.<DRes<BigDecimal>>of(() -> new BigDecimal(key.out()),
+                        () -> new BigDecimal(count.out()),
+                        FixedNumeric.using(seq).open(group.getMean()),
+                        FixedNumeric.using(seq).open(group.getVariance()));
+                  }).collect(Collectors.toList()));
+                }
+                return () -> opened.stream().map(output -> output.stream().map(group -> group
+                    .stream().map(DRes::out).collect(Collectors.toList()))
+                    .collect(Collectors.toList())).collect(Collectors.toList());
+              });
+
+          List<List<List<BigDecimal>>> output = runApplication(testApplication);
+          assertEquals(keys, output.get(0).size());
+          assertEquals(groups, output.get(1).size());
+
+          for (List<List<BigDecimal>> groupsOutput : output) {
+            for (int j = 0; j < groupsOutput.size(); j++) {
+              List<BigDecimal> group = groupsOutput.get(j);
+              if (j >= keys) {
+                assertEquals(0, group.get(0).intValue());
+                assertEquals(0, group.get(1).intValue());
+                continue;
+              }
+              int key = 2 * j + 1;
+              double[] values = IntStream.range(0, n).filter(i -> k.get(i) == key)
+                  .mapToDouble(x::get).toArray();
+              assertEquals(key, group.get(0).intValue());
+              assertEquals(values.length, group.get(1).intValue());
+              assertEquals(new Mean().evaluate(values), group.get(2).doubleValue(), 0.001);
+              assertEquals(new Variance().evaluate(values), group.get(3).doubleValue(), 0.001);
+            }
+          }
+        }
+      };
+    }
+  }
+
   public static class TestLeakyRanks<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -590,6 +983,52 @@ public class DescriptiveStatTests {
     }
   }
 
+  public static class TestSortingHistogram<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final int n = 50;
+        final Random random = new Random(1234);
+        final List<Integer> x = IntStream.range(0,n).map(i -> random.nextInt(50)).boxed().collect(
+            Collectors.toList());
+
+        // With this many buckets, the histogram is computed by sorting
+        final List<Integer> buckets = IntStream.range(0, 16).map(i -> 3 * i).boxed().collect(
+            Collectors.toList());
+        final List<Integer> expected = IntStream.range(0, 17).map(i -> (int) x.stream().filter(
+            y -> (i == 16 || y <= buckets.get(i)) && (i == 0 || y > buckets.get(i - 1))).count())
+            .boxed().collect(Collectors.toList());
+
+        @Override
+        public void test() {
+
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                List<DRes<SInt>> xSecret =
+                    x.stream().map(x -> seq.numeric().input(x, 1)).collect(Collectors.toList());
+                List<DRes<SInt>> bSecret =
+                    buckets.stream().map(b -> seq.numeric().input(b, 2))
+                        .collect(Collectors.toList());
+                return Statistics.using(seq).histogramDiscrete(bSecret, xSecret);
+              }).seq((seq, h) -> {
+                List<DRes<BigInteger>> out =
+                    h.stream().map(seq.numeric()::open).collect(Collectors.toList());
+                return () -> out.stream().map(DRes::out).collect(Collectors.toList());
+              });
+
+          List<BigInteger> output = runApplication(testApplication);
+          assertEquals(expected.size(), output.size());
+          for (int i = 0; i < output.size(); i++) {
+            assertEquals(expected.get(i).intValue(), output.get(i).intValue());
+          }
+        }
+      };
+    }
+  }
+
   public static class TestHistogramDiscrete2<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -665,6 +1104,138 @@ public class DescriptiveStatTests {
   }
 
 
+  public static class TestNoisyHistogramPublicBuckets<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final int n = 100;
+        final Random random = new Random(1234);
+        final List<Integer> x = IntStream.range(0,n).map(i -> random.nextInt(50)).boxed().collect(
+            Collectors.toList());
+        final int[] buckets = new int[] {10, 20, 30, 40};
+        // With a large epsilon the noise is rounded to zero, so the histograms should be exact
+        final double epsilon = 1000.0;
+
+        @Override
+        public void test() {
+
+          Application<Pair<List<BigInteger>, List<BigInteger>>, ProtocolBuilderNumeric>
+              testApplication = builder -> builder.seq(seq -> {
+                List<DRes<SInt>> xSecret =
+                    x.stream().map(x -> seq.numeric().input(x, 1)).collect(Collectors.toList());
+                List<DRes<SInt>> bSecret = Arrays.stream(buckets)
+                    .mapToObj(b -> seq.numeric().input(b, 2)).collect(Collectors.toList());
+                DRes<List<DRes<SInt>>> publicBuckets =
+                    seq.seq(new NoisyHistogram(buckets, xSecret, epsilon));
+                DRes<List<DRes<SInt>>> secretBuckets =
+                    seq.seq(new NoisyHistogram(bSecret, xSecret, epsilon));
+                return Pair.lazy(publicBuckets, secretBuckets);
+              }).seq((seq, h) -> {
+                List<DRes<BigInteger>> publicOut =
+                    h.getFirst().out().stream().map(seq.numeric()::open)
+                        .collect(Collectors.toList());
+                List<DRes<BigInteger>> secretOut =
+                    h.getSecond().out().stream().map(seq.numeric()::open)
+                        .collect(Collectors.toList());
+                return () -> new Pair<>(
+                    publicOut.stream().map(DRes::out).collect(Collectors.toList()),
+                    secretOut.stream().map(DRes::out).collect(Collectors.toList()));
+              });
+
+          Pair<List<BigInteger>, List<BigInteger>> output = runApplication(testApplication);
+          assertEquals(buckets.length + 1, output.getFirst().size());
+          assertEquals(output.getSecond(), output.getFirst());
+          for (int i = 0; i <= buckets.length; i++) {
+            int finalI = i;
+            long expected = x.stream().filter(y -> (finalI == buckets.length || y <= buckets[finalI])
+                && (finalI == 0 || y > buckets[finalI - 1])).count();
+            assertEquals(expected, output.getFirst().get(i).longValue());
+          }
+        }
+      };
+    }
+  }
+
+  public static class TestHistogramDiscretePublicBuckets<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final int n = 100;
+        final Random random = new Random(1234);
+        final List<Integer> x = IntStream.range(0,n).map(i -> random.nextInt(100) - 50).boxed()
+            .collect(Collectors.toList());
+        final int[] buckets = new int[] {-30, -10, 0, 10, 40};
+        final List<Integer> expected = IntStream.range(0, buckets.length + 1).map(i -> (int) x
+            .stream().filter(y -> (i == buckets.length || y <= buckets[i])
+                && (i == 0 || y > buckets[i - 1])).count())
+            .boxed().collect(Collectors.toList());
+
+        @Override
+        public void test() {
+
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                List<DRes<SInt>> xSecret =
+                    x.stream().map(x -> seq.numeric().input(x, 1)).collect(Collectors.toList());
+                return Statistics.using(seq).histogramDiscrete(buckets, xSecret);
+              }).seq((seq, h) -> {
+                List<DRes<BigInteger>> out =
+                    h.stream().map(seq.numeric()::open).collect(Collectors.toList());
+                return () -> out.stream().map(DRes::out).collect(Collectors.toList());
+              });
+
+          List<BigInteger> output = runApplication(testApplication);
+          assertEquals(expected.size(), output.size());
+          for (int i = 0; i < output.size(); i++) {
+            assertEquals(expected.get(i).intValue(), output.get(i).intValue());
+          }
+        }
+      };
+    }
+  }
+
+  public static class TestHistogramContinuousPublicBuckets<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final List<Double> x = Arrays.asList(.1, .5, .7, .3, .9, .5, 3.4, .5, -.1, -.3);
+        final double[] buckets = new double[] {.0, .5, 1.0};
+        final List<Integer> expected = Arrays.asList(2, 5, 2, 1);
+
+        @Override
+        public void test() {
+
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                List<DRes<SFixed>> xSecret =
+                    x.stream().map(x -> FixedNumeric.using(seq).input(x, 1))
+                        .collect(Collectors.toList());
+                return Statistics.using(seq).histogramContinuous(buckets, xSecret);
+              }).seq((seq, h) -> {
+                List<DRes<BigInteger>> out =
+                    h.stream().map(seq.numeric()::open).collect(Collectors.toList());
+                return () -> out.stream().map(DRes::out).collect(Collectors.toList());
+              });
+
+          List<BigInteger> output = runApplication(testApplication);
+          assertEquals(expected.size(), output.size());
+          for (int i = 0; i < output.size(); i++) {
+            assertEquals(expected.get(i).intValue(), output.get(i).intValue());
+          }
+        }
+      };
+    }
+  }
+
   public static class TestHistogramContinuous<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -703,6 +1274,54 @@ public class DescriptiveStatTests {
     }
   }
 
+  public static class TestApproximatePercentiles<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final List<Double> x = Arrays.asList(.1, .5, .7, .3, .9, .5, 3.4, .5, -.1, -.3);
+        final double[] buckets = new double[]{.0, .5, 1.0, 2.0};
+        final double[] quantiles = new double[]{0.1, 0.5, 0.9, 1.0};
+        final List<Double> expected = Arrays.asList(.0, .5, 1.0, 2.0);
+
+        @Override
+        public void test() {
+
+          Application<Pair<List<BigDecimal>, List<BigDecimal>>, ProtocolBuilderNumeric>
+              testApplication = builder -> builder.seq(seq -> {
+                List<DRes<SFixed>> xSecret =
+                    x.stream().map(x -> FixedNumeric.using(seq).input(x, 1))
+                        .collect(Collectors.toList());
+                List<DRes<SFixed>> bSecret = Arrays.stream(buckets)
+                    .mapToObj(b -> FixedNumeric.using(seq).input(b, 2))
+                    .collect(Collectors.toList());
+                DRes<List<DRes<SFixed>>> publicBuckets = Statistics.using(seq)
+                    .approximatePercentiles(buckets, xSecret, quantiles);
+                DRes<List<DRes<SFixed>>> secretBuckets = Statistics.using(seq)
+                    .approximatePercentiles(bSecret, xSecret, quantiles);
+                return Pair.lazy(publicBuckets, secretBuckets);
+              }).seq((seq, result) -> {
+                List<DRes<BigDecimal>> publicOut = result.getFirst().out().stream()
+                    .map(FixedNumeric.using(seq)::open).collect(Collectors.toList());
+                List<DRes<BigDecimal>> secretOut = result.getSecond().out().stream()
+                    .map(FixedNumeric.using(seq)::open).collect(Collectors.toList());
+                return () -> new Pair<>(
+                    publicOut.stream().map(DRes::out).collect(Collectors.toList()),
+                    secretOut.stream().map(DRes::out).collect(Collectors.toList()));
+              });
+
+          Pair<List<BigDecimal>, List<BigDecimal>> output = runApplication(testApplication);
+          for (int i = 0; i < quantiles.length; i++) {
+            assertEquals(expected.get(i), output.getFirst().get(i).doubleValue(), 0.01);
+            assertEquals(expected.get(i), output.getSecond().get(i).doubleValue(), 0.01);
+          }
+        }
+      };
+    }
+  }
+
   public static class TestTwoDimHistogram<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -821,6 +1440,118 @@ public class DescriptiveStatTests {
     }
   }
 
+  public static class TestTwoDimHistogramPublicBuckets<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final List<Integer> x = Arrays.asList(1, 3, 5, 6, 7, 8);
+        final List<Integer> y = Arrays.asList(2, 4, 5, 8, 9, 10);
+        final int[] bucketsX = new int[] {1, 4, 9};
+        final int[] bucketsY = new int[] {1, 4, 9};
+
+        @Override
+        public void test() {
+
+          Application<Pair<Matrix<BigInteger>, Matrix<BigInteger>>, ProtocolBuilderNumeric>
+              testApplication = builder -> builder.seq(seq -> {
+                Pair<List<DRes<SInt>>, List<DRes<SInt>>> buckets = new Pair<>(
+                    Arrays.stream(bucketsX).mapToObj(x -> seq.numeric().input(x, 1))
+                        .collect(Collectors.toList()),
+                    Arrays.stream(bucketsY).mapToObj(x -> seq.numeric().input(x, 1))
+                        .collect(Collectors.toList())
+                );
+                List<Pair<DRes<SInt>, DRes<SInt>>> data = IntStream.range(0, x.size()).mapToObj(
+                    i -> new Pair<>(seq.numeric().input(x.get(i), 1),
+                        seq.numeric().input(y.get(i), 1))).collect(Collectors.toList());
+
+                DRes<Matrix<DRes<SInt>>> publicBuckets = Statistics.using(seq)
+                    .twoDimensionalHistogramDiscrete(bucketsX, bucketsY, data);
+                DRes<Matrix<DRes<SInt>>> secretBuckets = Statistics.using(seq)
+                    .twoDimensionalHistogramDiscrete(buckets, data);
+                return Pair.lazy(publicBuckets, secretBuckets);
+              }).seq((seq, histograms) -> {
+                Matrix<DRes<BigInteger>> publicOut =
+                    MatrixUtils.map(histograms.getFirst().out(), seq.numeric()::open);
+                Matrix<DRes<BigInteger>> secretOut =
+                    MatrixUtils.map(histograms.getSecond().out(), seq.numeric()::open);
+                return () -> new Pair<>(MatrixUtils.map(publicOut, DRes::out),
+                    MatrixUtils.map(secretOut, DRes::out));
+              });
+
+          Pair<Matrix<BigInteger>, Matrix<BigInteger>> output = runApplication(testApplication);
+          assertEquals(bucketsX.length + 1, output.getFirst().getHeight());
+          assertEquals(bucketsY.length + 1, output.getFirst().getWidth());
+          for (int i = 0; i < output.getFirst().getHeight(); i++) {
+            assertEquals(output.getSecond().getRow(i), output.getFirst().getRow(i));
+          }
+          assertEquals(BigInteger.valueOf(1), output.getFirst().getRow(1).get(1));
+          assertEquals(BigInteger.valueOf(3), output.getFirst().getRow(2).get(2));
+        }
+      };
+    }
+  }
+
+  public static class TestMultiDimHistogramPublicBuckets<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final List<Integer> x = Arrays.asList(0, 2, 5, 1, 3, 5, 6, 7, 8, 10);
+        final List<Integer> y = Arrays.asList(9, 5, 4, 2, 4, 5, 8, 9, 10, 11);
+        final List<Integer> z = Arrays.asList(7, 5, 4, 1, 7, 2, 3, 4, 2, 11);
+        final int[][] buckets = new int[][] {{1, 4, 9}, {1, 4, 5}, {0, 3, 7, 9}};
+
+        @Override
+        public void test() {
+
+          Application<List<MultiDimensionalArray<BigInteger>>, ProtocolBuilderNumeric>
+              testApplication = builder -> builder.seq(seq -> {
+                List<List<DRes<SInt>>> secretBuckets = Arrays.stream(buckets)
+                    .map(b -> Arrays.stream(b).mapToObj(x -> seq.numeric().input(x, 1))
+                        .collect(Collectors.toList())).collect(Collectors.toList());
+                BigInteger[][] publicBuckets = Arrays.stream(buckets)
+                    .map(b -> Arrays.stream(b).mapToObj(BigInteger::valueOf)
+                        .toArray(BigInteger[]::new)).toArray(BigInteger[][]::new);
+                Matrix<DRes<SInt>> data = MatrixUtils.buildMatrix(x.size(), 3, (i, j) -> {
+                  if (j == 0) {
+                    return seq.numeric().input(x.get(i), 1);
+                  } else if (j == 1) {
+                    return seq.numeric().input(y.get(i), 2);
+                  } else {
+                    return seq.numeric().input(z.get(i), 1);
+                  }
+                });
+
+                List<DRes<MultiDimensionalArray<DRes<SInt>>>> histograms = List.of(
+                    new MultiDimensionalHistogram(secretBuckets, data).buildComputation(seq),
+                    new MultiDimensionalHistogram(publicBuckets, data).buildComputation(seq),
+                    Statistics.using(seq).multiDimensionalHistogramDiscrete(buckets, data));
+                return DRes.of(histograms);
+              }).seq((seq, histograms) -> {
+                List<MultiDimensionalArray<DRes<BigInteger>>> opened = histograms.stream()
+                    .map(h -> h.out().map(seq.numeric()::open)).collect(Collectors.toList());
+                return () -> opened.stream().map(h -> h.map(DRes::out))
+                    .collect(Collectors.toList());
+              });
+
+          List<MultiDimensionalArray<BigInteger>> output = runApplication(testApplication);
+          MultiDimensionalArray<BigInteger> expected = output.get(0);
+          assertEquals(List.of(4, 4, 5), expected.getShape());
+          for (MultiDimensionalArray<BigInteger> actual : output.subList(1, output.size())) {
+            assertEquals(expected.getShape(), actual.getShape());
+            expected.forEachWithIndices((e, i) -> assertEquals(e, actual.get(i)));
+          }
+          assertEquals(x.size(), expected.stream().mapToInt(BigInteger::intValue).sum());
+        }
+      };
+    }
+  }
+
   public static class TestKAnonymity<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -956,6 +1687,79 @@ public class DescriptiveStatTests {
     }
   }
 
+  public static class TestKAnonymityPublicBuckets<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final List<Integer> x = Arrays.asList(0, 0, 1, 1, 3, 4, 5, 1, 3, 5, 6, 7, 8, 10);
+        final List<Integer> y = Arrays.asList(0, 2, 1, 1, 1, 1, 0, 2, 4, 5, 8, 9, 10, 11);
+        final List<Integer> z = Arrays.asList(0, 0, 0, 1, 5, 3, 4, 1, 7, 2, 3, 4, 2, 11);
+        final List<Integer> s = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14);
+        final int[][] buckets = new int[][] {{2}, {2}, {3}};
+
+        @Override
+        public void test() {
+
+          Application<List<MultiDimensionalArray<List<BigInteger>>>, ProtocolBuilderNumeric>
+              testApplication = builder -> builder.seq(seq -> {
+                List<List<DRes<SInt>>> secretBuckets = Arrays.stream(buckets)
+                    .map(b -> Arrays.stream(b).mapToObj(x -> seq.numeric().input(x, 1))
+                        .collect(Collectors.toList())).collect(Collectors.toList());
+                BigInteger[][] publicBuckets = Arrays.stream(buckets)
+                    .map(b -> Arrays.stream(b).mapToObj(BigInteger::valueOf)
+                        .toArray(BigInteger[]::new)).toArray(BigInteger[][]::new);
+                Matrix<DRes<SInt>> data = MatrixUtils.buildMatrix(x.size(), 3, (i, j) -> {
+                  if (j == 0) {
+                    return seq.numeric().input(x.get(i), 1);
+                  } else if (j == 1) {
+                    return seq.numeric().input(y.get(i), 2);
+                  } else {
+                    return seq.numeric().input(z.get(i), 1);
+                  }
+                });
+                List<DRes<SInt>> sensitive = s.stream().map(x -> seq.numeric().input(x, 1))
+                    .collect(Collectors.toList());
+
+                List<DRes<MultiDimensionalArray<List<DRes<SInt>>>>> results = List.of(
+                    seq.seq(new LeakyKAnonymity(data, sensitive, secretBuckets, 3)),
+                    seq.seq(new LeakyKAnonymity(data, sensitive, publicBuckets, 3)),
+                    Statistics.using(seq).kAnonymize(data, sensitive, secretBuckets, 3),
+                    Statistics.using(seq).kAnonymize(data, sensitive, buckets, 3));
+                return DRes.of(results);
+              }).seq((seq, results) -> {
+                List<MultiDimensionalArray<List<DRes<BigInteger>>>> opened = results.stream()
+                    .map(r -> r.out().map(l -> l.stream().map(seq.numeric()::open)
+                        .collect(Collectors.toList()))).collect(Collectors.toList());
+                return () -> opened.stream().map(r -> r.map(l -> l.stream().map(DRes::out)
+                    .collect(Collectors.toList()))).collect(Collectors.toList());
+              });
+
+          List<MultiDimensionalArray<List<BigInteger>>> output = runApplication(testApplication);
+
+          // Without shuffling, the outputs should be identical
+          output.get(0).forEachWithIndices(
+              (expected, i) -> assertEquals(expected, output.get(1).get(i)));
+
+          // The facade shuffles the rows, so we only compare the sets of sensitive attributes
+          output.get(2).forEachWithIndices((expected, i) -> {
+            List<BigInteger> expectedSorted = expected.stream()
+                .filter(v -> !v.equals(BigInteger.ZERO)).sorted().collect(Collectors.toList());
+            List<BigInteger> actualSorted = output.get(3).get(i).stream()
+                .filter(v -> !v.equals(BigInteger.ZERO)).sorted().collect(Collectors.toList());
+            assertEquals(expectedSorted, actualSorted);
+          });
+
+          long unsuppressed = output.get(1).stream().flatMap(List::stream)
+              .filter(v -> !v.equals(BigInteger.ZERO)).count();
+          assertEquals(s.size() - 3, unsuppressed);
+        }
+      };
+    }
+  }
+
   public static class TestContingencyTable<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -1000,6 +1804,50 @@ public class DescriptiveStatTests {
     }
   }
 
+  public static class TestContingencyTableLargeRange<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        // The range of the second attribute is large enough to use a one-hot encoding
+        final Random random = new Random(1234);
+        final int w = 3;
+        final int h = 12;
+        final int n = 20;
+        final List<Integer> x = IntStream.generate(() -> random.nextInt(w)).limit(n).boxed()
+            .collect(Collectors.toList());
+        final List<Integer> y = IntStream.generate(() -> random.nextInt(h)).limit(n).boxed()
+            .collect(Collectors.toList());
+
+        @Override
+        public void test() {
+
+          Application<Matrix<BigInteger>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.seq(seq -> {
+                List<SIntPair> buckets = IntStream.range(0, n).mapToObj(
+                    i -> new SIntPair(seq.numeric().input(x.get(i), 1),
+                        seq.numeric().input(y.get(i), 2))).collect(Collectors.toList());
+                return new ContingencyTableCategorical(buckets, w, h).buildComputation(seq);
+              }).par((par, table) -> DRes.of(MatrixUtils.map(table, e -> par.numeric().open(e))))
+                  .seq((seq, table) -> DRes.of(MatrixUtils.map(table, DRes::out)));
+
+          Matrix<BigInteger> output = runApplication(testApplication);
+          for (int i = 0; i < w; i++) {
+            for (int j = 0; j < h; j++) {
+              int finalI = i;
+              int finalJ = j;
+              Assert.assertEquals(IntStream.range(0, n)
+                      .filter(k -> x.get(k) == finalI && y.get(k) == finalJ).count(),
+                  output.getRow(i).get(j).longValue());
+            }
+          }
+        }
+      };
+    }
+  }
+
 
   //  public static class TestKAnonymityLarge<ResourcePoolT extends ResourcePool>
 //      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
@@ -1,5 +1,13 @@
 package dk.alexandra.fresco.stat;
 
+import static dk.alexandra.fresco.stat.filtered.FilterPredicate.and;
+import static dk.alexandra.fresco.stat.filtered.FilterPredicate.equalTo;
+import static dk.alexandra.fresco.stat.filtered.FilterPredicate.greaterThan;
+import static dk.alexandra.fresco.stat.filtered.FilterPredicate.in;
+import static dk.alexandra.fresco.stat.filtered.FilterPredicate.lessThan;
+import static dk.alexandra.fresco.stat.filtered.FilterPredicate.not;
+import static dk.alexandra.fresco.stat.filtered.FilterPredicate.or;
+import static dk.alexandra.fresco.stat.filtered.FilterPredicate.range;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -12,8 +20,11 @@ import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
+import dk.alexandra.fresco.lib.common.util.SIntPair;
 import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.descriptive.sufficient.SufficientStatistics;
+import dk.alexandra.fresco.stat.filtered.FilterPredicate;
 import dk.alexandra.fresco.stat.utils.MatrixUtils;
 import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
 import dk.alexandra.fresco.stat.utils.VectorUtils;
@@ -21,13 +32,20 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.stat.correlation.Covariance;
+import org.apache.commons.math3.stat.correlation.PearsonsCorrelation;
 import org.apache.commons.math3.stat.descriptive.moment.Mean;
 import org.apache.commons.math3.stat.descriptive.moment.Variance;
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
 import org.apache.commons.math3.stat.inference.TTest;
+import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
 import org.junit.Assert;
 
 public class FilteredStatTests {
@@ -206,6 +224,58 @@ public class FilteredStatTests {
     }
   }
 
+  public static class TestFilteredHistogramPublicBuckets<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final int n = 50;
+        final Random random = new Random(1234);
+        final List<Integer> x = IntStream.range(0, n).map(i -> random.nextInt(50) - 10).boxed()
+            .collect(Collectors.toList());
+        final List<Integer> filter = IntStream.range(0, n).map(i -> random.nextInt(2)).boxed()
+            .collect(Collectors.toList());
+        final int[] buckets = new int[]{0, 10, 20, 30};
+
+        @Override
+        public void test() {
+
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                List<DRes<SInt>> xSecret =
+                    x.stream().map(x -> seq.numeric().input(x, 1)).collect(Collectors.toList());
+                List<DRes<SInt>> filterSecret =
+                    filter.stream().map(b -> seq.numeric().input(b, 1))
+                        .collect(Collectors.toList());
+                return FilteredStatistics.using(seq).histogram(buckets, xSecret, filterSecret);
+              }).seq((seq, h) -> {
+                List<DRes<BigInteger>> out =
+                    h.stream().map(seq.numeric()::open).collect(Collectors.toList());
+                return () -> out.stream().map(DRes::out).collect(Collectors.toList());
+              });
+
+          List<BigInteger> output = runApplication(testApplication);
+
+          int[] expected = new int[buckets.length + 1];
+          for (int i = 0; i < n; i++) {
+            if (filter.get(i) == 1) {
+              int bucket = 0;
+              while (bucket < buckets.length && x.get(i) > buckets[bucket]) {
+                bucket++;
+              }
+              expected[bucket]++;
+            }
+          }
+          for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], output.get(i).intValue());
+          }
+        }
+      };
+    }
+  }
+
   public static class TestHistogramContinuous<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -313,6 +383,70 @@ public class FilteredStatTests {
     }
   }
 
+  public static class TestFilteredKAnonymityPublicBuckets<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+        final Random random = new Random(1234);
+        final int n = 50;
+        final int k = 3;
+        final List<Integer> x = IntStream.generate(() -> random.nextInt(10)).limit(n).boxed()
+            .collect(Collectors.toList());
+        final List<Integer> y = IntStream.generate(() -> random.nextInt(10)).limit(n).boxed()
+            .collect(Collectors.toList());
+        final List<List<Integer>> D = List.of(x, y);
+        final List<Integer> s = IntStream.range(0, n).map(i -> i + 1).boxed()
+            .collect(Collectors.toList());
+        final int[][] buckets = new int[][] {{2, 6}, {4}};
+        final List<Integer> filter = IntStream.generate(() -> random.nextInt(2)).limit(n).boxed()
+            .collect(Collectors.toList());
+
+        @Override
+        public void test() {
+
+          Application<Pair<MultiDimensionalArray<List<BigInteger>>,
+              MultiDimensionalArray<List<BigInteger>>>, ProtocolBuilderNumeric> testApplication =
+              builder -> builder.seq(seq -> {
+                List<List<DRes<SInt>>> secretBuckets = Arrays.stream(buckets)
+                    .map(b -> Arrays.stream(b).mapToObj(bi -> seq.numeric().input(bi, 1))
+                        .collect(Collectors.toList())).collect(Collectors.toList());
+                Matrix<DRes<SInt>> data = MatrixUtils
+                    .buildMatrix(n, 2, (i, j) -> seq.numeric().known(D.get(j).get(i)));
+                List<DRes<SInt>> sensitive = s.stream().map(si -> seq.numeric().input(si, 1))
+                    .collect(Collectors.toList());
+                List<DRes<SInt>> filterSecret = filter.stream().map(fi -> seq.numeric().known(fi))
+                    .collect(Collectors.toList());
+                DRes<MultiDimensionalArray<List<BigInteger>>> publicBuckets = FilteredStatistics
+                    .using(seq).kAnonymizeAndOpen(data, sensitive, buckets, k, filterSecret);
+                DRes<MultiDimensionalArray<List<BigInteger>>> secret = FilteredStatistics
+                    .using(seq).kAnonymizeAndOpen(data, sensitive, secretBuckets, k, filterSecret);
+                return Pair.lazy(publicBuckets, secret);
+              }).seq((seq, output) -> Pair.lazy(output.getFirst().out(),
+                  output.getSecond().out()));
+
+          Pair<MultiDimensionalArray<List<BigInteger>>, MultiDimensionalArray<List<BigInteger>>>
+              output = runApplication(testApplication);
+
+          assertEquals(output.getSecond().getShape(), output.getFirst().getShape());
+          output.getSecond().forEachWithIndices((expected, index) -> {
+            List<BigInteger> actual = new ArrayList<>(output.getFirst().get(index));
+            actual.sort(Comparator.naturalOrder());
+            List<BigInteger> expectedSorted = new ArrayList<>(expected);
+            expectedSorted.sort(Comparator.naturalOrder());
+            assertEquals(expectedSorted, actual);
+
+            for (BigInteger entry : actual) {
+              int actualIndex = entry.intValue() - 1;
+              assertEquals(1, filter.get(actualIndex).intValue());
+            }
+          });
+        }
+      };
+    }
+  }
+
   public static class TestFilteredTTest<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -364,4 +498,359 @@ public class FilteredStatTests {
     }
   }
 
+
+  public static class TestFilteredCompaction<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 30;
+        final int[] sizes = new int[]{4, 8, 16};
+        final List<List<Integer>> x = IntStream.range(0, n)
+            .mapToObj(i -> List.of(i, random.nextInt(100))).collect(Collectors.toList());
+        final List<Integer> filter = IntStream.generate(() -> random.nextInt(4) == 0 ? 1 : 0)
+            .limit(n).boxed().collect(Collectors.toList());
+
+        @Override
+        public void test() {
+
+          Application<List<Pair<List<List<BigInteger>>, List<BigInteger>>>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                Matrix<DRes<SInt>> input = MatrixUtils.buildMatrix(n, 2,
+                    (i, j) -> seq.numeric().input(x.get(i).get(j), 1));
+                List<DRes<SInt>> filterSecret = filter.stream()
+                    .map(f -> seq.numeric().input(f, 2)).collect(Collectors.toList());
+                return Pair.lazy(FilteredStatistics.using(seq).compact(input, filterSecret),
+                    FilteredStatistics.using(seq).compact(input, filterSecret, sizes));
+              }).seq((seq, compacted) -> {
+                List<Pair<List<List<DRes<BigInteger>>>, List<DRes<BigInteger>>>> opened =
+                    new ArrayList<>();
+                for (Pair<Matrix<DRes<SInt>>, List<DRes<SInt>>> c : List.of(
+                    compacted.getFirst().out(), compacted.getSecond().out())) {
+                  List<List<DRes<BigInteger>>> rows = new ArrayList<>();
+                  for (List<DRes<SInt>> row : c.getFirst().getRows()) {
+                    rows.add(VectorUtils.open(row, seq));
+                  }
+                  opened.add(new Pair<>(rows, VectorUtils.open(c.getSecond(), seq)));
+                }
+                return () -> opened.stream().map(c -> new Pair<>(c.getFirst().stream()
+                        .map(row -> row.stream().map(DRes::out).collect(Collectors.toList()))
+                        .collect(Collectors.toList()),
+                    c.getSecond().stream().map(DRes::out).collect(Collectors.toList())))
+                    .collect(Collectors.toList());
+              });
+
+          List<Pair<List<List<BigInteger>>, List<BigInteger>>> output =
+              runApplication(testApplication);
+
+          List<List<BigInteger>> expected = IntStream.range(0, n).filter(i -> filter.get(i) == 1)
+              .mapToObj(i -> x.get(i).stream().map(BigInteger::valueOf)
+                  .collect(Collectors.toList())).collect(Collectors.toList());
+          int expectedSize = Arrays.stream(sizes).filter(size -> size >= expected.size())
+              .findFirst().orElse(n);
+
+          assertEquals(expected.size(), output.get(0).getFirst().size());
+          assertEquals(expectedSize, output.get(1).getFirst().size());
+
+          for (Pair<List<List<BigInteger>>, List<BigInteger>> compacted : output) {
+            List<List<BigInteger>> selected = new ArrayList<>();
+            for (int i = 0; i < compacted.getFirst().size(); i++) {
+              List<BigInteger> row = compacted.getFirst().get(i);
+              int id = row.get(0).intValue();
+              assertEquals(BigInteger.valueOf(x.get(id).get(1)), row.get(1));
+              assertEquals(BigInteger.valueOf(filter.get(id)), compacted.getSecond().get(i));
+              if (filter.get(id) == 1) {
+                selected.add(row);
+              }
+            }
+            selected.sort(Comparator.comparing(row -> row.get(0)));
+            assertEquals(expected, selected);
+          }
+        }
+      };
+    }
+  }
+
+
+  public static class TestFilterPredicate<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 20;
+
+        // | age | region | income |
+        final List<List<Integer>> x = IntStream.range(0, n)
+            .mapToObj(i -> List.of(20 + random.nextInt(50), random.nextInt(6),
+                random.nextInt(1000))).collect(Collectors.toList());
+
+        @Override
+        public void test() {
+
+          FilterPredicate predicate = and(
+              range(0, 30, 50),
+              or(in(1, 1, 3), greaterThan(2, 500)),
+              not(and(equalTo(1, 3), lessThan(2, 200))));
+
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = builder -> builder
+              .seq(seq -> {
+                Matrix<DRes<SInt>> input = MatrixUtils.buildMatrix(n, 3,
+                    (i, j) -> seq.numeric().input(x.get(i).get(j), 1));
+                return FilteredStatistics.using(seq).filter(input, predicate);
+              }).seq((seq, filter) -> {
+                List<DRes<BigInteger>> opened = VectorUtils.open(filter, seq);
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+
+          List<BigInteger> output = runApplication(testApplication);
+
+          for (int i = 0; i < n; i++) {
+            int age = x.get(i).get(0);
+            int region = x.get(i).get(1);
+            int income = x.get(i).get(2);
+            boolean expected = age >= 30 && age < 50
+                && (region == 1 || region == 3 || income > 500)
+                && !(region == 3 && income < 200);
+            assertEquals(expected ? BigInteger.ONE : BigInteger.ZERO, output.get(i));
+          }
+        }
+      };
+    }
+  }
+
+
+  public static class TestFilteredSufficientStatistics<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 30;
+        final int split = 20;
+        final double[][] data = IntStream.range(0, n).mapToObj(i -> {
+          double x1 = random.nextDouble() * 10.0;
+          double x2 = random.nextDouble() * 5.0 - 2.0;
+          return new double[]{x1, x2, 1.5 + 2.0 * x1 - 0.5 * x2 + random.nextGaussian()};
+        }).toArray(double[][]::new);
+        final List<Integer> filter = IntStream.generate(() -> random.nextInt(2)).limit(split)
+            .boxed().collect(Collectors.toList());
+
+        @Override
+        public void test() {
+          Application<List<List<BigDecimal>>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.seq(seq -> {
+                FixedNumeric numeric = FixedNumeric.using(seq);
+                List<List<DRes<SFixed>>> observations = Arrays.stream(data).map(
+                    row -> Arrays.stream(row).mapToObj(x -> numeric.input(x, 1))
+                        .collect(Collectors.toList())).collect(Collectors.toList());
+                List<DRes<SInt>> filterSecret = filter.stream()
+                    .map(f -> seq.numeric().input(f, 2)).collect(Collectors.toList());
+
+                // Merge statistics for a filtered and an unfiltered sample
+                DRes<SufficientStatistics> first = FilteredStatistics.using(seq)
+                    .sufficientStatistics(observations.subList(0, split), filterSecret);
+                DRes<SufficientStatistics> second = Statistics.using(seq)
+                    .sufficientStatistics(observations.subList(split, n));
+                return Statistics.using(seq).mergeSufficientStatistics(first, second);
+              }).par((par, s) -> {
+                Statistics statistics = Statistics.using(par);
+                DRes<List<DRes<SFixed>>> mean = statistics.sampleMean(s);
+                DRes<Matrix<DRes<SFixed>>> covariance = statistics.sampleCovariance(s);
+                DRes<Matrix<DRes<SFixed>>> correlation = statistics.correlation(s);
+                DRes<ArrayList<DRes<SFixed>>> beta = statistics.linearRegression(s, 2);
+                return () -> List.of(mean.out(), covariance.out().getRow(0),
+                    correlation.out().getRow(0), beta.out());
+              }).seq((seq, results) -> {
+                FixedNumeric fixedNumeric = FixedNumeric.using(seq);
+                List<List<DRes<BigDecimal>>> opened = results.stream()
+                    .map(result -> result.stream().map(fixedNumeric::open)
+                        .collect(Collectors.toList())).collect(Collectors.toList());
+                return () -> opened.stream().map(result -> result.stream().map(DRes::out)
+                    .collect(Collectors.toList())).collect(Collectors.toList());
+              });
+
+          List<List<BigDecimal>> output = runApplication(testApplication);
+
+          double[][] selected = IntStream.range(0, n).filter(i -> i >= split || filter.get(i) == 1)
+              .mapToObj(i -> data[i]).toArray(double[][]::new);
+          RealMatrix matrix = new Array2DRowRealMatrix(selected);
+          RealMatrix covariance = new Covariance(matrix).getCovarianceMatrix();
+          RealMatrix correlation = new PearsonsCorrelation(matrix).getCorrelationMatrix();
+          OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
+          regression.newSampleData(matrix.getColumn(2),
+              Arrays.stream(selected).map(row -> new double[]{row[0], row[1]})
+                  .toArray(double[][]::new));
+          double[] beta = regression.estimateRegressionParameters();
+
+          for (int j = 0; j < 3; j++) {
+            assertEquals(new Mean().evaluate(matrix.getColumn(j)),
+                output.get(0).get(j).doubleValue(), 0.001);
+            assertEquals(covariance.getEntry(0, j), output.get(1).get(j).doubleValue(), 0.001);
+            assertEquals(correlation.getEntry(0, j), output.get(2).get(j).doubleValue(), 0.001);
+            assertEquals(beta[j], output.get(3).get(j).doubleValue(), 0.001);
+          }
+        }
+      };
+    }
+  }
+
+  public static class TestFilteredLinearRegressionLargeValues<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 500;
+        final double[][] data = IntStream.range(0, n).mapToObj(i -> {
+          double x1 = random.nextDouble() * 1000.0;
+          double x2 = random.nextDouble() * 500.0 - 200.0;
+          return new double[]{x1, x2, 1.5 + 2.0 * x1 - 0.5 * x2 + random.nextGaussian()};
+        }).toArray(double[][]::new);
+        final List<Integer> filter = IntStream.generate(() -> random.nextInt(2)).limit(n)
+            .boxed().collect(Collectors.toList());
+
+        @Override
+        public void test() {
+          Application<List<BigDecimal>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.seq(seq -> {
+                FixedNumeric numeric = FixedNumeric.using(seq);
+                List<List<DRes<SFixed>>> observations = Arrays.stream(data).map(
+                    row -> Arrays.stream(row).mapToObj(x -> numeric.input(x, 1))
+                        .collect(Collectors.toList())).collect(Collectors.toList());
+                List<DRes<SInt>> filterSecret = filter.stream()
+                    .map(f -> seq.numeric().input(f, 2)).collect(Collectors.toList());
+                return FilteredStatistics.using(seq)
+                    .sufficientStatistics(observations, filterSecret);
+              }).seq((seq, s) -> Statistics.using(seq).linearRegression(s, 2))
+                  .seq((seq, beta) -> {
+                    List<DRes<BigDecimal>> opened = beta.stream()
+                        .map(FixedNumeric.using(seq)::open).collect(Collectors.toList());
+                    return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+                  });
+
+          List<BigDecimal> output = runApplication(testApplication);
+
+          double[][] selected = IntStream.range(0, n).filter(i -> filter.get(i) == 1)
+              .mapToObj(i -> data[i]).toArray(double[][]::new);
+          OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
+          regression.newSampleData(Arrays.stream(selected).mapToDouble(row -> row[2]).toArray(),
+              Arrays.stream(selected).map(row -> new double[]{row[0], row[1]})
+                  .toArray(double[][]::new));
+          double[] beta = regression.estimateRegressionParameters();
+
+          for (int j = 0; j < 3; j++) {
+            assertEquals(beta[j], output.get(j).doubleValue(), 0.01);
+          }
+        }
+      };
+    }
+  }
+
+  public static class TestFilteredContingencyTable<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 20;
+        final int w = 4;
+        final int h = 3;
+        final List<Pair<Integer, Integer>> data = IntStream.range(0, n)
+            .mapToObj(i -> new Pair<>(random.nextInt(w), random.nextInt(h)))
+            .collect(Collectors.toList());
+        final List<Integer> filter = IntStream.generate(() -> random.nextInt(2)).limit(n).boxed()
+            .collect(Collectors.toList());
+
+        @Override
+        public void test() {
+          Application<Matrix<BigInteger>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.seq(seq -> {
+                List<SIntPair> input = data.stream().map(p -> new SIntPair(
+                    seq.numeric().input(p.getFirst(), 1), seq.numeric().input(p.getSecond(), 1)))
+                    .collect(Collectors.toList());
+                List<DRes<SInt>> filterSecret = filter.stream()
+                    .map(f -> seq.numeric().input(f, 2)).collect(Collectors.toList());
+                return FilteredStatistics.using(seq).contingencyTable(input, w, h, filterSecret);
+              }).seq((seq, table) -> {
+                Matrix<DRes<BigInteger>> opened = MatrixUtils.map(table, seq.numeric()::open);
+                return () -> MatrixUtils.map(opened, DRes::out);
+              });
+
+          Matrix<BigInteger> output = runApplication(testApplication);
+
+          int[][] expected = new int[w][h];
+          for (int i = 0; i < n; i++) {
+            expected[data.get(i).getFirst()][data.get(i).getSecond()] += filter.get(i);
+          }
+          assertEquals(w, output.getHeight());
+          assertEquals(h, output.getWidth());
+          for (int i = 0; i < w; i++) {
+            for (int j = 0; j < h; j++) {
+              assertEquals(expected[i][j], output.getRow(i).get(j).intValue());
+            }
+          }
+        }
+      };
+    }
+  }
+
+  public static class TestFilteredPercentiles<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 30;
+        final double[] quantiles = new double[]{0.1, 0.5, 0.75};
+        final List<Double> x = IntStream.range(0, n)
+            .mapToDouble(i -> random.nextDouble() * 10.0 - 5.0).boxed().collect(
+                Collectors.toList());
+        final List<Integer> filter = IntStream.generate(() -> random.nextInt(2)).limit(n).boxed()
+            .collect(Collectors.toList());
+
+        @Override
+        public void test() {
+          Application<List<BigDecimal>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.seq(seq -> {
+                FixedNumeric numeric = FixedNumeric.using(seq);
+                List<DRes<SFixed>> xSecret =
+                    x.stream().map(x -> numeric.input(x, 1)).collect(Collectors.toList());
+                List<DRes<SInt>> filterSecret = filter.stream()
+                    .map(f -> seq.numeric().input(f, 2)).collect(Collectors.toList());
+                return FilteredStatistics.using(seq)
+                    .samplePercentiles(xSecret, quantiles, filterSecret);
+              }).seq((seq, percentiles) -> {
+                List<DRes<BigDecimal>> opened = percentiles.stream()
+                    .map(FixedNumeric.using(seq)::open).collect(Collectors.toList());
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+
+          List<BigDecimal> output = runApplication(testApplication);
+
+          double[] selected = IntStream.range(0, n).filter(i -> filter.get(i) == 1)
+              .mapToDouble(x::get).toArray();
+          Percentile percentile = new Percentile();
+          for (int i = 0; i < quantiles.length; i++) {
+            assertEquals(percentile.evaluate(selected, 100 * quantiles[i]),
+                output.get(i).doubleValue(), 0.001);
+          }
+        }
+      };
+    }
+  }
+
 }
@@ -16,15 +16,19 @@ import dk.alexandra.fresco.lib.fixed.SFixed;
 import dk.alexandra.fresco.stat.complex.Open;
 import dk.alexandra.fresco.stat.complex.OpenComplex;
 import dk.alexandra.fresco.stat.complex.SecretComplex;
+import dk.alexandra.fresco.stat.linearalgebra.CholeskyDecomposition;
 import dk.alexandra.fresco.stat.linearalgebra.Convolution;
 import dk.alexandra.fresco.stat.linearalgebra.FFT;
+import dk.alexandra.fresco.stat.linearalgebra.GramMatrix;
 import dk.alexandra.fresco.stat.utils.MatrixUtils;
+import dk.alexandra.fresco.stat.utils.VectorUtils;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.DecompositionSolver;
@@ -187,6 +191,89 @@ public class LATests {
     }
   }
 
+  public static class TestCholeskyDecomposition<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 4;
+        final RealMatrix b = new Array2DRowRealMatrix(IntStream.range(0, 2 * n)
+            .mapToObj(i -> random.doubles(n, -5, 5).toArray()).toArray(double[][]::new));
+        final RealMatrix a = b.transpose().multiply(b);
+
+        @Override
+        public void test() {
+          Application<Matrix<BigDecimal>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.seq(seq -> FixedLinearAlgebra.using(seq).input(MatrixUtils
+                  .buildMatrix(n, n, (i, j) -> BigDecimal.valueOf(a.getEntry(i, j))), 1))
+                  .seq((seq, input) -> new CholeskyDecomposition(input).buildComputation(seq))
+                  .seq((seq, l) -> {
+                    Matrix<DRes<BigDecimal>> opened = MatrixUtils
+                        .map(l, FixedNumeric.using(seq)::open);
+                    return () -> MatrixUtils.map(opened, DRes::out);
+                  });
+
+          Matrix<BigDecimal> out = runApplication(testApplication);
+
+          RealMatrix expected = new org.apache.commons.math3.linear.CholeskyDecomposition(a)
+              .getL();
+          for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+              assertEquals(expected.getEntry(i, j), out.getRow(i).get(j).doubleValue(), 0.001);
+            }
+          }
+        }
+      };
+    }
+  }
+
+  public static class TestCholeskyDecompositionColumns<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+
+      return new TestThread<>() {
+
+        final Random random = new Random(1234);
+        final int n = 4;
+        final int m = 3;
+        final RealMatrix b = new Array2DRowRealMatrix(IntStream.range(0, 2 * n)
+            .mapToObj(i -> random.doubles(n, -5, 5).toArray()).toArray(double[][]::new));
+        final RealMatrix a = b.transpose().multiply(b);
+
+        @Override
+        public void test() {
+          Application<Matrix<BigDecimal>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.seq(seq -> FixedLinearAlgebra.using(seq).input(MatrixUtils
+                  .buildMatrix(n, n, (i, j) -> BigDecimal.valueOf(a.getEntry(i, j))), 1))
+                  .seq((seq, input) -> new CholeskyDecomposition(input, m).buildComputation(seq))
+                  .seq((seq, l) -> {
+                    Matrix<DRes<BigDecimal>> opened = MatrixUtils
+                        .map(l, FixedNumeric.using(seq)::open);
+                    return () -> MatrixUtils.map(opened, DRes::out);
+                  });
+
+          Matrix<BigDecimal> out = runApplication(testApplication);
+
+          RealMatrix expected = new org.apache.commons.math3.linear.CholeskyDecomposition(a)
+              .getL();
+          assertEquals(n, out.getHeight());
+          assertEquals(m, out.getWidth());
+          for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+              assertEquals(expected.getEntry(i, j), out.getRow(i).get(j).doubleValue(), 0.001);
+            }
+          }
+        }
+      };
+    }
+  }
+
   public static class TestTriangularInverse<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -240,6 +327,62 @@ public class LATests {
     }
   }
 
+  public static class TestGramMatrix<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        @Override
+        public void test() {
+          Random random = new Random(1234);
+          Matrix<BigDecimal> a = MatrixUtils.buildMatrix(5, 3,
+              (i, j) -> BigDecimal.valueOf(random.nextDouble() * 10.0 - 5.0));
+          Matrix<BigDecimal> b = MatrixUtils.buildMatrix(5, 2,
+              (i, j) -> BigDecimal.valueOf(random.nextDouble() * 10.0 - 5.0));
+
+          Application<Pair<Matrix<BigDecimal>, Matrix<BigDecimal>>, ProtocolBuilderNumeric>
+              testApplication = builder -> builder.par(par -> {
+                DRes<Matrix<DRes<SFixed>>> aSecret = FixedLinearAlgebra.using(par).input(a, 1);
+                DRes<Matrix<DRes<SFixed>>> bSecret = FixedLinearAlgebra.using(par).input(b, 1);
+                return Pair.lazy(aSecret, bSecret);
+              }).par((par, ab) -> {
+                List<List<DRes<SFixed>>> aColumns = VectorUtils.listBuilder(a.getWidth(),
+                    ab.getFirst().out()::getColumn);
+                List<List<DRes<SFixed>>> bColumns = VectorUtils.listBuilder(b.getWidth(),
+                    ab.getSecond().out()::getColumn);
+                DRes<Matrix<DRes<SFixed>>> gram = par.seq(new GramMatrix(aColumns));
+                DRes<Matrix<DRes<SFixed>>> cross = par.seq(new GramMatrix(aColumns, bColumns));
+                return Pair.lazy(gram, cross);
+              }).par((par, products) -> {
+                DRes<Matrix<DRes<BigDecimal>>> gram = FixedLinearAlgebra.using(par)
+                    .openMatrix(products.getFirst());
+                DRes<Matrix<DRes<BigDecimal>>> cross = FixedLinearAlgebra.using(par)
+                    .openMatrix(products.getSecond());
+                return () -> new Pair<>(MatrixUtils.map(gram.out(), DRes::out),
+                    MatrixUtils.map(cross.out(), DRes::out));
+              });
+
+          Pair<Matrix<BigDecimal>, Matrix<BigDecimal>> out = runApplication(testApplication);
+
+          Matrix<BigDecimal> expectedGram = multiply(MatrixUtils.transpose(a), a);
+          Matrix<BigDecimal> expectedCross = multiply(MatrixUtils.transpose(a), b);
+          for (int i = 0; i < a.getWidth(); i++) {
+            for (int j = 0; j < a.getWidth(); j++) {
+              assertEquals(expectedGram.getRow(i).get(j).doubleValue(),
+                  out.getFirst().getRow(i).get(j).doubleValue(), 0.001);
+            }
+            for (int j = 0; j < b.getWidth(); j++) {
+              assertEquals(expectedCross.getRow(i).get(j).doubleValue(),
+                  out.getSecond().getRow(i).get(j).doubleValue(), 0.001);
+            }
+          }
+        }
+      };
+    }
+  }
+
   public static class TestEigenvalues<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
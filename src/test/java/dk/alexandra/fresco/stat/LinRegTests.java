@@ -17,6 +17,7 @@ import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
 import dk.alexandra.fresco.stat.anonymisation.NoisyStats;
 import dk.alexandra.fresco.stat.regression.linear.LinearRegression;
+import dk.alexandra.fresco.stat.regression.linear.LinearRegression.Solver;
 import dk.alexandra.fresco.stat.regression.linear.SimpleLinearRegression.SimpleLinearRegressionResult;
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -165,6 +166,16 @@ public class LinRegTests {
   public static class TestLinearRegression<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
+    private final Solver solver;
+
+    public TestLinearRegression() {
+      this(Solver.QR);
+    }
+
+    public TestLinearRegression(Solver solver) {
+      this.solver = solver;
+    }
+
     @Override
     public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
       return new TestThread<>() {
@@ -203,7 +214,7 @@ public class LinRegTests {
 
                 return statistics.linearRegression(
                     inputs.getFirst().stream().map(DRes::out).collect(
-                        Collectors.toList()), inputs.getSecond());
+                        Collectors.toList()), inputs.getSecond(), solver);
               }).seq((seq, result) -> {
                 ArrayList<DRes<SFixed>> toOutput = new ArrayList<>(result.getBeta());
                 toOutput.add(result.getErrorVariance());
@@ -270,6 +281,16 @@ public class LinRegTests {
   public static class TestLinearRegressionLarge<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
+    private final Solver solver;
+
+    public TestLinearRegressionLarge() {
+      this(Solver.QR);
+    }
+
+    public TestLinearRegressionLarge(Solver solver) {
+      this.solver = solver;
+    }
+
     @Override
     public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
       return new TestThread<>() {
@@ -312,7 +333,7 @@ public class LinRegTests {
 
                 return statistics.linearRegression(
                     inputs.getFirst().stream().map(DRes::out).collect(
-                        Collectors.toList()), inputs.getSecond());
+                        Collectors.toList()), inputs.getSecond(), solver);
               }).seq((seq, result) -> {
                 ArrayList<DRes<SFixed>> toOutput = new ArrayList<>(result.getBeta());
                 toOutput.add(result.getErrorVariance());
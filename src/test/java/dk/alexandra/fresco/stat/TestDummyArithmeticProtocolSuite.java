@@ -5,31 +5,57 @@ import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDef
 import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.lib.fixed.FixedNumeric;
 import dk.alexandra.fresco.lib.fixed.SFixed;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestApproximatePercentiles;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestContingencyTable;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestContingencyTableLargeRange;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestCorrelationMatrix;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestCovariance;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestHistogramContinuous;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestHistogramContinuousPublicBuckets;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestHistogramDiscretePublicBuckets;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestHistogramDiscrete;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestHistogramDiscrete2;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestKAnonymity;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestKAnonymityOpen;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestKAnonymityPublicBuckets;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestMahalanobisDistance;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestMean;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestMedian;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestMultiDimHistogram;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestMultiDimHistogramPublicBuckets;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestNoisyHistogram;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestNoisyHistogramPublicBuckets;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestObliviousSelection;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestObliviousShuffle;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestPercentiles;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestSortedColumn;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestSortingHistogram;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestStandardDeviation;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestSufficientStatistics;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestSummaryStatistics;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestTwoDimHistogram;
+import dk.alexandra.fresco.stat.DescriptiveStatTests.TestTwoDimHistogramPublicBuckets;
 import dk.alexandra.fresco.stat.DescriptiveStatTests.TestVariance;
+import dk.alexandra.fresco.stat.FilteredStatTests.TestFilterPredicate;
+import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredCompaction;
+import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredContingencyTable;
 import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredHistogram;
+import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredHistogramPublicBuckets;
 import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredKAnonymity;
+import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredKAnonymityPublicBuckets;
+import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredLinearRegressionLargeValues;
 import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredMean;
+import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredPercentiles;
+import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredSufficientStatistics;
 import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredTTest;
 import dk.alexandra.fresco.stat.FilteredStatTests.TestFilteredVariance;
 import dk.alexandra.fresco.stat.LATests.TestBackSubstitution;
+import dk.alexandra.fresco.stat.LATests.TestCholeskyDecomposition;
+import dk.alexandra.fresco.stat.LATests.TestCholeskyDecompositionColumns;
 import dk.alexandra.fresco.stat.LATests.TestConvolution;
 import dk.alexandra.fresco.stat.LATests.TestEigenvalues;
 import dk.alexandra.fresco.stat.LATests.TestForwardSubstitution;
+import dk.alexandra.fresco.stat.LATests.TestGramMatrix;
 import dk.alexandra.fresco.stat.LATests.TestGramSchmidt;
 import dk.alexandra.fresco.stat.LATests.TestLinearInverseProblem;
 import dk.alexandra.fresco.stat.LATests.TestLinearInverseProblemNoSolution;
@@ -62,13 +88,16 @@ import dk.alexandra.fresco.stat.TestsTests.TestWilcoxonTest;
 import dk.alexandra.fresco.stat.UtilTests.TestArgMax;
 import dk.alexandra.fresco.stat.UtilTests.TestIndicator;
 import dk.alexandra.fresco.stat.UtilTests.TestMax;
+import dk.alexandra.fresco.stat.UtilTests.TestOneHotEncoding;
 import dk.alexandra.fresco.stat.UtilTests.TestParallelIndicator;
 import dk.alexandra.fresco.stat.UtilTests.TestProduct;
+import dk.alexandra.fresco.stat.UtilTests.TestProductTree;
 import dk.alexandra.fresco.stat.mlp.NNTests.TestBackwardPropagation;
 import dk.alexandra.fresco.stat.mlp.NNTests.TestFit;
 import dk.alexandra.fresco.stat.mlp.NNTests.TestForwardPropagation;
 import dk.alexandra.fresco.stat.mlp.NNTests.TestPrediction;
 import dk.alexandra.fresco.stat.mlp.NNTests.TestSingleStepTraining;
+import dk.alexandra.fresco.stat.regression.linear.LinearRegression.Solver;
 import dk.alexandra.fresco.stat.utils.VectorUtils;
 import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
 import java.util.ArrayList;
@@ -103,6 +132,21 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestPercentiles<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_oblivious_selection() {
+    runTest(new TestObliviousSelection<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_oblivious_shuffle() {
+    runTest(new TestObliviousShuffle<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_sorted_column() {
+    runTest(new TestSortedColumn<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_variance() {
     runTest(new TestVariance<>(), TEST_PARAMETERS);
@@ -113,6 +157,11 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestCovariance<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_correlation_matrix() {
+    runTest(new TestCorrelationMatrix<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_mahalanobis_distance() {
     runTest(new TestMahalanobisDistance<>(), TEST_PARAMETERS.field(MersennePrimeFieldDefinition.find(512)).maxBitLength(400));
@@ -123,6 +172,16 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestStandardDeviation<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_summary_statistics() {
+    runTest(new TestSummaryStatistics<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_sufficient_statistics() {
+    runTest(new TestSufficientStatistics<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_T_Test() {
     runTest(new TestTTest<>(), TEST_PARAMETERS);
@@ -168,6 +227,16 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestLinearRegressionLarge<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_linear_regression_cholesky() {
+    runTest(new TestLinearRegression<>(Solver.CHOLESKY), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_large_linear_regression_cholesky() {
+    runTest(new TestLinearRegressionLarge<>(Solver.CHOLESKY), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_correlation() {
     runTest(new DescriptiveStatTests.TestCorrelation<>(), TEST_PARAMETERS);
@@ -300,6 +369,11 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new DescriptiveStatTests.TestFrequencyTable<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_group_by() {
+    runTest(new DescriptiveStatTests.TestGroupBy<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_f_test() {
     runTest(new TestFTest<>(), TEST_PARAMETERS);
@@ -379,11 +453,26 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     }
   }
 
+  @Test
+  public void test_cholesky_decomposition() {
+    runTest(new TestCholeskyDecomposition<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_cholesky_decomposition_columns() {
+    runTest(new TestCholeskyDecompositionColumns<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_inverse_of_triangular_matrix() {
     runTest(new TestTriangularInverse<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_gram_matrix() {
+    runTest(new TestGramMatrix<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_find_eigenvalues() {
     runTest(new TestEigenvalues<>(), TEST_PARAMETERS);
@@ -440,11 +529,21 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestProduct<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_product_tree() {
+    runTest(new TestProductTree<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_histogram_discrete() {
     runTest(new TestHistogramDiscrete<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_sorting_histogram() {
+    runTest(new TestSortingHistogram<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_histogram_discrete_debug() {
     runTest(new TestHistogramDiscrete2<>(), TEST_PARAMETERS);
@@ -455,21 +554,51 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestNoisyHistogram<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_noisy_histogram_public_buckets() {
+    runTest(new TestNoisyHistogramPublicBuckets<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_histogram_continuous() {
     runTest(new TestHistogramContinuous<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_histogram_discrete_public_buckets() {
+    runTest(new TestHistogramDiscretePublicBuckets<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_histogram_continuous_public_buckets() {
+    runTest(new TestHistogramContinuousPublicBuckets<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_approximate_percentiles() {
+    runTest(new TestApproximatePercentiles<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_histogram_continuous_two_dimensions() {
     runTest(new TestTwoDimHistogram<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_histogram_two_dimensions_public_buckets() {
+    runTest(new TestTwoDimHistogramPublicBuckets<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_multidimensional_histogram() {
     runTest(new TestMultiDimHistogram<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_multidimensional_histogram_public_buckets() {
+    runTest(new TestMultiDimHistogramPublicBuckets<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_k_anonymity() {
     runTest(new TestKAnonymity<>(), TEST_PARAMETERS);
@@ -480,6 +609,11 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestKAnonymityOpen<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_k_anonymity_public_buckets() {
+    runTest(new TestKAnonymityPublicBuckets<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_forward_propagation() {
     runTest(new TestForwardPropagation<>(), TEST_PARAMETERS);
@@ -537,16 +671,61 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestFilteredHistogram<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_filtered_histogram_public_buckets() {
+    runTest(new TestFilteredHistogramPublicBuckets<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_filtered_k_anonymisation() {
     runTest(new TestFilteredKAnonymity<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_filtered_k_anonymisation_public_buckets() {
+    runTest(new TestFilteredKAnonymityPublicBuckets<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_filtered_compaction() {
+    runTest(new TestFilteredCompaction<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_filter_predicate() {
+    runTest(new TestFilterPredicate<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_filtered_sufficient_statistics() {
+    runTest(new TestFilteredSufficientStatistics<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_filtered_linear_regression_large_values() {
+    runTest(new TestFilteredLinearRegressionLargeValues<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_filtered_contingency_table() {
+    runTest(new TestFilteredContingencyTable<>(), TEST_PARAMETERS);
+  }
+
+  @Test
+  public void test_filtered_percentiles() {
+    runTest(new TestFilteredPercentiles<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_contingency_table() {
     runTest(new TestContingencyTable<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_contingency_table_large_range() {
+    runTest(new TestContingencyTableLargeRange<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_indicator() {
     runTest(new TestIndicator<>(), TEST_PARAMETERS);
@@ -557,6 +736,11 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestParallelIndicator<>(), TEST_PARAMETERS);
   }
 
+  @Test
+  public void test_one_hot_encoding() {
+    runTest(new TestOneHotEncoding<>(), TEST_PARAMETERS);
+  }
+
   @Test
   public void test_minima() {
     runTest(new TestMinimum<>(), TEST_PARAMETERS);
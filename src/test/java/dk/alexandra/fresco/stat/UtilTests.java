@@ -21,7 +21,9 @@ import dk.alexandra.fresco.stat.utils.Indicator;
 import dk.alexandra.fresco.stat.utils.MaxList;
 import dk.alexandra.fresco.stat.utils.MaxPair;
 import dk.alexandra.fresco.stat.utils.MultiDimensionalArray;
+import dk.alexandra.fresco.stat.utils.OneHotEncoding;
 import dk.alexandra.fresco.stat.utils.ParallelIndicator;
+import dk.alexandra.fresco.stat.utils.ProductTree;
 import dk.alexandra.fresco.stat.utils.RealUtils;
 import dk.alexandra.fresco.stat.utils.VectorUtils;
 import java.math.BigDecimal;
@@ -104,6 +106,25 @@ public class UtilTests {
         array.stream().mapToInt(Integer::intValue).toArray());
   }
 
+  @Test
+  public void testIndicatorPolynomials() {
+    BigInteger modulus = BigInteger.valueOf(1000003);
+    int range = 23;
+    List<List<BigInteger>> polynomials = Indicator.filterPolynomials(range, modulus);
+    Assert.assertSame(polynomials, Indicator.filterPolynomials(range, modulus));
+    Assert.assertEquals(range, polynomials.size());
+    for (int i = 0; i < range; i++) {
+      Assert.assertEquals(range, polynomials.get(i).size());
+      for (int x = 0; x < range; x++) {
+        BigInteger y = BigInteger.ZERO;
+        for (int j = polynomials.get(i).size() - 1; j >= 0; j--) {
+          y = y.multiply(BigInteger.valueOf(x)).add(polynomials.get(i).get(j)).mod(modulus);
+        }
+        Assert.assertEquals(i == x ? BigInteger.ONE : BigInteger.ZERO, y);
+      }
+    }
+  }
+
   private interface EntrywiseListOp<A, B> {
 
     Object apply(List<A> list1, List<B> list2, ProtocolBuilderNumeric builder);
@@ -137,6 +158,42 @@ public class UtilTests {
     }
   }
 
+  public static class TestProductTree<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        final List<List<Integer>> factors = List.of(List.of(1, 2), List.of(3, 0, 5),
+            List.of(7), List.of(2, 3), List.of(11, 13));
+
+        @Override
+        public void test() {
+
+          Application<MultiDimensionalArray<BigInteger>, ProtocolBuilderNumeric> testApplication =
+              builder -> builder.seq(seq -> {
+                List<List<DRes<SInt>>> input = factors.stream().map(list -> list.stream()
+                    .map(x -> seq.numeric().input(x, 1)).collect(Collectors.toList()))
+                    .collect(Collectors.toList());
+                return new ProductTree(input).buildComputation(seq);
+              }).seq((seq, product) -> {
+                MultiDimensionalArray<DRes<BigInteger>> opened = product.map(seq.numeric()::open);
+                return () -> opened.map(DRes::out);
+              });
+
+          MultiDimensionalArray<BigInteger> out = runApplication(testApplication);
+          assertEquals(List.of(2, 3, 1, 2, 2), out.getShape());
+          out.forEachWithIndices((value, index) -> {
+            int expected = IntStream.range(0, factors.size())
+                .map(d -> factors.get(d).get(index.get(d))).reduce(1, (a, b) -> a * b);
+            assertEquals(expected, value.intValue());
+          });
+        }
+      };
+    }
+  }
+
   public static class TestArgMax<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -280,5 +337,42 @@ public class UtilTests {
     }
   }
 
+  public static class TestOneHotEncoding<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<>() {
+
+        int n = 11;
+
+        @Override
+        public void test() {
+
+          Application<List<List<BigInteger>>, ProtocolBuilderNumeric> testApplication = builder ->
+              builder.par(par -> {
+                List<DRes<List<DRes<SInt>>>> out = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                  int finalI = i;
+                  out.add(par.seq(seq -> new OneHotEncoding(n, seq.numeric().known(finalI)).buildComputation(seq)));
+                }
+                return DRes.of(out);
+              }).par((par, out) -> DRes.of(out.stream().map(
+                  row -> row.out().stream().map(x -> par.numeric().open(x)).collect(Collectors.toList()))
+                  .collect(Collectors.toList()))).seq((seq, out) -> DRes.of(out.stream()
+                  .map(row -> row.stream().map(DRes::out).collect(Collectors.toList()))
+                  .collect(Collectors.toList())));
+
+          List<List<BigInteger>> out = runApplication(testApplication);
+          for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+              Assert.assertEquals(i == j ? BigInteger.ONE : BigInteger.ZERO, out.get(i).get(j));
+            }
+          }
+        }
+      };
+    }
+  }
+
 
 }
@@ -0,0 +1,92 @@
+package dk.alexandra.fresco.stat.descriptive.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class BenesNetworkTests {
+
+  @Test
+  public void testRoute() {
+    Random random = new Random(1234);
+    for (int n = 1; n <= 70; n++) {
+      for (int t = 0; t < 20; t++) {
+        List<Integer> shuffled = new ArrayList<>();
+        IntStream.range(0, n).forEach(shuffled::add);
+        Collections.shuffle(shuffled, random);
+        assertRoutes(shuffled.stream().mapToInt(Integer::intValue).toArray());
+      }
+    }
+  }
+
+  @Test
+  public void testRouteIdentityAndReversal() {
+    for (int n : new int[]{2, 3, 4, 5, 7, 8, 9, 15, 16, 17, 31, 32, 33, 63, 64, 65}) {
+      assertRoutes(IntStream.range(0, n).toArray());
+      assertRoutes(IntStream.range(0, n).map(i -> n - 1 - i).toArray());
+    }
+  }
+
+  private static void assertRoutes(int[] permutation) {
+    int n = permutation.length;
+    int[] bits = BenesNetwork.route(permutation);
+    assertEquals(BenesNetwork.switches(n), bits.length);
+    for (int bit : bits) {
+      assertEquals("Control bits must be 0 or 1", 0, bit & ~1);
+    }
+
+    // Row i should end up at position permutation[i]
+    int[] expected = new int[n];
+    for (int i = 0; i < n; i++) {
+      expected[permutation[i]] = i;
+    }
+    assertArrayEquals("n = " + n, expected,
+        apply(IntStream.range(0, n).toArray(), bits, 0, bits.length));
+  }
+
+  /**
+   * Apply the switch layers of the network in the clear, with the same layout as {@link
+   * BenesNetwork#buildComputation}.
+   */
+  private static int[] apply(int[] rows, int[] bits, int from, int to) {
+    int n = rows.length;
+    if (n <= 1) {
+      return rows;
+    } else if (n == 2) {
+      return swapPairs(rows, bits, from, to);
+    }
+
+    int h = n / 2;
+    int upperOffset = from + h;
+    int lowerOffset = upperOffset + BenesNetwork.switches(h);
+    int outputOffset = lowerOffset + BenesNetwork.switches(n - h);
+    assertEquals(to, outputOffset + h);
+
+    int[] permuted = swapPairs(rows, bits, from, upperOffset);
+    int[] upper = IntStream.range(0, h).map(k -> permuted[2 * k]).toArray();
+    int[] lower = IntStream.range(0, n - h).map(k -> permuted[Math.min(2 * k + 1, n - 1)])
+        .toArray();
+    int[] upperOut = apply(upper, bits, upperOffset, lowerOffset);
+    int[] lowerOut = apply(lower, bits, lowerOffset, outputOffset);
+    int[] merged = IntStream.range(0, n)
+        .map(i -> i % 2 == 0 && i / 2 < h ? upperOut[i / 2] : lowerOut[i / 2]).toArray();
+    return swapPairs(merged, bits, outputOffset, to);
+  }
+
+  private static int[] swapPairs(int[] rows, int[] bits, int from, int to) {
+    int[] result = rows.clone();
+    for (int k = 0; k < to - from; k++) {
+      if (bits[from + k] == 1) {
+        result[2 * k] = rows[2 * k + 1];
+        result[2 * k + 1] = rows[2 * k];
+      }
+    }
+    return result;
+  }
+}